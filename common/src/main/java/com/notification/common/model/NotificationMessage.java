@@ -83,6 +83,10 @@ public class NotificationMessage {
     
     @JsonProperty
     private String batchId;
+    
+    // Set when title and message live in notification_content, shared by a whole campaign
+    @JsonProperty
+    private String contentHash;
 
     public NotificationMessage() {
         this.createdAt = new Date();
@@ -163,6 +167,9 @@ public class NotificationMessage {
     public String getBatchId() { return batchId; }
     public void setBatchId(String batchId) { this.batchId = batchId; }
     
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+    
     public void incrementRetryCount() {
         this.retryCount++;
         this.updatedAt = new Date();
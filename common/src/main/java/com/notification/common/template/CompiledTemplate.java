@@ -0,0 +1,109 @@
+package com.notification.common.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A template parsed once into literal segments and {@code {{name}}} placeholder slots.
+ * Rendering appends the segments and looked-up values in order, with no parsing or
+ * intermediate strings. Instances are immutable and can be shared between threads.
+ */
+public final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    // literals[i] precedes slots[i]; the last literal follows the last slot
+    private final String[] literals;
+    private final String[] slots;
+    private final int literalLength;
+
+    private CompiledTemplate(String[] literals, String[] slots) {
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parses {@code {{name}}} placeholders; whitespace around the name is ignored. An unclosed
+     * or empty placeholder is kept as literal text.
+     */
+    public static CompiledTemplate compile(String source) {
+        if (source == null) {
+            source = "";
+        }
+        List<String> literals = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, pos);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                break;
+            }
+            String name = source.substring(open + OPEN.length(), close).trim();
+            if (name.isEmpty()) {
+                literal.append(source, pos, close + CLOSE.length());
+            } else {
+                literal.append(source, pos, open);
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(name);
+            }
+            pos = close + CLOSE.length();
+        }
+        literal.append(source, pos, source.length());
+        literals.add(literal.toString());
+        return new CompiledTemplate(literals.toArray(new String[0]), slots.toArray(new String[0]));
+    }
+
+    /**
+     * Appends the rendered template to {@code out}. Missing values render as empty.
+     */
+    public void renderTo(Map<String, String> data, StringBuilder out) {
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            if (data != null) {
+                String value = data.get(slots[i]);
+                if (value != null) {
+                    out.append(value);
+                }
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    public String render(Map<String, String> data) {
+        if (slots.length == 0) {
+            return literals[0];
+        }
+        StringBuilder out = new StringBuilder(literalLength + 16 * slots.length);
+        renderTo(data, out);
+        return out.toString();
+    }
+
+    // True when the template has no placeholders and always renders to the same text
+    public boolean isConstant() {
+        return slots.length == 0;
+    }
+
+    public List<String> getSlotNames() {
+        return Collections.unmodifiableList(Arrays.asList(slots));
+    }
+
+    // Characters of literal text, used to size buffers and to weigh cache entries
+    public int getLiteralLength() {
+        return literalLength;
+    }
+}
@@ -0,0 +1,116 @@
+package com.notification.common.template;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of compiled templates keyed by template id and version. Bounded both by entry
+ * count and by the total literal characters held, so a few very large templates cannot pin
+ * the heap. A new version of a template is a new key; old versions age out.
+ */
+public class TemplateCache {
+
+    private final int maxEntries;
+    private final long maxChars;
+    private final LinkedHashMap<Key, CompiledTemplate> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalChars;
+    private long hits;
+    private long misses;
+
+    public TemplateCache(int maxEntries, long maxChars) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.maxChars = maxChars;
+    }
+
+    /**
+     * Returns the compiled template, compiling the source on a miss. The source is only
+     * loaded on a miss.
+     */
+    public CompiledTemplate get(String templateId, String version, Supplier<String> source) {
+        Key key = new Key(templateId, version);
+        synchronized (this) {
+            CompiledTemplate cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // Compiled outside the lock; a concurrent miss on the same key just compiles twice
+        CompiledTemplate compiled = CompiledTemplate.compile(source.get());
+        synchronized (this) {
+            CompiledTemplate previous = entries.put(key, compiled);
+            if (previous != null) {
+                totalChars -= previous.getLiteralLength();
+            }
+            totalChars += compiled.getLiteralLength();
+            evict(key);
+        }
+        return compiled;
+    }
+
+    // Cached template or null, without loading; lets callers fetch all missing sources in one query
+    public synchronized CompiledTemplate getIfPresent(String templateId, String version) {
+        return entries.get(new Key(templateId, version));
+    }
+
+    private void evict(Key newest) {
+        Iterator<Map.Entry<Key, CompiledTemplate>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalChars > maxChars) && eldest.hasNext()) {
+            Map.Entry<Key, CompiledTemplate> entry = eldest.next();
+            if (entry.getKey().equals(newest)) {
+                // Always keep the template just requested, even if it alone exceeds maxChars
+                continue;
+            }
+            totalChars -= entry.getValue().getLiteralLength();
+            eldest.remove();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalChars() {
+        return totalChars;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private static final class Key {
+        private final String templateId;
+        private final String version;
+
+        private Key(String templateId, String version) {
+            this.templateId = templateId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(templateId, other.templateId) && Objects.equals(version, other.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(templateId) + Objects.hashCode(version);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.notification.common.template;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Renders cached templates into a per-thread buffer that is reused from one message to the
+ * next, so a bulk send allocates little beyond the resulting string.
+ */
+public class TemplateRenderer {
+
+    private static final int INITIAL_BUFFER = 1024;
+    // Buffers grown beyond this by an unusually large render are dropped rather than kept per thread
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final TemplateCache cache;
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER));
+
+    public TemplateRenderer(TemplateCache cache) {
+        this.cache = cache;
+    }
+
+    public String render(String templateId, String version, Supplier<String> source, Map<String, String> data) {
+        return render(cache.get(templateId, version, source), data);
+    }
+
+    public String render(CompiledTemplate template, Map<String, String> data) {
+        if (template.isConstant()) {
+            return template.render(data);
+        }
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        template.renderTo(data, buffer);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffers.set(new StringBuilder(INITIAL_BUFFER));
+        }
+        return rendered;
+    }
+
+    public TemplateCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,31 @@
+package com.notification.common.util;
+
+import java.security.SecureRandom;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Notification ids in the time-ordered UUID layout (version 7), whose first 48 bits are the
+ * creation time in epoch millis. The row's created_at is set to that same instant, so a lookup
+ * that only has the id, such as GET /notifications/{id}, can still name the partition to read.
+ */
+public class NotificationIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public static String newId(Date createdAt) {
+        long msb = (createdAt.getTime() << 16) | 0x7000L | (RANDOM.nextInt() & 0x0FFFL);
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    // Creation time of an id minted by newId, or null for any other id, e.g. one chosen by the client
+    public static Date createdAt(String id) {
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.version() == 7 ? new Date(uuid.getMostSignificantBits() >>> 16) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
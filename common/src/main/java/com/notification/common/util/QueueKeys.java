@@ -0,0 +1,78 @@
+package com.notification.common.util;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+
+import java.util.Date;
+
+public class QueueKeys {
+
+    public static final String LIST_PREFIX = "notification_queue:";
+    public static final String STREAM_PREFIX = "notification_stream:";
+    public static final String SCHEDULED_KEY = "notification_scheduled";
+    public static final String CACHE_PREFIX = "notification_cache:";
+    public static final String CACHE_VERSION_PREFIX = "notification_cache_version:";
+
+    // Version keys must outlive any cache load that started before they were bumped
+    public static final int CACHE_VERSION_TTL_SECONDS = 3600;
+
+    private static final char ENTRY_SEPARATOR = '@';
+
+    // Each channel has one queue per priority so urgent traffic never waits behind a bulk send
+    public static String listKey(NotificationChannel channel, NotificationPriority priority) {
+        return LIST_PREFIX + channel.getValue() + ":" + segment(priority);
+    }
+
+    public static String streamKey(NotificationChannel channel, NotificationPriority priority) {
+        return STREAM_PREFIX + channel.getValue() + ":" + segment(priority);
+    }
+
+    /**
+     * Sorted-set member for a deferred notification: "<channel>:<priority>:<entry>", where the part before
+     * the queue entry is the queue key suffix under either prefix.
+     */
+    public static String delayedMember(NotificationChannel channel, NotificationPriority priority, String entry) {
+        return channel.getValue() + ":" + segment(priority) + ":" + entry;
+    }
+
+    /**
+     * Queue entry for a notification: "<id>@<created_at in epoch millis>". The table is partitioned by
+     * created_at, so consumers use it to address the row's partition instead of probing all of them.
+     * Entries queued before created_at was carried are a bare id.
+     */
+    public static String queueEntry(String id, Date createdAt) {
+        if (createdAt == null) {
+            return id;
+        }
+        return id + ENTRY_SEPARATOR + createdAt.getTime();
+    }
+
+    public static String entryId(String entry) {
+        int sep = entry.lastIndexOf(ENTRY_SEPARATOR);
+        return sep < 0 ? entry : entry.substring(0, sep);
+    }
+
+    // created_at of the row, or null for a bare id
+    public static Date entryCreatedAt(String entry) {
+        int sep = entry.lastIndexOf(ENTRY_SEPARATOR);
+        return sep < 0 ? null : new Date(Long.parseLong(entry.substring(sep + 1)));
+    }
+
+    // Hash holding the API's cached copy of a notification; whoever changes the row deletes it
+    public static String cacheKey(String id) {
+        return CACHE_PREFIX + id;
+    }
+
+    /**
+     * Counter bumped with every deletion of {@link #cacheKey}. A reader only stores what it loaded
+     * if the counter is unchanged since before its database read, so a load that raced a change
+     * cannot put the old row back.
+     */
+    public static String cacheVersionKey(String id) {
+        return CACHE_VERSION_PREFIX + id;
+    }
+
+    private static String segment(NotificationPriority priority) {
+        return (priority != null ? priority : NotificationPriority.MEDIUM).name().toLowerCase();
+    }
+}
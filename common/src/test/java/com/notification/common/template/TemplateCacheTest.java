@@ -0,0 +1,72 @@
+package com.notification.common.template;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TemplateCacheTest {
+
+    @Test
+    void compile_SplitsLiteralsAndSlots() {
+        CompiledTemplate template = CompiledTemplate.compile("Hi {{ name }}, your order {{order}} shipped. {{}} {{open");
+
+        Map<String, String> data = new HashMap<>();
+        data.put("name", "Ada");
+        data.put("order", "42");
+
+        assertEquals("Hi Ada, your order 42 shipped. {{}} {{open", template.render(data));
+        assertEquals("Hi , your order  shipped. {{}} {{open", template.render(null));
+        assertEquals(2, template.getSlotNames().size());
+        assertTrue(CompiledTemplate.compile("No placeholders").isConstant());
+    }
+
+    @Test
+    void get_CompilesOncePerVersion() {
+        TemplateCache cache = new TemplateCache(10, 10_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompiledTemplate first = cache.get("welcome", "v1", () -> { loads.incrementAndGet(); return "Hello {{name}}"; });
+        CompiledTemplate second = cache.get("welcome", "v1", () -> { loads.incrementAndGet(); return "Hello {{name}}"; });
+        cache.get("welcome", "v2", () -> { loads.incrementAndGet(); return "Hi {{name}}"; });
+
+        assertSame(first, second);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    void get_EvictsLeastRecentlyUsedBySizeAndCount() {
+        TemplateCache cache = new TemplateCache(2, 100);
+        cache.get("a", "1", () -> "a");
+        cache.get("b", "1", () -> "b");
+        cache.get("a", "1", () -> "a");
+        cache.get("c", "1", () -> "c");
+
+        assertEquals(2, cache.size());
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get("a", "1", () -> { reloads.incrementAndGet(); return "a"; });
+        assertEquals(0, reloads.get());
+
+        // A template larger than maxChars pushes everything else out but is itself kept
+        cache.get("big", "1", () -> "x".repeat(150));
+        assertEquals(1, cache.size());
+        assertEquals(150, cache.getTotalChars());
+    }
+
+    @Test
+    void render_ReusesBufferAcrossMessages() {
+        TemplateRenderer renderer = new TemplateRenderer(new TemplateCache(10, 10_000));
+        Map<String, String> data = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            data.put("n", String.valueOf(i));
+            assertEquals("Message " + i + " of 3", renderer.render("count", "1", () -> "Message {{n}} of 3", data));
+        }
+        assertEquals(1, renderer.getCache().getMisses());
+    }
+}
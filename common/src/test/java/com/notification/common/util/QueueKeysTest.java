@@ -0,0 +1,36 @@
+package com.notification.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QueueKeysTest {
+
+    @Test
+    void queueEntry_CarriesTheCreatedAt() {
+        Date createdAt = new Date(1700000000123L);
+
+        String entry = QueueKeys.queueEntry("n1", createdAt);
+
+        assertEquals("n1", QueueKeys.entryId(entry));
+        assertEquals(createdAt, QueueKeys.entryCreatedAt(entry));
+    }
+
+    @Test
+    void entryId_AcceptsBareIdsQueuedBeforeCreatedAtWasCarried() {
+        assertEquals("n1", QueueKeys.entryId("n1"));
+        assertNull(QueueKeys.entryCreatedAt("n1"));
+    }
+
+    @Test
+    void notificationIds_EmbedTheCreationTime() {
+        Date createdAt = new Date(1700000000123L);
+
+        assertEquals(createdAt, NotificationIds.createdAt(NotificationIds.newId(createdAt)));
+        assertNull(NotificationIds.createdAt("3f2504e0-4f89-41d3-9a0c-0305e82c3301"));
+        assertNull(NotificationIds.createdAt("client-chosen-id"));
+    }
+}
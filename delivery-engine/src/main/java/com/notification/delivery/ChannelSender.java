@@ -0,0 +1,83 @@
+package com.notification.delivery;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Delivers notifications for one channel. Implementations are thread-safe and hold
+ * their provider connections for the life of the sender, so one instance serves all
+ * of a channel's workers.
+ */
+public interface ChannelSender extends AutoCloseable {
+
+    NotificationChannel getChannel();
+
+    /**
+     * Sends the notification, throwing {@link DeliveryException} when the provider did not accept it.
+     */
+    void send(NotificationMessage notification) throws DeliveryException;
+
+    /**
+     * Starts a send without holding the calling thread until the provider responds. The
+     * future fails with a {@link DeliveryException}. By default this sends synchronously.
+     */
+    default CompletableFuture<Void> sendAsync(NotificationMessage notification) {
+        try {
+            send(notification);
+            return CompletableFuture.completedFuture(null);
+        } catch (DeliveryException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    // True when sendAsync is non-blocking, so callers should prefer it to send
+    default boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * Splits notifications into groups that can go out in one provider request. By default
+     * every notification is its own group.
+     */
+    default List<List<NotificationMessage>> group(List<NotificationMessage> notifications) {
+        List<List<NotificationMessage>> groups = new ArrayList<>(notifications.size());
+        for (NotificationMessage notification : notifications) {
+            groups.add(Collections.singletonList(notification));
+        }
+        return groups;
+    }
+
+    /**
+     * Sends a group built by {@link #group}. Returns failures keyed by notification id;
+     * every notification without an entry was delivered.
+     */
+    default Map<String, DeliveryException> sendAll(List<NotificationMessage> group) {
+        Map<String, DeliveryException> failures = new HashMap<>();
+        for (NotificationMessage notification : group) {
+            try {
+                send(notification);
+            } catch (DeliveryException e) {
+                failures.put(notification.getId(), e);
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Host the notification is delivered to when it differs per notification (webhooks), so
+     * callers can isolate failing destinations; null when every send goes to the same provider.
+     */
+    default String destination(NotificationMessage notification) {
+        return null;
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,62 @@
+package com.notification.delivery;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.delivery.config.DeliveryConfig;
+import com.notification.delivery.email.SmtpEmailSender;
+import com.notification.delivery.http.HttpDelivery;
+import com.notification.delivery.push.PushGatewaySender;
+import com.notification.delivery.slack.SlackSender;
+import com.notification.delivery.sms.TwilioSmsSender;
+import com.notification.delivery.webhook.WebhookSender;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Holds one long-lived sender per channel. Senders own pooled connections and are
+ * safe to call from many worker threads at once.
+ */
+public class DeliveryEngine implements AutoCloseable {
+
+    private final Map<NotificationChannel, ChannelSender> senders = new EnumMap<>(NotificationChannel.class);
+    private final CloseableHttpClient httpClient;
+
+    public DeliveryEngine(DeliveryConfig config) {
+        this.httpClient = HttpDelivery.createClient(config.getHttp());
+        register(new SmtpEmailSender(config.getSmtp()));
+        register(new TwilioSmsSender(httpClient, config.getTwilio()));
+        register(new SlackSender(config.getSlack()));
+        register(new PushGatewaySender(httpClient, config.getPush()));
+        register(new WebhookSender(config.getWebhook()));
+    }
+
+    private void register(ChannelSender sender) {
+        senders.put(sender.getChannel(), sender);
+    }
+
+    public ChannelSender sender(NotificationChannel channel) {
+        ChannelSender sender = senders.get(channel);
+        if (sender == null) {
+            throw new IllegalArgumentException("No sender for channel " + channel);
+        }
+        return sender;
+    }
+
+    @Override
+    public void close() {
+        for (ChannelSender sender : senders.values()) {
+            try {
+                sender.close();
+            } catch (Exception e) {
+                System.err.println("Error closing " + sender.getChannel() + " sender: " + e.getMessage());
+            }
+        }
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            System.err.println("Error closing HTTP client: " + e.getMessage());
+        }
+    }
+}
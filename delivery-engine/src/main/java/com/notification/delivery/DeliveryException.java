@@ -0,0 +1,21 @@
+package com.notification.delivery;
+
+public class DeliveryException extends Exception {
+
+    private final boolean retryable;
+
+    public DeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public DeliveryException(String message, boolean retryable, Throwable cause) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    // False when sending again cannot succeed, e.g. a rejected address or a 4xx response
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
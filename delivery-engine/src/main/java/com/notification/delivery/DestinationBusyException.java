@@ -0,0 +1,12 @@
+package com.notification.delivery;
+
+/**
+ * The send was not attempted because the destination already has its maximum number of
+ * requests in flight. Callers should try again later without counting it as a failure.
+ */
+public class DestinationBusyException extends DeliveryException {
+
+    public DestinationBusyException(String destination) {
+        super(destination + " is at its in-flight limit", true);
+    }
+}
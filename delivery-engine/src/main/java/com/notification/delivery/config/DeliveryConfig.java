@@ -0,0 +1,224 @@
+package com.notification.delivery.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class DeliveryConfig {
+
+    @JsonProperty("http")
+    private HttpConfig http = new HttpConfig();
+
+    @JsonProperty("smtp")
+    private SmtpConfig smtp = new SmtpConfig();
+
+    @JsonProperty("twilio")
+    private TwilioConfig twilio = new TwilioConfig();
+
+    @JsonProperty("slack")
+    private SlackConfig slack = new SlackConfig();
+
+    @JsonProperty("push")
+    private PushConfig push = new PushConfig();
+
+    @JsonProperty("webhook")
+    private WebhookConfig webhook = new WebhookConfig();
+
+    public HttpConfig getHttp() { return http; }
+    public void setHttp(HttpConfig http) { this.http = http; }
+
+    public SmtpConfig getSmtp() { return smtp; }
+    public void setSmtp(SmtpConfig smtp) { this.smtp = smtp; }
+
+    public TwilioConfig getTwilio() { return twilio; }
+    public void setTwilio(TwilioConfig twilio) { this.twilio = twilio; }
+
+    public SlackConfig getSlack() { return slack; }
+    public void setSlack(SlackConfig slack) { this.slack = slack; }
+
+    public PushConfig getPush() { return push; }
+    public void setPush(PushConfig push) { this.push = push; }
+
+    public WebhookConfig getWebhook() { return webhook; }
+    public void setWebhook(WebhookConfig webhook) { this.webhook = webhook; }
+
+    // One connection pool shared by the SMS and push senders
+    public static class HttpConfig {
+        @JsonProperty("maxConnections")
+        private int maxConnections = 200;
+
+        @JsonProperty("maxConnectionsPerRoute")
+        private int maxConnectionsPerRoute = 20;
+
+        @JsonProperty("connectTimeoutMs")
+        private int connectTimeoutMs = 2000;
+
+        @JsonProperty("socketTimeoutMs")
+        private int socketTimeoutMs = 10000;
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public int getMaxConnectionsPerRoute() { return maxConnectionsPerRoute; }
+        public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) { this.maxConnectionsPerRoute = maxConnectionsPerRoute; }
+
+        public int getConnectTimeoutMs() { return connectTimeoutMs; }
+        public void setConnectTimeoutMs(int connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+        public int getSocketTimeoutMs() { return socketTimeoutMs; }
+        public void setSocketTimeoutMs(int socketTimeoutMs) { this.socketTimeoutMs = socketTimeoutMs; }
+    }
+
+    public static class SmtpConfig {
+        @JsonProperty("host")
+        private String host = "localhost";
+
+        @JsonProperty("port")
+        private int port = 25;
+
+        @JsonProperty("username")
+        private String username = null;
+
+        @JsonProperty("password")
+        private String password = null;
+
+        @JsonProperty("startTls")
+        private boolean startTls = false;
+
+        @JsonProperty("from")
+        private String from = "notifications@localhost";
+
+        // Connected transports kept open and reused across sends
+        @JsonProperty("poolSize")
+        private int poolSize = 8;
+
+        @JsonProperty("timeoutMs")
+        private int timeoutMs = 10000;
+
+        // A connection is closed and replaced after this many messages or this age
+        @JsonProperty("maxMessagesPerConnection")
+        private int maxMessagesPerConnection = 100;
+
+        @JsonProperty("maxConnectionAgeMs")
+        private long maxConnectionAgeMs = 300000;
+
+        // Notifications with identical content are sent as one message with up to this many envelope recipients
+        @JsonProperty("maxRecipientsPerMessage")
+        private int maxRecipientsPerMessage = 50;
+
+        public String getHost() { return host; }
+        public void setHost(String host) { this.host = host; }
+
+        public int getPort() { return port; }
+        public void setPort(int port) { this.port = port; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public boolean isStartTls() { return startTls; }
+        public void setStartTls(boolean startTls) { this.startTls = startTls; }
+
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+
+        public int getPoolSize() { return poolSize; }
+        public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+        public int getTimeoutMs() { return timeoutMs; }
+        public void setTimeoutMs(int timeoutMs) { this.timeoutMs = timeoutMs; }
+
+        public int getMaxMessagesPerConnection() { return maxMessagesPerConnection; }
+        public void setMaxMessagesPerConnection(int maxMessagesPerConnection) { this.maxMessagesPerConnection = maxMessagesPerConnection; }
+
+        public long getMaxConnectionAgeMs() { return maxConnectionAgeMs; }
+        public void setMaxConnectionAgeMs(long maxConnectionAgeMs) { this.maxConnectionAgeMs = maxConnectionAgeMs; }
+
+        public int getMaxRecipientsPerMessage() { return maxRecipientsPerMessage; }
+        public void setMaxRecipientsPerMessage(int maxRecipientsPerMessage) { this.maxRecipientsPerMessage = maxRecipientsPerMessage; }
+    }
+
+    public static class TwilioConfig {
+        @JsonProperty("baseUrl")
+        private String baseUrl = "https://api.twilio.com";
+
+        @JsonProperty("accountSid")
+        private String accountSid = null;
+
+        @JsonProperty("authToken")
+        private String authToken = null;
+
+        @JsonProperty("fromNumber")
+        private String fromNumber = null;
+
+        public String getBaseUrl() { return baseUrl; }
+        public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+
+        public String getAccountSid() { return accountSid; }
+        public void setAccountSid(String accountSid) { this.accountSid = accountSid; }
+
+        public String getAuthToken() { return authToken; }
+        public void setAuthToken(String authToken) { this.authToken = authToken; }
+
+        public String getFromNumber() { return fromNumber; }
+        public void setFromNumber(String fromNumber) { this.fromNumber = fromNumber; }
+    }
+
+    public static class SlackConfig {
+        @JsonProperty("botToken")
+        private String botToken = null;
+
+        @JsonProperty("apiUrl")
+        private String apiUrl = "https://slack.com/api/";
+
+        public String getBotToken() { return botToken; }
+        public void setBotToken(String botToken) { this.botToken = botToken; }
+
+        public String getApiUrl() { return apiUrl; }
+        public void setApiUrl(String apiUrl) { this.apiUrl = apiUrl; }
+    }
+
+    public static class PushConfig {
+        // Push gateway accepting {"token", "title", "body"} JSON posts
+        @JsonProperty("gatewayUrl")
+        private String gatewayUrl = "http://localhost:8090/push";
+
+        @JsonProperty("apiKey")
+        private String apiKey = null;
+
+        public String getGatewayUrl() { return gatewayUrl; }
+        public void setGatewayUrl(String gatewayUrl) { this.gatewayUrl = gatewayUrl; }
+
+        public String getApiKey() { return apiKey; }
+        public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+    }
+
+    public static class WebhookConfig {
+        // Requests in flight to one host; further sends to it are deferred instead of queued
+        @JsonProperty("maxConcurrentPerHost")
+        private int maxConcurrentPerHost = 20;
+
+        // Hosts whose in-flight count is tracked; a host idle for several request timeouts is forgotten
+        @JsonProperty("maxHosts")
+        private int maxHosts = 10000;
+
+        @JsonProperty("connectTimeoutMs")
+        private int connectTimeoutMs = 2000;
+
+        // Whole-request deadline, so a slow endpoint releases its slot
+        @JsonProperty("requestTimeoutMs")
+        private int requestTimeoutMs = 10000;
+
+        public int getMaxConcurrentPerHost() { return maxConcurrentPerHost; }
+        public void setMaxConcurrentPerHost(int maxConcurrentPerHost) { this.maxConcurrentPerHost = maxConcurrentPerHost; }
+
+        public int getMaxHosts() { return maxHosts; }
+        public void setMaxHosts(int maxHosts) { this.maxHosts = maxHosts; }
+
+        public int getConnectTimeoutMs() { return connectTimeoutMs; }
+        public void setConnectTimeoutMs(int connectTimeoutMs) { this.connectTimeoutMs = connectTimeoutMs; }
+
+        public int getRequestTimeoutMs() { return requestTimeoutMs; }
+        public void setRequestTimeoutMs(int requestTimeoutMs) { this.requestTimeoutMs = requestTimeoutMs; }
+    }
+}
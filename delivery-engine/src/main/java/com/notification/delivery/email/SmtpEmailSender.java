@@ -0,0 +1,213 @@
+package com.notification.delivery.email;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.SmtpConfig;
+import com.notification.delivery.email.SmtpTransportPool.PooledTransport;
+
+import javax.mail.Address;
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+
+public class SmtpEmailSender implements ChannelSender {
+
+    private final SmtpConfig config;
+    private final Session session;
+    private final SmtpTransportPool pool;
+
+    public SmtpEmailSender(SmtpConfig config) {
+        this.config = config;
+        this.session = Session.getInstance(sessionProperties(config));
+        this.pool = new SmtpTransportPool(session, config.getUsername(), config.getPassword(),
+            config.getPoolSize(), config.getMaxMessagesPerConnection(), config.getMaxConnectionAgeMs(),
+            config.getTimeoutMs());
+    }
+
+    static Properties sessionProperties(SmtpConfig config) {
+        Properties props = new Properties();
+        props.put("mail.smtp.host", config.getHost());
+        props.put("mail.smtp.port", String.valueOf(config.getPort()));
+        props.put("mail.smtp.auth", String.valueOf(config.getUsername() != null));
+        props.put("mail.smtp.starttls.enable", String.valueOf(config.isStartTls()));
+        props.put("mail.smtp.connectiontimeout", String.valueOf(config.getTimeoutMs()));
+        props.put("mail.smtp.timeout", String.valueOf(config.getTimeoutMs()));
+        props.put("mail.smtp.writetimeout", String.valueOf(config.getTimeoutMs()));
+        // Deliver to the accepted recipients of a grouped message even if the server rejects some
+        props.put("mail.smtp.sendpartial", "true");
+        return props;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.EMAIL;
+    }
+
+    @Override
+    public void send(NotificationMessage notification) throws DeliveryException {
+        DeliveryException failure = sendAll(Collections.singletonList(notification)).get(notification.getId());
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Groups notifications with the same subject and body, so each group goes out as one
+     * message with one RCPT TO per recipient.
+     */
+    @Override
+    public List<List<NotificationMessage>> group(List<NotificationMessage> notifications) {
+        Map<List<String>, List<NotificationMessage>> byContent = new LinkedHashMap<>();
+        for (NotificationMessage notification : notifications) {
+            byContent.computeIfAbsent(Arrays.asList(notification.getTitle(), notification.getMessage()),
+                key -> new ArrayList<>()).add(notification);
+        }
+
+        int maxRecipients = Math.max(1, config.getMaxRecipientsPerMessage());
+        List<List<NotificationMessage>> groups = new ArrayList<>();
+        for (List<NotificationMessage> sameContent : byContent.values()) {
+            for (int i = 0; i < sameContent.size(); i += maxRecipients) {
+                groups.add(sameContent.subList(i, Math.min(sameContent.size(), i + maxRecipients)));
+            }
+        }
+        return groups;
+    }
+
+    @Override
+    public Map<String, DeliveryException> sendAll(List<NotificationMessage> group) {
+        Map<String, DeliveryException> failures = new HashMap<>();
+        Map<String, List<String>> idsByAddress = new LinkedHashMap<>();
+        List<Address> recipients = new ArrayList<>();
+        for (NotificationMessage notification : group) {
+            String email = notification.getRecipientEmail();
+            if (email == null) {
+                failures.put(notification.getId(),
+                    new DeliveryException("Notification " + notification.getId() + " has no recipient email", false));
+                continue;
+            }
+            try {
+                InternetAddress address = new InternetAddress(email, true);
+                List<String> ids = idsByAddress.get(key(address));
+                if (ids == null) {
+                    ids = new ArrayList<>();
+                    idsByAddress.put(key(address), ids);
+                    recipients.add(address);
+                }
+                ids.add(notification.getId());
+            } catch (AddressException e) {
+                failures.put(notification.getId(),
+                    new DeliveryException("Invalid email for notification " + notification.getId() + ": " + e.getMessage(), false, e));
+            }
+        }
+        if (recipients.isEmpty()) {
+            return failures;
+        }
+
+        MimeMessage message;
+        try {
+            message = toMessage(group.get(0), recipients);
+        } catch (MessagingException e) {
+            fail(failures, idsByAddress.values(), new DeliveryException("Could not build email: " + e.getMessage(), false, e));
+            return failures;
+        }
+
+        PooledTransport pooled;
+        try {
+            pooled = pool.borrow();
+        } catch (MessagingException e) {
+            fail(failures, idsByAddress.values(), new DeliveryException("SMTP connection failed: " + e.getMessage(), true, e));
+            return failures;
+        }
+
+        boolean broken = true;
+        try {
+            pooled.getTransport().sendMessage(message, recipients.toArray(new Address[0]));
+            broken = false;
+        } catch (SendFailedException e) {
+            // Some or all recipients were refused; the connection itself is still usable
+            broken = false;
+            recordRefused(failures, idsByAddress, e.getInvalidAddresses(), false, e);
+            recordRefused(failures, idsByAddress, e.getValidUnsentAddresses(), true, e);
+            if (e.getInvalidAddresses() == null && e.getValidUnsentAddresses() == null && e.getValidSentAddresses() == null) {
+                fail(failures, idsByAddress.values(), new DeliveryException("SMTP send failed: " + e.getMessage(), true, e));
+            }
+        } catch (MessagingException e) {
+            fail(failures, idsByAddress.values(), new DeliveryException("SMTP send failed: " + e.getMessage(), true, e));
+        } finally {
+            pool.release(pooled, broken);
+        }
+        return failures;
+    }
+
+    // A single recipient sees their own address; a grouped message does not disclose the others
+    private MimeMessage toMessage(NotificationMessage content, List<Address> recipients) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(config.getFrom()));
+        if (recipients.size() == 1) {
+            message.setRecipient(Message.RecipientType.TO, recipients.get(0));
+        } else {
+            message.setHeader("To", "undisclosed-recipients:;");
+        }
+        message.setSubject(content.getTitle(), "UTF-8");
+        message.setText(content.getMessage(), "UTF-8");
+        message.setSentDate(new Date());
+        return message;
+    }
+
+    private static void recordRefused(Map<String, DeliveryException> failures, Map<String, List<String>> idsByAddress,
+                                      Address[] addresses, boolean retryable, SendFailedException cause) {
+        if (addresses == null) {
+            return;
+        }
+        for (Address address : addresses) {
+            List<String> ids = idsByAddress.get(key(address));
+            if (ids == null) {
+                continue;
+            }
+            DeliveryException failure = new DeliveryException("SMTP refused " + address + ": " + cause.getMessage(), retryable, cause);
+            for (String id : ids) {
+                failures.put(id, failure);
+            }
+        }
+    }
+
+    private static void fail(Map<String, DeliveryException> failures, Iterable<List<String>> idGroups,
+                             DeliveryException failure) {
+        for (List<String> ids : idGroups) {
+            for (String id : ids) {
+                failures.put(id, failure);
+            }
+        }
+    }
+
+    private static String key(Address address) {
+        String email = address instanceof InternetAddress ? ((InternetAddress) address).getAddress() : address.toString();
+        return Objects.toString(email, "").toLowerCase(Locale.ROOT);
+    }
+
+    SmtpTransportPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
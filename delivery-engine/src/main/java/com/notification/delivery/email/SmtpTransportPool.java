@@ -0,0 +1,144 @@
+package com.notification.delivery.email;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps up to {@code poolSize} authenticated SMTP connections open between sends, so the
+ * TCP/TLS handshake and AUTH exchange are paid once per connection instead of once per message.
+ * A connection is retired after {@code maxMessages} messages or {@code maxAgeMs}, since many
+ * servers cap messages per session, and dropped on any send error. At most {@code poolSize}
+ * connections are out at once; a borrower waits up to {@code borrowTimeoutMs} for one to come back.
+ */
+public class SmtpTransportPool implements AutoCloseable {
+
+    // Idle connections older than this are checked with a NOOP before reuse
+    private static final long IDLE_VALIDATION_MS = 30_000;
+
+    private final Session session;
+    private final String username;
+    private final String password;
+    private final int maxMessages;
+    private final long maxAgeMs;
+    private final long borrowTimeoutMs;
+    private final BlockingQueue<PooledTransport> idle;
+    // One permit per connection that may be borrowed, whether idle, open or not yet opened
+    private final Semaphore permits;
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private volatile boolean closed;
+
+    public SmtpTransportPool(Session session, String username, String password,
+                             int poolSize, int maxMessages, long maxAgeMs, long borrowTimeoutMs) {
+        this.session = session;
+        this.username = username;
+        this.password = password;
+        this.maxMessages = Math.max(1, maxMessages);
+        this.maxAgeMs = maxAgeMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, poolSize));
+        this.permits = new Semaphore(Math.max(1, poolSize));
+    }
+
+    /**
+     * Takes an idle connection or opens one. Every borrowed connection must be handed back
+     * through {@link #release}, which frees its permit.
+     */
+    public PooledTransport borrow() throws MessagingException {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("No SMTP connection free within " + borrowTimeoutMs + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.poll()) != null) {
+                long now = System.currentTimeMillis();
+                if (now - pooled.lastUsedAt < IDLE_VALIDATION_MS || pooled.transport.isConnected()) {
+                    return pooled;
+                }
+                closeQuietly(pooled);
+            }
+            Transport transport = session.getTransport("smtp");
+            transport.connect(username, password);
+            connectionsOpened.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a connection after a send and frees its permit. Broken, exhausted and expired
+     * connections are closed instead of kept.
+     */
+    public void release(PooledTransport pooled, boolean broken) {
+        long now = System.currentTimeMillis();
+        pooled.messagesSent++;
+        pooled.lastUsedAt = now;
+        boolean retire = broken || closed
+            || pooled.messagesSent >= maxMessages
+            || now - pooled.openedAt >= maxAgeMs;
+        try {
+            if (retire || !idle.offer(pooled)) {
+                closeQuietly(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    public int idleCount() {
+        return idle.size();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            closeQuietly(pooled);
+        }
+    }
+
+    private static void closeQuietly(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException ignored) {
+            // Already gone
+        }
+    }
+
+    public static final class PooledTransport {
+        private final Transport transport;
+        private final long openedAt = System.currentTimeMillis();
+        private long lastUsedAt = openedAt;
+        private int messagesSent;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public Transport getTransport() {
+            return transport;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.notification.delivery.http;
+
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.HttpConfig;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+
+public final class HttpDelivery {
+
+    private HttpDelivery() {}
+
+    // One pooled client per engine; keep-alive connections are reused across senders and workers
+    public static CloseableHttpClient createClient(HttpConfig config) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnectionsPerRoute());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(config.getConnectTimeoutMs())
+            .setConnectionRequestTimeout(config.getConnectTimeoutMs())
+            .setSocketTimeout(config.getSocketTimeoutMs())
+            .build();
+
+        return HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .disableCookieManagement()
+            .build();
+    }
+
+    /**
+     * Executes the request and fails unless the response is 2xx. The body is always
+     * consumed so the connection goes back to the pool.
+     */
+    public static void execute(CloseableHttpClient client, HttpUriRequest request) throws DeliveryException {
+        int status;
+        try (CloseableHttpResponse response = client.execute(request)) {
+            status = response.getStatusLine().getStatusCode();
+            EntityUtils.consume(response.getEntity());
+        } catch (IOException e) {
+            throw new DeliveryException(request.getURI().getHost() + " request failed: " + e.getMessage(), true, e);
+        }
+        if (status < 200 || status >= 300) {
+            throw new DeliveryException(request.getURI().getHost() + " responded " + status, isRetryable(status));
+        }
+    }
+
+    // Server errors, timeouts and rate limiting may pass later; other 4xx responses will not
+    public static boolean isRetryable(int status) {
+        return status >= 500 || status == 408 || status == 429;
+    }
+}
@@ -0,0 +1,61 @@
+package com.notification.delivery.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.PushConfig;
+import com.notification.delivery.http.HttpDelivery;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Push notifications go to a gateway that fans out to APNs/FCM; the recipient id is the device token
+public class PushGatewaySender implements ChannelSender {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final CloseableHttpClient httpClient;
+    private final PushConfig config;
+
+    public PushGatewaySender(CloseableHttpClient httpClient, PushConfig config) {
+        this.httpClient = httpClient;
+        this.config = config;
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.PUSH;
+    }
+
+    @Override
+    public void send(NotificationMessage notification) throws DeliveryException {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("token", notification.getRecipientId());
+        payload.put("title", notification.getTitle());
+        payload.put("body", notification.getMessage());
+
+        HttpPost post = new HttpPost(config.getGatewayUrl());
+        if (config.getApiKey() != null) {
+            post.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + config.getApiKey());
+        }
+        try {
+            post.setEntity(new ByteArrayEntity(MAPPER.writeValueAsBytes(payload), ContentType.APPLICATION_JSON));
+        } catch (JsonProcessingException e) {
+            throw new DeliveryException("Could not serialize push payload: " + e.getMessage(), false, e);
+        }
+        HttpDelivery.execute(httpClient, post);
+    }
+
+    @Override
+    public void close() {
+        // The shared HTTP client is closed by the engine
+    }
+}
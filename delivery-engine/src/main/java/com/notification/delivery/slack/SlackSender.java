@@ -0,0 +1,75 @@
+package com.notification.delivery.slack;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.SlackConfig;
+import com.notification.delivery.http.HttpDelivery;
+import com.slack.api.Slack;
+import com.slack.api.methods.MethodsClient;
+import com.slack.api.methods.SlackApiException;
+import com.slack.api.methods.response.chat.ChatPostMessageResponse;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// One Slack instance (and its OkHttp connection pool) is shared by every delivery
+public class SlackSender implements ChannelSender {
+
+    private static final Set<String> RETRYABLE_ERRORS = new HashSet<>(Arrays.asList(
+        "ratelimited", "service_unavailable", "internal_error", "fatal_error", "request_timeout"));
+
+    private final Slack slack;
+    private final MethodsClient methods;
+
+    public SlackSender(SlackConfig config) {
+        com.slack.api.SlackConfig slackConfig = new com.slack.api.SlackConfig();
+        slackConfig.setMethodsEndpointUrlPrefix(config.getApiUrl());
+        this.slack = Slack.getInstance(slackConfig);
+        this.methods = slack.methods(config.getBotToken());
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.SLACK;
+    }
+
+    @Override
+    public void send(NotificationMessage notification) throws DeliveryException {
+        String channel = notification.getRecipientSlackChannel();
+        if (channel == null) {
+            throw new DeliveryException("Notification " + notification.getId() + " has no Slack channel", false);
+        }
+
+        ChatPostMessageResponse response;
+        try {
+            response = methods.chatPostMessage(req -> req
+                .channel(channel)
+                .text(notification.getTitle() == null
+                    ? notification.getMessage()
+                    : "*" + notification.getTitle() + "*\n" + notification.getMessage()));
+        } catch (SlackApiException e) {
+            int status = e.getResponse().code();
+            throw new DeliveryException("Slack responded " + status, HttpDelivery.isRetryable(status), e);
+        } catch (IOException e) {
+            throw new DeliveryException("Slack request failed: " + e.getMessage(), true, e);
+        }
+
+        if (!response.isOk()) {
+            throw new DeliveryException("Slack rejected notification " + notification.getId() + ": " + response.getError(),
+                RETRYABLE_ERRORS.contains(response.getError()));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            slack.close();
+        } catch (Exception e) {
+            System.err.println("Error closing Slack client: " + e.getMessage());
+        }
+    }
+}
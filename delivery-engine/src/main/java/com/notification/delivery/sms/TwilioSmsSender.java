@@ -0,0 +1,63 @@
+package com.notification.delivery.sms;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.TwilioConfig;
+import com.notification.delivery.http.HttpDelivery;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicNameValuePair;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Sends SMS through Twilio's Messages REST endpoint on the engine's shared HTTP pool,
+ * rather than through the SDK's own client, so SMS shares pooled keep-alive connections
+ * and the base URL can point at a stand-in.
+ */
+public class TwilioSmsSender implements ChannelSender {
+
+    private final CloseableHttpClient httpClient;
+    private final TwilioConfig config;
+    private final String messagesUrl;
+    private final String authorization;
+
+    public TwilioSmsSender(CloseableHttpClient httpClient, TwilioConfig config) {
+        this.httpClient = httpClient;
+        this.config = config;
+        this.messagesUrl = config.getBaseUrl() + "/2010-04-01/Accounts/" + config.getAccountSid() + "/Messages.json";
+        this.authorization = "Basic " + Base64.getEncoder().encodeToString(
+            (config.getAccountSid() + ":" + config.getAuthToken()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.SMS;
+    }
+
+    @Override
+    public void send(NotificationMessage notification) throws DeliveryException {
+        if (notification.getRecipientPhone() == null) {
+            throw new DeliveryException("Notification " + notification.getId() + " has no recipient phone", false);
+        }
+
+        HttpPost post = new HttpPost(messagesUrl);
+        post.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+        post.setEntity(new UrlEncodedFormEntity(Arrays.asList(
+            new BasicNameValuePair("To", notification.getRecipientPhone()),
+            new BasicNameValuePair("From", config.getFromNumber()),
+            new BasicNameValuePair("Body", notification.getMessage())), StandardCharsets.UTF_8));
+        HttpDelivery.execute(httpClient, post);
+    }
+
+    @Override
+    public void close() {
+        // The shared HTTP client is closed by the engine
+    }
+}
@@ -0,0 +1,181 @@
+package com.notification.delivery.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.DestinationBusyException;
+import com.notification.delivery.config.DeliveryConfig.WebhookConfig;
+import com.notification.delivery.http.HttpDelivery;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posts notifications to the endpoint URL given as their recipient id, without a thread per
+ * request. HTTPS endpoints negotiate HTTP/2 and multiplex requests over one connection; the
+ * client keeps idle connections alive for reuse. Each host gets at most
+ * {@code maxConcurrentPerHost} requests in flight, so a slow endpoint cannot take the
+ * capacity that fast ones need. Counts are kept for up to {@code maxHosts} hosts; a host
+ * is forgotten once it has had no requests for several request timeouts, by which time
+ * every request to it has released its permit.
+ */
+public class WebhookSender implements ChannelSender {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Idle period, in request timeouts, after which a host's permits are dropped
+    private static final int HOST_IDLE_REQUEST_TIMEOUTS = 6;
+
+    private final WebhookConfig config;
+    private final HttpClient client;
+    private final LoadingCache<String, Semaphore> hostPermits;
+
+    public WebhookSender(WebhookConfig config) {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        this.hostPermits = CacheBuilder.newBuilder()
+            .maximumSize(config.getMaxHosts())
+            .expireAfterAccess((long) HOST_IDLE_REQUEST_TIMEOUTS * config.getRequestTimeoutMs(), TimeUnit.MILLISECONDS)
+            .build(CacheLoader.from(host -> new Semaphore(config.getMaxConcurrentPerHost())));
+    }
+
+    @Override
+    public NotificationChannel getChannel() {
+        return NotificationChannel.WEBHOOK;
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public void send(NotificationMessage notification) throws DeliveryException {
+        try {
+            sendAsync(notification).join();
+        } catch (CompletionException e) {
+            throw toDeliveryException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(NotificationMessage notification) {
+        URI target;
+        HttpRequest request;
+        try {
+            target = target(notification);
+            request = HttpRequest.newBuilder(target)
+                // Plain http stays on HTTP/1.1 rather than attempting an h2c upgrade
+                .version("https".equals(target.getScheme()) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .timeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(payload(notification))))
+                .build();
+        } catch (DeliveryException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(
+                new DeliveryException("Could not serialize webhook payload: " + e.getMessage(), false, e));
+        }
+
+        String host = hostKey(target);
+        Semaphore permits = hostPermits.getUnchecked(host);
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new DestinationBusyException(host));
+        }
+
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            // The response body is never read, only discarded
+            response = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.failedFuture(toDeliveryException(e));
+        }
+
+        return response.handle((result, error) -> {
+            permits.release();
+            if (error != null) {
+                throw new CompletionException(toDeliveryException(error));
+            }
+            int status = result.statusCode();
+            if (status < 200 || status >= 300) {
+                throw new CompletionException(
+                    new DeliveryException(host + " responded " + status, HttpDelivery.isRetryable(status)));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String destination(NotificationMessage notification) {
+        try {
+            return hostKey(target(notification));
+        } catch (DeliveryException e) {
+            return null;
+        }
+    }
+
+    static Map<String, Object> payload(NotificationMessage notification) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", notification.getId());
+        payload.put("title", notification.getTitle());
+        payload.put("message", notification.getMessage());
+        payload.put("priority", notification.getPriority());
+        payload.put("batchId", notification.getBatchId());
+        return payload;
+    }
+
+    private static URI target(NotificationMessage notification) throws DeliveryException {
+        try {
+            URI uri = URI.create(notification.getRecipientId());
+            if (uri.getHost() == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+                throw new IllegalArgumentException("not an http(s) URL");
+            }
+            return uri;
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new DeliveryException("Invalid webhook URL for notification " + notification.getId(), false, e);
+        }
+    }
+
+    private static String hostKey(URI target) {
+        return target.getPort() < 0 ? target.getHost() : target.getHost() + ":" + target.getPort();
+    }
+
+    private static DeliveryException toDeliveryException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DeliveryException) {
+            return (DeliveryException) cause;
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return new DeliveryException("Webhook timed out: " + cause.getMessage(), true, cause);
+        }
+        // Connection failures and resets may succeed on a later attempt
+        return new DeliveryException("Webhook request failed: " + cause, true, cause);
+    }
+
+    @Override
+    public void close() {
+        // java.net.http.HttpClient has no close before Java 21; idle connections time out on their own
+    }
+}
@@ -0,0 +1,118 @@
+package com.notification.delivery.email;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.config.DeliveryConfig.SmtpConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SmtpEmailSenderTest {
+
+    private GreenMail greenMail;
+    private SmtpConfig config;
+    private SmtpEmailSender sender;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+
+        config = new SmtpConfig();
+        config.setHost("localhost");
+        config.setPort(greenMail.getSmtp().getPort());
+        config.setFrom("noreply@example.com");
+        config.setPoolSize(2);
+        sender = new SmtpEmailSender(config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.close();
+        greenMail.stop();
+    }
+
+    @Test
+    void send_ReusesPooledConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            sender.send(email("user" + i + "@example.com"));
+        }
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(5, received.length);
+        assertEquals("Welcome", received[0].getSubject());
+        assertEquals(1, sender.getPool().idleCount());
+    }
+
+    @Test
+    void send_RecyclesConnectionAfterMaxMessages() throws Exception {
+        sender.close();
+        config.setMaxMessagesPerConnection(2);
+        sender = new SmtpEmailSender(config);
+
+        for (int i = 0; i < 5; i++) {
+            sender.send(email("user" + i + "@example.com"));
+        }
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(3, sender.getPool().getConnectionsOpened());
+    }
+
+    @Test
+    void borrow_WaitsForAFreeConnectionAndTimesOut() throws Exception {
+        sender.close();
+        config.setTimeoutMs(100);
+        sender = new SmtpEmailSender(config);
+        SmtpTransportPool pool = sender.getPool();
+
+        SmtpTransportPool.PooledTransport first = pool.borrow();
+        SmtpTransportPool.PooledTransport second = pool.borrow();
+        assertThrows(MessagingException.class, pool::borrow);
+
+        pool.release(first, true);
+        pool.release(pool.borrow(), false);
+        pool.release(second, false);
+        assertEquals(2, pool.availablePermits());
+    }
+
+    @Test
+    void sendAll_SendsIdenticalContentAsOneMessage() {
+        List<NotificationMessage> notifications = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            notifications.add(email("user" + i + "@example.com"));
+        }
+        NotificationMessage invalid = email("missing-at-sign");
+        notifications.add(invalid);
+
+        List<List<NotificationMessage>> groups = sender.group(notifications);
+        assertEquals(1, groups.size());
+
+        Map<String, DeliveryException> failures = sender.sendAll(groups.get(0));
+
+        assertEquals(1, failures.size());
+        assertFalse(failures.get(invalid.getId()).isRetryable());
+        // GreenMail stores one copy per envelope recipient of the single SMTP transaction
+        assertEquals(3, greenMail.getReceivedMessages().length);
+        assertEquals(1, sender.getPool().getConnectionsOpened());
+    }
+
+    private static NotificationMessage email(String address) {
+        NotificationMessage notification = new NotificationMessage("Welcome", "Hello there", NotificationChannel.EMAIL, "user");
+        notification.setId("n-" + address);
+        notification.setRecipientEmail(address);
+        return notification;
+    }
+}
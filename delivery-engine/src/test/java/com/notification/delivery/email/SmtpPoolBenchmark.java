@@ -0,0 +1,100 @@
+package com.notification.delivery.email;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.config.DeliveryConfig.SmtpConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Messages per second through SmtpEmailSender against a local GreenMail server, one
+ * sending thread per pooled connection. The "fresh connection" rows retire every connection
+ * after one message, as a sender without pooling would. Run with
+ * ./gradlew :delivery-engine:benchmark
+ */
+@Tag("benchmark")
+class SmtpPoolBenchmark {
+
+    private static final int MESSAGES = 2_000;
+    private static final int[] POOL_SIZES = {1, 2, 4, 8, 16, 32};
+
+    private GreenMail greenMail;
+
+    @BeforeEach
+    void setUp() {
+        greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort());
+        greenMail.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        greenMail.stop();
+    }
+
+    @Test
+    void pooledVersusFreshConnections() throws Exception {
+        System.out.printf("%-22s %6s %12s %12s%n", "mode", "pool", "msgs/s", "connections");
+        for (int poolSize : POOL_SIZES) {
+            run("fresh connection", poolSize, 1, 1);
+            run("pooled", poolSize, 100, 1);
+            run("pooled, grouped x50", poolSize, 100, 50);
+        }
+    }
+
+    private void run(String mode, int poolSize, int maxMessagesPerConnection, int groupSize) throws Exception {
+        greenMail.reset();
+        SmtpConfig config = new SmtpConfig();
+        config.setHost("localhost");
+        config.setPort(greenMail.getSmtp().getPort());
+        config.setFrom("bench@example.com");
+        config.setPoolSize(poolSize);
+        config.setMaxMessagesPerConnection(maxMessagesPerConnection);
+        config.setMaxRecipientsPerMessage(groupSize);
+
+        ExecutorService threads = Executors.newFixedThreadPool(poolSize);
+        try (SmtpEmailSender sender = new SmtpEmailSender(config)) {
+            List<List<NotificationMessage>> groups = sender.group(notifications());
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>(groups.size());
+            for (List<NotificationMessage> group : groups) {
+                futures.add(threads.submit(() -> sender.sendAll(group)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+
+            assertEquals(MESSAGES, greenMail.getReceivedMessages().length);
+            System.out.printf("%-22s %6d %12.0f %12d%n", mode, poolSize,
+                MESSAGES / (elapsedNanos / 1e9), sender.getPool().getConnectionsOpened());
+        } finally {
+            threads.shutdown();
+            threads.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private static List<NotificationMessage> notifications() {
+        List<NotificationMessage> notifications = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            NotificationMessage notification = new NotificationMessage("Weekly digest", "Your weekly digest is ready",
+                NotificationChannel.EMAIL, "user" + i);
+            notification.setId("n-" + i);
+            notification.setRecipientEmail("user" + i + "@example.com");
+            notifications.add(notification);
+        }
+        return notifications;
+    }
+}
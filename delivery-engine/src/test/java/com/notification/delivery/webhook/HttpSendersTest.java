@@ -0,0 +1,168 @@
+package com.notification.delivery.webhook;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.DestinationBusyException;
+import com.notification.delivery.config.DeliveryConfig.HttpConfig;
+import com.notification.delivery.config.DeliveryConfig.TwilioConfig;
+import com.notification.delivery.config.DeliveryConfig.WebhookConfig;
+import com.notification.delivery.http.HttpDelivery;
+import com.notification.delivery.sms.TwilioSmsSender;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpSendersTest {
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private String baseUrl;
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final CountDownLatch slowEndpoint = new CountDownLatch(1);
+    private ExecutorService serverThreads;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            try {
+                slowEndpoint.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                bodies.add(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] response = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+        httpClient = HttpDelivery.createClient(new HttpConfig());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        slowEndpoint.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void webhook_PostsJsonToRecipientUrl() throws Exception {
+        WebhookSender sender = new WebhookSender(new WebhookConfig());
+        NotificationMessage notification = webhook(baseUrl + "/hooks/orders");
+
+        sender.send(notification);
+        sender.send(notification);
+
+        assertEquals(2, bodies.size());
+        assertTrue(bodies.get(0).contains("\"id\":\"n-1\""));
+        assertEquals("localhost:" + server.getAddress().getPort(), sender.destination(notification));
+    }
+
+    @Test
+    void webhook_ClassifiesFailures() {
+        WebhookSender sender = new WebhookSender(new WebhookConfig());
+
+        status.set(503);
+        assertTrue(assertThrows(DeliveryException.class, () -> sender.send(webhook(baseUrl))).isRetryable());
+
+        status.set(404);
+        assertFalse(assertThrows(DeliveryException.class, () -> sender.send(webhook(baseUrl))).isRetryable());
+
+        assertFalse(assertThrows(DeliveryException.class, () -> sender.send(webhook("user123"))).isRetryable());
+    }
+
+    @Test
+    void webhook_SlowHostDoesNotBlockOthers() throws Exception {
+        WebhookConfig config = new WebhookConfig();
+        config.setMaxConcurrentPerHost(1);
+        WebhookSender sender = new WebhookSender(config);
+        int port = server.getAddress().getPort();
+
+        CompletableFuture<Void> slow = sender.sendAsync(webhook("http://localhost:" + port + "/slow"));
+        CompletableFuture<Void> sameHost = sender.sendAsync(webhook("http://localhost:" + port + "/slow"));
+        // Same server under another host name, so it gets its own in-flight cap
+        sender.sendAsync(webhook("http://127.0.0.1:" + port + "/fast")).get(5, TimeUnit.SECONDS);
+
+        CompletionException busy = assertThrows(CompletionException.class, sameHost::join);
+        assertTrue(busy.getCause() instanceof DestinationBusyException);
+        assertFalse(slow.isDone());
+
+        slowEndpoint.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void webhook_TimesOutSlowEndpoint() {
+        WebhookConfig config = new WebhookConfig();
+        config.setRequestTimeoutMs(200);
+        WebhookSender sender = new WebhookSender(config);
+
+        DeliveryException timeout = assertThrows(DeliveryException.class,
+            () -> sender.send(webhook(baseUrl + "/slow")));
+        assertTrue(timeout.isRetryable());
+    }
+
+    @Test
+    void twilio_PostsFormWithBasicAuth() throws Exception {
+        TwilioConfig config = new TwilioConfig();
+        config.setBaseUrl(baseUrl);
+        config.setAccountSid("AC123");
+        config.setAuthToken("secret");
+        config.setFromNumber("+15550000000");
+        TwilioSmsSender sender = new TwilioSmsSender(httpClient, config);
+
+        NotificationMessage notification = new NotificationMessage("Code", "Your code is 1234", NotificationChannel.SMS, "user1");
+        notification.setId("n-2");
+        notification.setRecipientPhone("+15551234567");
+        sender.send(notification);
+
+        assertTrue(bodies.get(0).contains("To=%2B15551234567"));
+        assertTrue(bodies.get(0).contains("Body=Your+code+is+1234"));
+        assertTrue(authorizations.get(0).startsWith("Basic "));
+    }
+
+    private static NotificationMessage webhook(String url) {
+        NotificationMessage notification = new NotificationMessage("Order shipped", "Order 42 shipped", NotificationChannel.WEBHOOK, url);
+        notification.setId("n-1");
+        return notification;
+    }
+}
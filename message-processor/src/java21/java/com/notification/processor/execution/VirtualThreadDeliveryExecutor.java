@@ -0,0 +1,84 @@
+package com.notification.processor.execution;
+
+import com.notification.common.enums.NotificationChannel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every delivery on its own virtual thread. There is no hand-off queue:
+ * a reserved slot starts running immediately, and the semaphore caps how many
+ * deliveries a channel has in flight against its provider.
+ */
+public class VirtualThreadDeliveryExecutor implements DeliveryExecutor {
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int maxInFlight;
+
+    public VirtualThreadDeliveryExecutor(NotificationChannel channel, int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.slots = new Semaphore(maxInFlight);
+        this.executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(channel.getValue() + "-vworker-", 0).factory());
+    }
+
+    @Override
+    public int reserve(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!slots.tryAcquire(timeout, unit)) {
+            return 0;
+        }
+        int reserved = 1;
+        while (reserved < max && slots.tryAcquire()) {
+            reserved++;
+        }
+        return reserved;
+    }
+
+    @Override
+    public void release(int count) {
+        if (count > 0) {
+            slots.release(count);
+        }
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return maxInFlight;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return maxInFlight - slots.availablePermits();
+    }
+
+    @Override
+    public int getQueuedCount() {
+        return 0;
+    }
+
+    @Override
+    public boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -1,15 +1,27 @@
 package com.notification.processor;
 
+import com.codahale.metrics.ConsoleReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.notification.processor.config.ProcessorConfiguration;
 import com.notification.processor.service.NotificationProcessor;
 import com.notification.processor.scheduler.ProcessingScheduler;
 
+import java.util.concurrent.TimeUnit;
+
 public class MessageProcessorMain {
-    public static void main(String[] args) {
-        NotificationProcessor processor = new NotificationProcessor();
+    public static void main(String[] args) throws Exception {
+        ProcessorConfiguration configuration = ProcessorConfiguration.load(args.length > 0 ? args[0] : null);
+        MetricRegistry metrics = new MetricRegistry();
+        int reportInterval = configuration.getMetricsConfig().getReportIntervalSeconds();
+        if (reportInterval > 0) {
+            ConsoleReporter.forRegistry(metrics).build().start(reportInterval, TimeUnit.SECONDS);
+        }
+
+        NotificationProcessor processor = new NotificationProcessor(configuration, metrics);
         ProcessingScheduler scheduler = new ProcessingScheduler(processor);
         
         Runtime.getRuntime().addShutdownHook(new Thread(scheduler::shutdown));
         
         scheduler.start();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.notification.processor.cache;
+
+import com.notification.common.util.QueueKeys;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Deletes the API's cached copy of notifications whose status the processor just changed,
+ * so clients polling GET /notifications/{id} see the update without waiting for the TTL.
+ * Bumping each cache version keeps an API read that started before the change from
+ * storing the old row again (see {@link QueueKeys#cacheVersionKey}).
+ */
+public class NotificationCacheInvalidator {
+
+    private final JedisPool jedisPool;
+
+    public NotificationCacheInvalidator(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    public void invalidate(String id) {
+        invalidate(Collections.singletonList(id));
+    }
+
+    // Takes queue entries (see QueueKeys#queueEntry); the cache is keyed by id alone
+    public void invalidateEntries(Collection<String> entries) {
+        List<String> ids = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            ids.add(QueueKeys.entryId(entry));
+        }
+        invalidate(ids);
+    }
+
+    public void invalidate(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String[] keys = new String[ids.size()];
+        int i = 0;
+        for (String id : ids) {
+            keys[i++] = QueueKeys.cacheKey(id);
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (String id : ids) {
+                String versionKey = QueueKeys.cacheVersionKey(id);
+                pipeline.incr(versionKey);
+                pipeline.expire(versionKey, QueueKeys.CACHE_VERSION_TTL_SECONDS);
+            }
+            pipeline.del(keys);
+            pipeline.sync();
+        } catch (Exception e) {
+            // Best effort: the cached copy still expires on its own
+            System.err.println("Error invalidating cached notifications: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,573 @@
+package com.notification.processor.config;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.delivery.config.DeliveryConfig;
+import com.notification.processor.status.StatusWriteBehind;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class ProcessorConfiguration {
+
+    private static final String DEFAULT_RESOURCE = "/processor.yml";
+
+    @JsonProperty("redis")
+    private RedisConfig redisConfig = new RedisConfig();
+
+    @JsonProperty("database")
+    private DatabaseConfig databaseConfig = new DatabaseConfig();
+
+    @JsonProperty("queue")
+    private QueueConfig queueConfig = new QueueConfig();
+
+    @JsonProperty("scheduler")
+    private SchedulerConfig schedulerConfig = new SchedulerConfig();
+
+    @JsonProperty("retryConfig")
+    private RetryConfig retryConfig = new RetryConfig();
+
+    @JsonProperty("resilience")
+    private ResilienceConfig resilienceConfig = new ResilienceConfig();
+
+    @JsonProperty("delivery")
+    private DeliveryConfig deliveryConfig = new DeliveryConfig();
+
+    @JsonProperty("contentCache")
+    private ContentCacheConfig contentCacheConfig = new ContentCacheConfig();
+
+    @JsonProperty("metrics")
+    private MetricsConfig metricsConfig = new MetricsConfig();
+
+    @JsonProperty("statusWrites")
+    private StatusWriteConfig statusWriteConfig = new StatusWriteConfig();
+
+    @JsonProperty("channels")
+    private Map<NotificationChannel, ChannelConfig> channels = new EnumMap<>(NotificationChannel.class);
+
+    // VIRTUAL needs the processor built with -PvirtualThreads and a Java 21 runtime
+    @JsonProperty("executionMode")
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+
+    // How long shutdown waits for in-flight deliveries before giving up
+    @JsonProperty("shutdownTimeoutSeconds")
+    private int shutdownTimeoutSeconds = 30;
+
+    public static ProcessorConfiguration load(String path) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+        if (path != null) {
+            return mapper.readValue(new File(path), ProcessorConfiguration.class);
+        }
+        try (InputStream in = ProcessorConfiguration.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+            if (in == null) {
+                return new ProcessorConfiguration();
+            }
+            return mapper.readValue(in, ProcessorConfiguration.class);
+        }
+    }
+
+    public RedisConfig getRedisConfig() {
+        return redisConfig;
+    }
+
+    public void setRedisConfig(RedisConfig redisConfig) {
+        this.redisConfig = redisConfig;
+    }
+
+    public DatabaseConfig getDatabaseConfig() {
+        return databaseConfig;
+    }
+
+    public void setDatabaseConfig(DatabaseConfig databaseConfig) {
+        this.databaseConfig = databaseConfig;
+    }
+
+    public SchedulerConfig getSchedulerConfig() {
+        return schedulerConfig;
+    }
+
+    public void setSchedulerConfig(SchedulerConfig schedulerConfig) {
+        this.schedulerConfig = schedulerConfig;
+    }
+
+    public RetryConfig getRetryConfig() {
+        return retryConfig;
+    }
+
+    public void setRetryConfig(RetryConfig retryConfig) {
+        this.retryConfig = retryConfig;
+    }
+
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    public void setQueueConfig(QueueConfig queueConfig) {
+        this.queueConfig = queueConfig;
+    }
+
+    public ResilienceConfig getResilienceConfig() {
+        return resilienceConfig;
+    }
+
+    public void setResilienceConfig(ResilienceConfig resilienceConfig) {
+        this.resilienceConfig = resilienceConfig;
+    }
+
+    public DeliveryConfig getDeliveryConfig() {
+        return deliveryConfig;
+    }
+
+    public void setDeliveryConfig(DeliveryConfig deliveryConfig) {
+        this.deliveryConfig = deliveryConfig;
+    }
+
+    public ContentCacheConfig getContentCacheConfig() {
+        return contentCacheConfig;
+    }
+
+    public void setContentCacheConfig(ContentCacheConfig contentCacheConfig) {
+        this.contentCacheConfig = contentCacheConfig;
+    }
+
+    public MetricsConfig getMetricsConfig() {
+        return metricsConfig;
+    }
+
+    public void setMetricsConfig(MetricsConfig metricsConfig) {
+        this.metricsConfig = metricsConfig;
+    }
+
+    public StatusWriteConfig getStatusWriteConfig() {
+        return statusWriteConfig;
+    }
+
+    public void setStatusWriteConfig(StatusWriteConfig statusWriteConfig) {
+        this.statusWriteConfig = statusWriteConfig;
+    }
+
+    public Map<NotificationChannel, ChannelConfig> getChannels() {
+        return channels;
+    }
+
+    public void setChannels(Map<NotificationChannel, ChannelConfig> channels) {
+        this.channels = channels;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public void setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public int getShutdownTimeoutSeconds() {
+        return shutdownTimeoutSeconds;
+    }
+
+    public void setShutdownTimeoutSeconds(int shutdownTimeoutSeconds) {
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+    }
+
+    public ChannelConfig getChannelConfig(NotificationChannel channel) {
+        ChannelConfig config = channels.get(channel);
+        return config != null ? config : new ChannelConfig();
+    }
+
+    public static class RedisConfig {
+        @JsonProperty("host")
+        private String host = "localhost";
+
+        @JsonProperty("port")
+        private int port = 6379;
+
+        @JsonProperty("password")
+        private String password = null;
+
+        @JsonProperty("timeout")
+        private int timeout = 2000;
+
+        @JsonProperty("maxConnections")
+        private int maxConnections = 20;
+
+        @JsonProperty("maxIdle")
+        private int maxIdle = 10;
+
+        public String getHost() { return host; }
+        public void setHost(String host) { this.host = host; }
+
+        public int getPort() { return port; }
+        public void setPort(int port) { this.port = port; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getTimeout() { return timeout; }
+        public void setTimeout(int timeout) { this.timeout = timeout; }
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public int getMaxIdle() { return maxIdle; }
+        public void setMaxIdle(int maxIdle) { this.maxIdle = maxIdle; }
+    }
+
+    public static class DatabaseConfig {
+        @JsonProperty("url")
+        private String url = "jdbc:postgresql://localhost:5432/notification_db";
+
+        @JsonProperty("user")
+        private String user = "notification_user";
+
+        @JsonProperty("password")
+        private String password = "notification_pass";
+
+        @JsonProperty("maxPoolSize")
+        private int maxPoolSize = 10;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUser() { return user; }
+        public void setUser(String user) { this.user = user; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+
+        public int getMaxPoolSize() { return maxPoolSize; }
+        public void setMaxPoolSize(int maxPoolSize) { this.maxPoolSize = maxPoolSize; }
+    }
+
+    public static class QueueConfig {
+        @JsonProperty("transport")
+        private QueueTransportType transport = QueueTransportType.RELIABLE_LIST;
+
+        // Defaults to host:pid; set a stable id to resume a node's own in-flight list after restart
+        @JsonProperty("workerId")
+        private String workerId = null;
+
+        @JsonProperty("visibilityTimeoutMs")
+        private long visibilityTimeoutMs = 300000;
+
+        @JsonProperty("reaperIntervalMs")
+        private long reaperIntervalMs = 30000;
+
+        // RELIABLE_LIST and DATABASE renew the claims of entries a node still holds for up to this long
+        @JsonProperty("maxHoldMs")
+        private long maxHoldMs = 1800000;
+
+        @JsonProperty("consumerGroup")
+        private String consumerGroup = "notification-processors";
+
+        // Share of polls each priority segment gets while several are backlogged
+        @JsonProperty("priorityWeights")
+        private Map<NotificationPriority, Integer> priorityWeights = defaultPriorityWeights();
+
+        // A backlogged segment not served for this long is drained next regardless of weight
+        @JsonProperty("starvationThresholdMs")
+        private long starvationThresholdMs = 5000;
+
+        // RELIABLE_LIST can only block on one segment; the others are rechecked at this interval when idle.
+        // DATABASE cannot block at all and polls the table at this interval when idle
+        @JsonProperty("idleRecheckMs")
+        private long idleRecheckMs = 250;
+
+        public QueueTransportType getTransport() { return transport; }
+        public void setTransport(QueueTransportType transport) { this.transport = transport; }
+
+        public String getWorkerId() { return workerId; }
+        public void setWorkerId(String workerId) { this.workerId = workerId; }
+
+        public long getVisibilityTimeoutMs() { return visibilityTimeoutMs; }
+        public void setVisibilityTimeoutMs(long visibilityTimeoutMs) { this.visibilityTimeoutMs = visibilityTimeoutMs; }
+
+        public long getReaperIntervalMs() { return reaperIntervalMs; }
+        public void setReaperIntervalMs(long reaperIntervalMs) { this.reaperIntervalMs = reaperIntervalMs; }
+
+        public long getMaxHoldMs() { return maxHoldMs; }
+        public void setMaxHoldMs(long maxHoldMs) { this.maxHoldMs = maxHoldMs; }
+
+        public String getConsumerGroup() { return consumerGroup; }
+        public void setConsumerGroup(String consumerGroup) { this.consumerGroup = consumerGroup; }
+
+        public Map<NotificationPriority, Integer> getPriorityWeights() { return priorityWeights; }
+        public void setPriorityWeights(Map<NotificationPriority, Integer> priorityWeights) { this.priorityWeights = priorityWeights; }
+
+        public long getStarvationThresholdMs() { return starvationThresholdMs; }
+        public void setStarvationThresholdMs(long starvationThresholdMs) { this.starvationThresholdMs = starvationThresholdMs; }
+
+        public long getIdleRecheckMs() { return idleRecheckMs; }
+        public void setIdleRecheckMs(long idleRecheckMs) { this.idleRecheckMs = idleRecheckMs; }
+
+        private static Map<NotificationPriority, Integer> defaultPriorityWeights() {
+            Map<NotificationPriority, Integer> weights = new EnumMap<>(NotificationPriority.class);
+            weights.put(NotificationPriority.URGENT, 8);
+            weights.put(NotificationPriority.HIGH, 4);
+            weights.put(NotificationPriority.MEDIUM, 2);
+            weights.put(NotificationPriority.LOW, 1);
+            return weights;
+        }
+    }
+
+    public static class SchedulerConfig {
+        // Due notifications moved to the channel queues per Redis round trip
+        @JsonProperty("batchSize")
+        private int batchSize = 500;
+
+        // Longest the promoter sleeps before looking again; bounds dispatch lateness
+        @JsonProperty("maxSleepMs")
+        private long maxSleepMs = 100;
+
+        // How often the database is checked for scheduled rows missing from the Redis index
+        @JsonProperty("sweepIntervalMs")
+        private long sweepIntervalMs = 60000;
+
+        // Only rows overdue by at least this much are re-indexed, leaving time for the API outbox relay
+        @JsonProperty("sweepGraceMs")
+        private long sweepGraceMs = 60000;
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public long getMaxSleepMs() { return maxSleepMs; }
+        public void setMaxSleepMs(long maxSleepMs) { this.maxSleepMs = maxSleepMs; }
+
+        public long getSweepIntervalMs() { return sweepIntervalMs; }
+        public void setSweepIntervalMs(long sweepIntervalMs) { this.sweepIntervalMs = sweepIntervalMs; }
+
+        public long getSweepGraceMs() { return sweepGraceMs; }
+        public void setSweepGraceMs(long sweepGraceMs) { this.sweepGraceMs = sweepGraceMs; }
+    }
+
+    public static class RetryConfig {
+        // Failed deliveries retried before the notification goes to the dead-letter list
+        @JsonProperty("maxRetries")
+        private int maxRetries = 3;
+
+        @JsonProperty("initialDelayMs")
+        private long initialDelayMs = 1000;
+
+        @JsonProperty("maxDelayMs")
+        private long maxDelayMs = 30000;
+
+        @JsonProperty("backoffMultiplier")
+        private double backoffMultiplier = 2.0;
+
+        // How often the database is checked for retryable rows missing from the Redis retry index
+        @JsonProperty("sweepIntervalMs")
+        private long sweepIntervalMs = 60000;
+
+        // Rows are re-indexed once they have waited maxDelayMs plus this long
+        @JsonProperty("sweepGraceMs")
+        private long sweepGraceMs = 60000;
+
+        public int getMaxRetries() { return maxRetries; }
+        public void setMaxRetries(int maxRetries) { this.maxRetries = maxRetries; }
+
+        public long getInitialDelayMs() { return initialDelayMs; }
+        public void setInitialDelayMs(long initialDelayMs) { this.initialDelayMs = initialDelayMs; }
+
+        public long getMaxDelayMs() { return maxDelayMs; }
+        public void setMaxDelayMs(long maxDelayMs) { this.maxDelayMs = maxDelayMs; }
+
+        public double getBackoffMultiplier() { return backoffMultiplier; }
+        public void setBackoffMultiplier(double backoffMultiplier) { this.backoffMultiplier = backoffMultiplier; }
+
+        public long getSweepIntervalMs() { return sweepIntervalMs; }
+        public void setSweepIntervalMs(long sweepIntervalMs) { this.sweepIntervalMs = sweepIntervalMs; }
+
+        public long getSweepGraceMs() { return sweepGraceMs; }
+        public void setSweepGraceMs(long sweepGraceMs) { this.sweepGraceMs = sweepGraceMs; }
+    }
+
+    public static class ResilienceConfig {
+        // Breakers judge the failure rate over this many recent deliveries
+        @JsonProperty("windowSize")
+        private int windowSize = 50;
+
+        @JsonProperty("minimumCalls")
+        private int minimumCalls = 20;
+
+        @JsonProperty("failureRateThreshold")
+        private double failureRateThreshold = 0.5;
+
+        @JsonProperty("openDurationMs")
+        private long openDurationMs = 30000;
+
+        // Trial deliveries let through after openDurationMs; all must succeed to close again
+        @JsonProperty("halfOpenProbes")
+        private int halfOpenProbes = 3;
+
+        // Hosts with a destination breaker per channel, least recently used dropped first
+        @JsonProperty("maxDestinations")
+        private int maxDestinations = 10000;
+
+        // A host's breaker is dropped after this long without deliveries (never sooner than openDurationMs)
+        @JsonProperty("destinationIdleMs")
+        private long destinationIdleMs = 600000;
+
+        // Floor for the adaptive concurrency limit; the ceiling is the channel's executor capacity
+        @JsonProperty("minConcurrency")
+        private int minConcurrency = 1;
+
+        // Factor the limit is cut by on a slow or failed delivery
+        @JsonProperty("backoffRatio")
+        private double backoffRatio = 0.9;
+
+        public int getWindowSize() { return windowSize; }
+        public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+
+        public int getMinimumCalls() { return minimumCalls; }
+        public void setMinimumCalls(int minimumCalls) { this.minimumCalls = minimumCalls; }
+
+        public double getFailureRateThreshold() { return failureRateThreshold; }
+        public void setFailureRateThreshold(double failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+
+        public long getOpenDurationMs() { return openDurationMs; }
+        public void setOpenDurationMs(long openDurationMs) { this.openDurationMs = openDurationMs; }
+
+        public int getHalfOpenProbes() { return halfOpenProbes; }
+        public void setHalfOpenProbes(int halfOpenProbes) { this.halfOpenProbes = halfOpenProbes; }
+
+        public int getMaxDestinations() { return maxDestinations; }
+        public void setMaxDestinations(int maxDestinations) { this.maxDestinations = maxDestinations; }
+
+        public long getDestinationIdleMs() { return destinationIdleMs; }
+        public void setDestinationIdleMs(long destinationIdleMs) { this.destinationIdleMs = destinationIdleMs; }
+
+        public int getMinConcurrency() { return minConcurrency; }
+        public void setMinConcurrency(int minConcurrency) { this.minConcurrency = minConcurrency; }
+
+        public double getBackoffRatio() { return backoffRatio; }
+        public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+    }
+
+    // Compiled campaign content, two entries (title and message) per content hash
+    public static class ContentCacheConfig {
+        @JsonProperty("maxEntries")
+        private int maxEntries = 2000;
+
+        @JsonProperty("maxChars")
+        private long maxChars = 20_000_000;
+
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+        public long getMaxChars() { return maxChars; }
+        public void setMaxChars(long maxChars) { this.maxChars = maxChars; }
+    }
+
+    public static class StatusWriteConfig {
+        // SYNC acks a delivery only once its SENT row is committed; ASYNC acks right away
+        @JsonProperty("durability")
+        private StatusWriteBehind.Durability durability = StatusWriteBehind.Durability.SYNC;
+
+        @JsonProperty("maxBatchSize")
+        private int maxBatchSize = 500;
+
+        // How long the first outcome of a batch waits for others to join it
+        @JsonProperty("flushIntervalMs")
+        private long flushIntervalMs = 20;
+
+        // Workers block once this many outcomes are waiting to be written
+        @JsonProperty("maxPending")
+        private int maxPending = 10000;
+
+        public StatusWriteBehind.Durability getDurability() { return durability; }
+        public void setDurability(StatusWriteBehind.Durability durability) { this.durability = durability; }
+
+        public int getMaxBatchSize() { return maxBatchSize; }
+        public void setMaxBatchSize(int maxBatchSize) { this.maxBatchSize = maxBatchSize; }
+
+        public long getFlushIntervalMs() { return flushIntervalMs; }
+        public void setFlushIntervalMs(long flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+
+        public int getMaxPending() { return maxPending; }
+        public void setMaxPending(int maxPending) { this.maxPending = maxPending; }
+    }
+
+    public static class MetricsConfig {
+        // 0 disables the console reporter
+        @JsonProperty("reportIntervalSeconds")
+        private int reportIntervalSeconds = 60;
+
+        public int getReportIntervalSeconds() { return reportIntervalSeconds; }
+        public void setReportIntervalSeconds(int reportIntervalSeconds) { this.reportIntervalSeconds = reportIntervalSeconds; }
+    }
+
+    public static class ChannelConfig {
+        // BRPOP works against Redis 6.2+, BLMPOP needs Redis 7
+        @JsonProperty("popMode")
+        private PopMode popMode = PopMode.BRPOP;
+
+        @JsonProperty("batchSize")
+        private int batchSize = 50;
+
+        @JsonProperty("blockTimeoutSeconds")
+        private int blockTimeoutSeconds = 2;
+
+        // Deliveries running in parallel for this channel
+        @JsonProperty("concurrency")
+        private int concurrency = 4;
+
+        // Polled ids waiting for a free worker; the consumer stops polling once this is full
+        @JsonProperty("queueCapacity")
+        private int queueCapacity = 100;
+
+        // Cap on concurrent deliveries in VIRTUAL execution mode, where each one gets its own thread
+        @JsonProperty("maxInFlight")
+        private int maxInFlight = 1000;
+
+        // Deliveries slower than this shrink the channel's adaptive concurrency limit
+        @JsonProperty("latencyThresholdMs")
+        private long latencyThresholdMs = 2000;
+
+        public PopMode getPopMode() { return popMode; }
+        public void setPopMode(PopMode popMode) { this.popMode = popMode; }
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+        public int getBlockTimeoutSeconds() { return blockTimeoutSeconds; }
+        public void setBlockTimeoutSeconds(int blockTimeoutSeconds) { this.blockTimeoutSeconds = blockTimeoutSeconds; }
+
+        public int getConcurrency() { return concurrency; }
+        public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+        public int getQueueCapacity() { return queueCapacity; }
+        public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+        public int getMaxInFlight() { return maxInFlight; }
+        public void setMaxInFlight(int maxInFlight) { this.maxInFlight = maxInFlight; }
+
+        public long getLatencyThresholdMs() { return latencyThresholdMs; }
+        public void setLatencyThresholdMs(long latencyThresholdMs) { this.latencyThresholdMs = latencyThresholdMs; }
+    }
+
+    public enum QueueTransportType {
+        LIST,
+        RELIABLE_LIST,
+        STREAM,
+        DATABASE
+    }
+
+    public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public enum PopMode {
+        BRPOP,
+        BLMPOP
+    }
+}
@@ -0,0 +1,18 @@
+package com.notification.processor.content;
+
+// A row of notification_content: a campaign's title and message templates
+public class SharedContent {
+
+    private String contentHash;
+    private String title;
+    private String message;
+
+    public String getContentHash() { return contentHash; }
+    public void setContentHash(String contentHash) { this.contentHash = contentHash; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
@@ -0,0 +1,78 @@
+package com.notification.processor.content;
+
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.template.CompiledTemplate;
+import com.notification.common.template.TemplateCache;
+import com.notification.common.template.TemplateRenderer;
+import com.notification.processor.db.ProcessorNotificationDAO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fills in title and message for campaign rows, which only reference their content by hash.
+ * Each content is loaded and compiled once, then kept in the template cache under its hash,
+ * so a campaign of a million recipients costs one query and one parse per processor.
+ */
+public class SharedContentResolver {
+
+    private static final String TITLE = "title";
+    private static final String MESSAGE = "message";
+
+    private final ProcessorNotificationDAO notificationDAO;
+    private final TemplateCache cache;
+    private final TemplateRenderer renderer;
+
+    public SharedContentResolver(ProcessorNotificationDAO notificationDAO, TemplateCache cache) {
+        this.notificationDAO = notificationDAO;
+        this.cache = cache;
+        this.renderer = new TemplateRenderer(cache);
+    }
+
+    public void resolve(Collection<NotificationMessage> notifications) {
+        Set<String> missing = new LinkedHashSet<>();
+        for (NotificationMessage notification : notifications) {
+            String hash = notification.getContentHash();
+            if (hash != null && (cache.getIfPresent(TITLE, hash) == null || cache.getIfPresent(MESSAGE, hash) == null)) {
+                missing.add(hash);
+            }
+        }
+
+        Map<String, SharedContent> loaded = new HashMap<>();
+        if (!missing.isEmpty()) {
+            // One query for every content the batch references that is not cached yet
+            for (SharedContent content : notificationDAO.findContent(new ArrayList<>(missing))) {
+                loaded.put(content.getContentHash(), content);
+            }
+        }
+
+        for (NotificationMessage notification : notifications) {
+            String hash = notification.getContentHash();
+            if (hash == null) {
+                continue;
+            }
+            SharedContent content = loaded.get(hash);
+            CompiledTemplate title = compiled(TITLE, hash, content == null ? null : content.getTitle());
+            CompiledTemplate message = compiled(MESSAGE, hash, content == null ? null : content.getMessage());
+            if (title == null || message == null) {
+                System.err.println("Content " + hash + " for notification " + notification.getId() + " not found");
+                continue;
+            }
+            notification.setTitle(renderer.render(title, notification.getTemplateData()));
+            notification.setMessage(renderer.render(message, notification.getTemplateData()));
+        }
+    }
+
+    private CompiledTemplate compiled(String part, String hash, String source) {
+        CompiledTemplate cached = cache.getIfPresent(part, hash);
+        if (cached != null || source == null) {
+            return cached;
+        }
+        return cache.get(part, hash, () -> source);
+    }
+}
@@ -0,0 +1,151 @@
+package com.notification.processor.db;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import com.notification.processor.content.SharedContent;
+import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.config.RegisterColumnMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The processor's view of the notifications table. Reads only the columns it needs to route a delivery.
+ * The table is partitioned by created_at, so statements for known rows bind it alongside the id; the
+ * AnyPartition variants are for entries queued as a bare id before created_at was carried.
+ */
+@RegisterBeanMapper(NotificationMessage.class)
+@RegisterColumnMapper(TemplateDataMapper.class)
+public interface ProcessorNotificationDAO {
+
+    // Served by idx_notifications_scheduled_ready
+    @SqlQuery("SELECT id, channel, priority, scheduled_time, created_at FROM notifications " +
+              "WHERE scheduled_time <= :currentTime AND status = 'SCHEDULED' " +
+              "ORDER BY scheduled_time ASC LIMIT :limit")
+    List<NotificationMessage> findScheduledNotifications(@Bind("currentTime") Date currentTime,
+                                                        @Bind("limit") int limit);
+
+    @SqlUpdate("UPDATE notifications SET status = 'PENDING', updated_at = :updatedAt " +
+               "WHERE id IN (<ids>) AND created_at IN (<createdAts>) AND status = 'SCHEDULED'")
+    int markScheduledPending(@BindList("ids") List<String> ids, @BindList("createdAts") List<Date> createdAts,
+                             @Bind("updatedAt") Date updatedAt);
+
+    @SqlUpdate("UPDATE notifications SET status = 'PENDING', updated_at = :updatedAt " +
+               "WHERE id IN (<ids>) AND status = 'SCHEDULED'")
+    int markScheduledPendingAnyPartition(@BindList("ids") List<String> ids, @Bind("updatedAt") Date updatedAt);
+
+    // Takes queue entries (see QueueKeys#queueEntry)
+    default int markScheduledPendingEntries(List<String> entries, Date updatedAt) {
+        QueueEntryKeys keys = QueueEntryKeys.of(entries);
+        int updated = 0;
+        if (!keys.getIds().isEmpty()) {
+            updated += markScheduledPending(keys.getIds(), keys.getCreatedAts(), updatedAt);
+        }
+        if (!keys.getBareIds().isEmpty()) {
+            updated += markScheduledPendingAnyPartition(keys.getBareIds(), updatedAt);
+        }
+        return updated;
+    }
+
+    @SqlQuery("SELECT id, title, message, channel, priority, status, recipient_id, recipient_email, " +
+              "recipient_phone, recipient_slack_channel, template_id, batch_id, retry_count, content_hash, " +
+              "template_data, created_at FROM notifications WHERE id IN (<ids>) AND created_at IN (<createdAts>)")
+    List<NotificationMessage> findByIds(@BindList("ids") List<String> ids,
+                                        @BindList("createdAts") List<Date> createdAts);
+
+    @SqlQuery("SELECT id, title, message, channel, priority, status, recipient_id, recipient_email, " +
+              "recipient_phone, recipient_slack_channel, template_id, batch_id, retry_count, content_hash, " +
+              "template_data, created_at FROM notifications WHERE id IN (<ids>)")
+    List<NotificationMessage> findByIdsAnyPartition(@BindList("ids") List<String> ids);
+
+    @SqlQuery("SELECT content_hash, title, message FROM notification_content WHERE content_hash IN (<hashes>)")
+    @RegisterBeanMapper(SharedContent.class)
+    List<SharedContent> findContent(@BindList("hashes") List<String> hashes);
+
+    // One JDBC batch in one transaction; written by StatusWriteBehind for many deliveries at once
+    @SqlBatch("UPDATE notifications SET status = 'SENT', sent_at = :sentAt, updated_at = :sentAt, " +
+              "error_message = NULL WHERE id = :id AND created_at = :createdAt")
+    int[] markSentAll(@Bind("id") List<String> ids, @Bind("createdAt") List<Date> createdAts,
+                      @Bind("sentAt") List<Date> sentAts);
+
+    // RETURNING gives the new failure count in the same round trip. A permanent failure jumps past maxRetries,
+    // so every dead-lettered row is out of findStaleRetries' reach
+    @SqlQuery("UPDATE notifications SET status = 'FAILED', " +
+              "retry_count = CASE WHEN :retryable THEN retry_count + 1 " +
+              "ELSE GREATEST(retry_count + 1, :maxRetries + 1) END, " +
+              "error_message = :errorMessage, updated_at = :updatedAt " +
+              "WHERE id = :id AND created_at = :createdAt RETURNING retry_count")
+    Optional<Integer> recordFailure(@Bind("id") String id,
+                                    @Bind("createdAt") Date createdAt,
+                                    @Bind("errorMessage") String errorMessage,
+                                    @Bind("retryable") boolean retryable,
+                                    @Bind("maxRetries") int maxRetries,
+                                    @Bind("updatedAt") Date updatedAt);
+
+    // PROCESSING covers rows the DATABASE transport claimed and then deferred
+    @SqlUpdate("UPDATE notifications SET status = 'PENDING', updated_at = :updatedAt " +
+               "WHERE id IN (<ids>) AND created_at IN (<createdAts>) AND status IN ('FAILED', 'PROCESSING')")
+    int markRetryPending(@BindList("ids") List<String> ids, @BindList("createdAts") List<Date> createdAts,
+                         @Bind("updatedAt") Date updatedAt);
+
+    @SqlUpdate("UPDATE notifications SET status = 'PENDING', updated_at = :updatedAt " +
+               "WHERE id IN (<ids>) AND status IN ('FAILED', 'PROCESSING')")
+    int markRetryPendingAnyPartition(@BindList("ids") List<String> ids, @Bind("updatedAt") Date updatedAt);
+
+    // Takes queue entries (see QueueKeys#queueEntry)
+    default int markRetryPendingEntries(List<String> entries, Date updatedAt) {
+        QueueEntryKeys keys = QueueEntryKeys.of(entries);
+        int updated = 0;
+        if (!keys.getIds().isEmpty()) {
+            updated += markRetryPending(keys.getIds(), keys.getCreatedAts(), updatedAt);
+        }
+        if (!keys.getBareIds().isEmpty()) {
+            updated += markRetryPendingAnyPartition(keys.getBareIds(), updatedAt);
+        }
+        return updated;
+    }
+
+    // DATABASE transport: takes the oldest PENDING rows of one segment; rows locked by another node are skipped,
+    // not waited on. Served by idx_notifications_pending_claim
+    @SqlQuery("UPDATE notifications SET status = 'PROCESSING', updated_at = :claimedAt " +
+              "WHERE (id, created_at) IN (SELECT id, created_at FROM notifications " +
+              "WHERE channel = :channel AND priority = :priority AND status = 'PENDING' " +
+              "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED) RETURNING id, created_at")
+    List<NotificationMessage> claimPending(@Bind("channel") NotificationChannel channel,
+                              @Bind("priority") NotificationPriority priority,
+                              @Bind("limit") int limit,
+                              @Bind("claimedAt") Date claimedAt);
+
+    // Claims whose node died before recording an outcome; returns the released ids
+    @SqlQuery("UPDATE notifications SET status = 'PENDING', updated_at = :now " +
+              "WHERE channel = :channel AND status = 'PROCESSING' AND updated_at < :claimedBefore RETURNING id")
+    List<String> releaseStaleClaims(@Bind("channel") NotificationChannel channel,
+                           @Bind("claimedBefore") Date claimedBefore,
+                           @Bind("now") Date now);
+
+    // Heartbeat for claims a node still holds, so releaseStaleClaims leaves them alone
+    @SqlUpdate("UPDATE notifications SET updated_at = :now " +
+               "WHERE id IN (<ids>) AND created_at IN (<createdAts>) AND status = 'PROCESSING'")
+    int renewClaims(@BindList("ids") List<String> ids, @BindList("createdAts") List<Date> createdAts,
+                    @Bind("now") Date now);
+
+    @SqlQuery("SELECT COUNT(*) FROM notifications WHERE channel = :channel AND status = :status")
+    long countByChannelAndStatus(@Bind("channel") NotificationChannel channel,
+                                 @Bind("status") NotificationStatus status);
+
+    // Served by idx_notifications_failed_retry; dead-lettered rows have retry_count > maxRetries
+    @SqlQuery("SELECT id, channel, priority, created_at FROM notifications " +
+              "WHERE status = 'FAILED' AND updated_at < :updatedBefore AND retry_count <= :maxRetries " +
+              "ORDER BY updated_at ASC LIMIT :limit")
+    List<NotificationMessage> findStaleRetries(@Bind("maxRetries") int maxRetries,
+                                               @Bind("updatedBefore") Date updatedBefore,
+                                               @Bind("limit") int limit);
+}
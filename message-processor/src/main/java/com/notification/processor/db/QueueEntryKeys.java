@@ -0,0 +1,39 @@
+package com.notification.processor.db;
+
+import com.notification.common.util.QueueKeys;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Row keys of a set of queue entries: ids with their created_at, and the bare ids of entries
+ * that were queued without it.
+ */
+class QueueEntryKeys {
+
+    private final List<String> ids = new ArrayList<>();
+    private final List<Date> createdAts = new ArrayList<>();
+    private final List<String> bareIds = new ArrayList<>();
+
+    static QueueEntryKeys of(Collection<String> entries) {
+        QueueEntryKeys keys = new QueueEntryKeys();
+        for (String entry : entries) {
+            Date createdAt = QueueKeys.entryCreatedAt(entry);
+            if (createdAt == null) {
+                keys.bareIds.add(QueueKeys.entryId(entry));
+            } else {
+                keys.ids.add(QueueKeys.entryId(entry));
+                keys.createdAts.add(createdAt);
+            }
+        }
+        return keys;
+    }
+
+    List<String> getIds() { return ids; }
+
+    List<Date> getCreatedAts() { return createdAts; }
+
+    List<String> getBareIds() { return bareIds; }
+}
@@ -0,0 +1,32 @@
+package com.notification.processor.db;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.jdbi.v3.core.mapper.ColumnMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+// template_data holds a recipient's placeholder values as a JSON object
+public class TemplateDataMapper implements ColumnMapper<Map<String, String>> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> TYPE = new TypeReference<Map<String, String>>() {};
+
+    @Override
+    public Map<String, String> map(ResultSet r, int columnNumber, StatementContext ctx) throws SQLException {
+        String json = r.getString(columnNumber);
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return MAPPER.readValue(json, TYPE);
+        } catch (IOException e) {
+            throw new SQLException("Invalid template_data: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.notification.processor.execution;
+
+import com.notification.common.enums.NotificationChannel;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size worker pool for one channel. Capacity is the worker count plus the
+ * hand-off queue size; the channel's consumer reserves slots before it polls, so
+ * Redis is only read as fast as the workers free up. The slots alone decide admission:
+ * a task frees its slot just before its worker takes the next task off the queue, so a
+ * bounded queue could still be full when that slot is reserved and submitted again.
+ */
+public class ChannelWorkerPool implements DeliveryExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final int capacity;
+
+    public ChannelWorkerPool(NotificationChannel channel, int concurrency, int queueCapacity) {
+        this.capacity = concurrency + queueCapacity;
+        this.slots = new Semaphore(capacity);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> new Thread(runnable, channel.getValue() + "-worker-" + threadCount.incrementAndGet()));
+    }
+
+    @Override
+    public int reserve(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!slots.tryAcquire(timeout, unit)) {
+            return 0;
+        }
+        int reserved = 1;
+        while (reserved < max && slots.tryAcquire()) {
+            reserved++;
+        }
+        return reserved;
+    }
+
+    @Override
+    public void release(int count) {
+        if (count > 0) {
+            slots.release(count);
+        }
+    }
+
+    @Override
+    public void submit(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Only after drain; the task never runs, so its slot is free again
+            slots.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public boolean drain(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        return executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,37 @@
+package com.notification.processor.execution;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs one channel's deliveries. Callers reserve slots before polling the queue
+ * and submit exactly one task per reserved slot, which is how backpressure
+ * reaches the queue consumer.
+ */
+public interface DeliveryExecutor {
+
+    /**
+     * Waits up to the timeout for one free slot, then grabs up to max slots in total.
+     * Returns 0 if nothing freed up in time.
+     */
+    int reserve(int max, long timeout, TimeUnit unit) throws InterruptedException;
+
+    void release(int count);
+
+    /**
+     * Runs a task in a slot obtained from {@link #reserve}; the slot is freed when the task ends.
+     * Once draining, throws RejectedExecutionException and frees the slot straight away.
+     */
+    void submit(Runnable task);
+
+    // Most slots that can be reserved at once
+    int getCapacity();
+
+    int getActiveCount();
+
+    int getQueuedCount();
+
+    /**
+     * Stops accepting work and waits for queued and running tasks to finish.
+     */
+    boolean drain(long timeout, TimeUnit unit) throws InterruptedException;
+}
@@ -0,0 +1,31 @@
+package com.notification.processor.execution;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import com.notification.processor.config.ProcessorConfiguration.ExecutionMode;
+
+public final class DeliveryExecutors {
+
+    // Compiled from src/java21 only when the build runs with -PvirtualThreads
+    static final String VIRTUAL_THREAD_EXECUTOR = "com.notification.processor.execution.VirtualThreadDeliveryExecutor";
+
+    private DeliveryExecutors() {}
+
+    public static DeliveryExecutor create(NotificationChannel channel, ChannelConfig config, ExecutionMode mode) {
+        if (mode == ExecutionMode.VIRTUAL) {
+            return virtual(channel, config.getMaxInFlight());
+        }
+        return new ChannelWorkerPool(channel, config.getConcurrency(), config.getQueueCapacity());
+    }
+
+    public static DeliveryExecutor virtual(NotificationChannel channel, int maxInFlight) {
+        try {
+            return (DeliveryExecutor) Class.forName(VIRTUAL_THREAD_EXECUTOR)
+                .getConstructor(NotificationChannel.class, int.class)
+                .newInstance(channel, maxInFlight);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("executionMode VIRTUAL needs the message-processor built with "
+                + "-PvirtualThreads and running on Java 21+", e);
+        }
+    }
+}
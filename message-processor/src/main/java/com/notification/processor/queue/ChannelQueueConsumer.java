@@ -0,0 +1,150 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.args.ListDirection;
+import redis.clients.jedis.util.KeyValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ChannelQueueConsumer implements QueueConsumer {
+
+    // RPOP <count> from the first non-empty key, in KEYS order. Returns {key, ids} or nil.
+    private static final String DRAIN_SCRIPT =
+        "for _, key in ipairs(KEYS) do " +
+        "  local ids = redis.call('RPOP', key, ARGV[1]) " +
+        "  if ids then return {key, ids} end " +
+        "end " +
+        "return nil";
+
+    private final ChannelConfig config;
+    private final JedisPool jedisPool;
+    private final PrioritySelector prioritySelector;
+    private final Map<NotificationPriority, String> queueKeys = new EnumMap<>(NotificationPriority.class);
+    private final Map<String, NotificationPriority> prioritiesByKey = new HashMap<>();
+
+    public ChannelQueueConsumer(NotificationChannel channel, ChannelConfig config, JedisPool jedisPool,
+                                PrioritySelector prioritySelector) {
+        this.config = config;
+        this.jedisPool = jedisPool;
+        this.prioritySelector = prioritySelector;
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            String key = QueueKeys.listKey(channel, priority);
+            queueKeys.put(priority, key);
+            prioritiesByKey.put(key, priority);
+        }
+    }
+
+    /**
+     * Returns up to maxItems ids in FIFO order from a single priority segment,
+     * blocking for at most blockTimeoutSeconds when every segment is empty.
+     */
+    @Override
+    public List<QueuedNotification> poll(int maxItems) {
+        String[] keys = orderedKeys();
+        KeyValue<String, List<String>> popped;
+        try (Jedis jedis = jedisPool.getResource()) {
+            switch (config.getPopMode()) {
+                case BLMPOP:
+                    popped = pollBlmpop(jedis, keys, maxItems);
+                    break;
+                case BRPOP:
+                default:
+                    popped = pollBrpop(jedis, keys, maxItems);
+                    break;
+            }
+        }
+
+        if (popped == null) {
+            prioritySelector.idle();
+            return Collections.emptyList();
+        }
+
+        NotificationPriority priority = prioritiesByKey.get(popped.getKey());
+        prioritySelector.served(priority);
+
+        List<QueuedNotification> batch = new ArrayList<>(popped.getValue().size());
+        for (String entry : popped.getValue()) {
+            batch.add(new QueuedNotification(entry, entry, priority));
+        }
+        return batch;
+    }
+
+    @Override
+    public void ack(QueuedNotification notification) {
+        // Popped ids are already gone from the queue
+    }
+
+    @Override
+    public long backlog() {
+        long total = 0;
+        try (Jedis jedis = jedisPool.getResource()) {
+            for (String key : queueKeys.values()) {
+                total += jedis.llen(key);
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long inFlight() {
+        return 0;
+    }
+
+    private String[] orderedKeys() {
+        List<NotificationPriority> order = prioritySelector.nextOrder();
+        String[] keys = new String[order.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = queueKeys.get(order.get(i));
+        }
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private KeyValue<String, List<String>> pollBrpop(Jedis jedis, String[] keys, int batchSize) {
+        // Drain without blocking while there is a backlog, only block once every segment is empty
+        Object drained = jedis.eval(DRAIN_SCRIPT, Arrays.asList(keys),
+            Collections.singletonList(String.valueOf(batchSize)));
+        if (drained != null) {
+            List<Object> result = (List<Object>) drained;
+            return new KeyValue<>((String) result.get(0), (List<String>) result.get(1));
+        }
+
+        List<String> popped = jedis.brpop(config.getBlockTimeoutSeconds(), keys);
+        if (popped == null || popped.size() < 2) {
+            return null;
+        }
+
+        String key = popped.get(0);
+        List<String> batch = new ArrayList<>(batchSize);
+        batch.add(popped.get(1));
+        if (batchSize > 1) {
+            List<String> rest = jedis.rpop(key, batchSize - 1);
+            if (rest != null) {
+                batch.addAll(rest);
+            }
+        }
+        return new KeyValue<>(key, batch);
+    }
+
+    private KeyValue<String, List<String>> pollBlmpop(Jedis jedis, String[] keys, int batchSize) {
+        KeyValue<String, List<String>> popped = jedis.lmpop(ListDirection.RIGHT, batchSize, keys);
+        if (popped == null) {
+            popped = jedis.blmpop(config.getBlockTimeoutSeconds(), ListDirection.RIGHT, batchSize, keys);
+        }
+        if (popped == null || popped.getValue() == null || popped.getValue().isEmpty()) {
+            return null;
+        }
+        return popped;
+    }
+}
@@ -0,0 +1,147 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.QueueConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uses the notifications table itself as the channel queue, without Redis. Each poll flips
+ * the oldest PENDING rows of a priority segment to PROCESSING in one statement, skipping rows
+ * another node has locked, so any number of processors share a channel without waiting on
+ * each other. Recording SENT or FAILED is the ack; rows left in PROCESSING for longer than
+ * the visibility timeout go back to PENDING; rows this node still holds, e.g. waiting for a
+ * worker or a slow send, have updated_at refreshed by {@link #renewClaims} for up to maxHoldMs.
+ * Both transitions invalidate the API's cached copies, like every other status change the
+ * processor makes.
+ */
+public class DatabaseQueueConsumer implements QueueConsumer {
+
+    private final NotificationChannel channel;
+    private final ProcessorNotificationDAO notificationDAO;
+    private final PrioritySelector prioritySelector;
+    private final NotificationCacheInvalidator cacheInvalidator;
+    private final long visibilityTimeoutMs;
+    private final long releaseIntervalMs;
+    private final long idleRecheckMs;
+    private final long maxHoldMs;
+    // Claimed and not acked yet, by queue entry, with the time it was claimed
+    private final Map<String, Long> held = new ConcurrentHashMap<>();
+
+    private long lastReleaseAt = 0;
+
+    public DatabaseQueueConsumer(NotificationChannel channel, QueueConfig queueConfig,
+                                 ProcessorNotificationDAO notificationDAO, PrioritySelector prioritySelector,
+                                 NotificationCacheInvalidator cacheInvalidator) {
+        this.channel = channel;
+        this.notificationDAO = notificationDAO;
+        this.prioritySelector = prioritySelector;
+        this.cacheInvalidator = cacheInvalidator;
+        this.visibilityTimeoutMs = queueConfig.getVisibilityTimeoutMs();
+        this.releaseIntervalMs = queueConfig.getReaperIntervalMs();
+        this.idleRecheckMs = queueConfig.getIdleRecheckMs();
+        this.maxHoldMs = queueConfig.getMaxHoldMs();
+    }
+
+    @Override
+    public List<QueuedNotification> poll(int maxItems) {
+        releaseStaleIfDue();
+
+        for (NotificationPriority priority : prioritySelector.nextOrder()) {
+            Date claimedAt = new Date();
+            List<NotificationMessage> claimed = notificationDAO.claimPending(channel, priority, maxItems, claimedAt);
+            if (!claimed.isEmpty()) {
+                prioritySelector.served(priority);
+                List<QueuedNotification> batch = new ArrayList<>(claimed.size());
+                List<String> ids = new ArrayList<>(claimed.size());
+                for (NotificationMessage row : claimed) {
+                    String entry = QueueKeys.queueEntry(row.getId(), row.getCreatedAt());
+                    batch.add(new QueuedNotification(entry, entry, priority));
+                    ids.add(row.getId());
+                    held.put(entry, claimedAt.getTime());
+                }
+                cacheInvalidator.invalidate(ids);
+                return batch;
+            }
+        }
+
+        // Nothing to block on, so an empty poll waits before the caller polls again
+        prioritySelector.idle();
+        try {
+            Thread.sleep(idleRecheckMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void ack(QueuedNotification notification) {
+        // The status written for the outcome already ended the claim
+        held.remove(notification.getReceipt());
+    }
+
+    /**
+     * Refreshes updated_at on rows this consumer still holds in PROCESSING, so the stale-claim
+     * release leaves them alone. Rows held longer than maxHoldMs are no longer renewed, e.g. ones
+     * whose outcome could not be recorded, and go back to PENDING after the visibility timeout.
+     * Returns how many claims were renewed.
+     */
+    @Override
+    public int renewClaims() {
+        long now = System.currentTimeMillis();
+        List<String> ids = new ArrayList<>();
+        List<Date> createdAts = new ArrayList<>();
+        Iterator<Map.Entry<String, Long>> entries = held.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Long> entry = entries.next();
+            if (now - entry.getValue() >= maxHoldMs) {
+                entries.remove();
+                continue;
+            }
+            ids.add(QueueKeys.entryId(entry.getKey()));
+            createdAts.add(QueueKeys.entryCreatedAt(entry.getKey()));
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return notificationDAO.renewClaims(ids, createdAts, new Date(now));
+    }
+
+    @Override
+    public long backlog() {
+        return notificationDAO.countByChannelAndStatus(channel, NotificationStatus.PENDING);
+    }
+
+    @Override
+    public long inFlight() {
+        return notificationDAO.countByChannelAndStatus(channel, NotificationStatus.PROCESSING);
+    }
+
+    private void releaseStaleIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastReleaseAt < releaseIntervalMs) {
+            return;
+        }
+        lastReleaseAt = now;
+
+        List<String> released = notificationDAO.releaseStaleClaims(channel, new Date(now - visibilityTimeoutMs),
+            new Date(now));
+        if (!released.isEmpty()) {
+            cacheInvalidator.invalidate(released);
+            System.out.println("Released " + released.size() + " stale " + channel + " claims");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationPriority;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which priority segment a consumer drains next. Segments are picked by
+ * smooth weighted round-robin, so under contention each backlogged segment gets
+ * a share proportional to its weight. Any segment not served within the starvation
+ * threshold is tried first regardless of weight. Not thread-safe; each consumer
+ * owns one.
+ */
+public class PrioritySelector {
+
+    private static final List<NotificationPriority> BY_PRIORITY_DESC = new ArrayList<>();
+
+    static {
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            BY_PRIORITY_DESC.add(priority);
+        }
+        BY_PRIORITY_DESC.sort(Comparator.comparingInt(NotificationPriority::getLevel).reversed());
+    }
+
+    private final Map<NotificationPriority, Integer> weights = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Long> currentWeights = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Long> lastServedAt = new EnumMap<>(NotificationPriority.class);
+    private final long starvationThresholdMs;
+    private final LongSupplier clock;
+    private final int totalWeight;
+
+    public PrioritySelector(Map<NotificationPriority, Integer> weights, long starvationThresholdMs) {
+        this(weights, starvationThresholdMs, System::currentTimeMillis);
+    }
+
+    PrioritySelector(Map<NotificationPriority, Integer> weights, long starvationThresholdMs, LongSupplier clock) {
+        this.starvationThresholdMs = starvationThresholdMs;
+        this.clock = clock;
+
+        int total = 0;
+        long now = clock.getAsLong();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            Integer weight = weights.get(priority);
+            int effective = weight != null ? Math.max(weight, 0) : priority.getLevel();
+            this.weights.put(priority, effective);
+            this.currentWeights.put(priority, 0L);
+            this.lastServedAt.put(priority, now);
+            total += effective;
+        }
+        this.totalWeight = total;
+    }
+
+    /**
+     * Segments in the order they should be tried: starved segments, then the
+     * weighted pick, then everything else from highest to lowest priority.
+     */
+    public List<NotificationPriority> nextOrder() {
+        List<NotificationPriority> order = new ArrayList<>(BY_PRIORITY_DESC.size());
+        long now = clock.getAsLong();
+
+        // Oldest-served first among starved segments
+        List<NotificationPriority> starved = new ArrayList<>();
+        for (NotificationPriority priority : BY_PRIORITY_DESC) {
+            if (now - lastServedAt.get(priority) >= starvationThresholdMs) {
+                starved.add(priority);
+            }
+        }
+        starved.sort(Comparator.comparingLong(lastServedAt::get));
+        order.addAll(starved);
+
+        NotificationPriority picked = weightedPick();
+        if (picked != null && !order.contains(picked)) {
+            order.add(picked);
+        }
+        for (NotificationPriority priority : BY_PRIORITY_DESC) {
+            if (!order.contains(priority)) {
+                order.add(priority);
+            }
+        }
+        return order;
+    }
+
+    public void served(NotificationPriority priority) {
+        lastServedAt.put(priority, clock.getAsLong());
+    }
+
+    /**
+     * Idle segments count as served so an empty queue doesn't look starved.
+     */
+    public void idle() {
+        long now = clock.getAsLong();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            lastServedAt.put(priority, now);
+        }
+    }
+
+    private NotificationPriority weightedPick() {
+        if (totalWeight == 0) {
+            return null;
+        }
+        NotificationPriority best = null;
+        for (NotificationPriority priority : BY_PRIORITY_DESC) {
+            long current = currentWeights.get(priority) + weights.get(priority);
+            currentWeights.put(priority, current);
+            if (best == null || current > currentWeights.get(best)) {
+                best = priority;
+            }
+        }
+        currentWeights.put(best, currentWeights.get(best) - totalWeight);
+        return best;
+    }
+}
@@ -0,0 +1,35 @@
+package com.notification.processor.queue;
+
+import java.util.List;
+
+public interface QueueConsumer {
+
+    /**
+     * Returns up to maxItems notifications for this consumer's channel,
+     * or an empty list once the block timeout elapses.
+     */
+    List<QueuedNotification> poll(int maxItems);
+
+    /**
+     * Marks a polled notification as done. Consumers without delivery guarantees ignore this.
+     */
+    void ack(QueuedNotification notification);
+
+    /**
+     * Extends the claims of entries this node still holds, for transports that redeliver unacked
+     * entries after a visibility timeout. Returns how many claims were renewed.
+     */
+    default int renewClaims() {
+        return 0;
+    }
+
+    /**
+     * Entries waiting to be delivered to any consumer.
+     */
+    long backlog();
+
+    /**
+     * Entries delivered to a consumer but not acked yet.
+     */
+    long inFlight();
+}
@@ -0,0 +1,48 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+
+import java.util.Date;
+
+public class QueuedNotification {
+
+    private final String entry;
+    private final String notificationId;
+    private final Date createdAt;
+    private final String receipt;
+    private final NotificationPriority priority;
+
+    public QueuedNotification(String entry, String receipt, NotificationPriority priority) {
+        this(entry, QueueKeys.entryId(entry), QueueKeys.entryCreatedAt(entry), receipt, priority);
+    }
+
+    private QueuedNotification(String entry, String notificationId, Date createdAt, String receipt,
+                               NotificationPriority priority) {
+        this.entry = entry;
+        this.notificationId = notificationId;
+        this.createdAt = createdAt;
+        this.receipt = receipt;
+        this.priority = priority;
+    }
+
+    // Same receipt, with the created_at of the loaded row; used for entries that were queued as a bare id
+    public QueuedNotification withCreatedAt(Date createdAt) {
+        return new QueuedNotification(QueueKeys.queueEntry(notificationId, createdAt), notificationId, createdAt,
+            receipt, priority);
+    }
+
+    // Id and created_at as queued (see QueueKeys#queueEntry); what is scheduled again on retry
+    public String getEntry() { return entry; }
+
+    public String getNotificationId() { return notificationId; }
+
+    // Partition key of the row, or null until the row is loaded for entries queued as a bare id
+    public Date getCreatedAt() { return createdAt; }
+
+    // Transport-specific handle used to ack, e.g. the stream entry id
+    public String getReceipt() { return receipt; }
+
+    // Priority segment the entry was read from
+    public NotificationPriority getPriority() { return priority; }
+}
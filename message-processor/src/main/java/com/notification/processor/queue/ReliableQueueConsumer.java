@@ -0,0 +1,268 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.args.ListDirection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * At-least-once consumer: ids are moved atomically from the channel's priority
+ * queues into a per-worker processing list and only removed from it on ack.
+ * Anything left in a processing list past the visibility timeout is put back by
+ * {@link ReliableQueueReaper}. Entries still held by this node, e.g. waiting for a worker
+ * or a slow send, have their claims renewed by {@link #renewClaims} for up to maxHoldMs,
+ * so a live node does not lose them to the reaper.
+ */
+public class ReliableQueueConsumer implements QueueConsumer {
+
+    public static final String PROCESSING_KEY_PREFIX = "notification_processing:";
+    public static final String CLAIMS_KEY_PREFIX = "notification_claims:";
+    public static final String WORKERS_KEY_PREFIX = "notification_workers:";
+    public static final String HEARTBEATS_KEY_PREFIX = "notification_worker_heartbeats:";
+
+    // KEYS: processing list, claims hash, worker registry, worker heartbeats, priority queues in drain order
+    // ARGV: max ids, claim time millis, worker id, priority of each queue in KEYS order
+    // Claims are stored as "<millis>:<PRIORITY>" so the reaper can requeue into the right segment.
+    private static final String CLAIM_SCRIPT =
+        "redis.call('SADD', KEYS[3], ARGV[3]) " +
+        "redis.call('HSET', KEYS[4], ARGV[3], ARGV[2]) " +
+        "for k = 5, #KEYS do " +
+        "  local ids = {} " +
+        "  for i = 1, tonumber(ARGV[1]) do " +
+        "    local id = redis.call('LMOVE', KEYS[k], KEYS[1], 'RIGHT', 'LEFT') " +
+        "    if not id then break end " +
+        "    redis.call('HSET', KEYS[2], id, ARGV[2] .. ':' .. ARGV[k - 1]) " +
+        "    ids[#ids + 1] = id " +
+        "  end " +
+        "  if #ids > 0 then return {ARGV[k - 1], ids} end " +
+        "end " +
+        "return nil";
+
+    // KEYS: claims hash, worker registry, worker heartbeats
+    // ARGV: claim time millis, worker id, then entry and priority pairs
+    // Entries without a claim were acked or requeued meanwhile and are left alone.
+    private static final String RENEW_SCRIPT =
+        "redis.call('SADD', KEYS[2], ARGV[2]) " +
+        "redis.call('HSET', KEYS[3], ARGV[2], ARGV[1]) " +
+        "local renewed = 0 " +
+        "for i = 3, #ARGV, 2 do " +
+        "  if redis.call('HEXISTS', KEYS[1], ARGV[i]) == 1 then " +
+        "    redis.call('HSET', KEYS[1], ARGV[i], ARGV[1] .. ':' .. ARGV[i + 1]) " +
+        "    renewed = renewed + 1 " +
+        "  end " +
+        "end " +
+        "return renewed";
+
+    private final NotificationChannel channel;
+    private final ChannelConfig config;
+    private final JedisPool jedisPool;
+    private final PrioritySelector prioritySelector;
+    private final String workerId;
+    private final String processingKey;
+    private final String claimsKey;
+    private final String workersKey;
+    private final String heartbeatsKey;
+    private final double idleBlockSeconds;
+    private final long maxHoldMs;
+    // Polled and not acked yet, by receipt, with the time it was polled
+    private final Map<String, HeldEntry> held = new ConcurrentHashMap<>();
+
+    public ReliableQueueConsumer(NotificationChannel channel, ChannelConfig config, JedisPool jedisPool,
+                                 PrioritySelector prioritySelector, String workerId, long idleRecheckMs,
+                                 long maxHoldMs) {
+        this.channel = channel;
+        this.config = config;
+        this.jedisPool = jedisPool;
+        this.prioritySelector = prioritySelector;
+        this.workerId = workerId;
+        this.processingKey = processingKey(channel, workerId);
+        this.claimsKey = claimsKey(channel, workerId);
+        this.workersKey = workersKey(channel);
+        this.heartbeatsKey = heartbeatsKey(channel);
+        this.idleBlockSeconds = Math.min(config.getBlockTimeoutSeconds(), idleRecheckMs / 1000.0);
+        this.maxHoldMs = maxHoldMs;
+    }
+
+    public static String processingKey(NotificationChannel channel, String workerId) {
+        return PROCESSING_KEY_PREFIX + channel.getValue() + ":" + workerId;
+    }
+
+    public static String claimsKey(NotificationChannel channel, String workerId) {
+        return CLAIMS_KEY_PREFIX + channel.getValue() + ":" + workerId;
+    }
+
+    public static String workersKey(NotificationChannel channel) {
+        return WORKERS_KEY_PREFIX + channel.getValue();
+    }
+
+    // Last time each worker polled or renewed; the reaper keeps recently seen workers registered
+    public static String heartbeatsKey(NotificationChannel channel) {
+        return HEARTBEATS_KEY_PREFIX + channel.getValue();
+    }
+
+    static String claimValue(long claimedAt, NotificationPriority priority) {
+        return claimedAt + ":" + priority.name();
+    }
+
+    @Override
+    public List<QueuedNotification> poll(int maxItems) {
+        List<QueuedNotification> batch;
+        try (Jedis jedis = jedisPool.getResource()) {
+            batch = claim(jedis, prioritySelector.nextOrder(), maxItems);
+            if (batch.isEmpty()) {
+                batch = claimBlocking(jedis, maxItems);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            prioritySelector.idle();
+        } else {
+            prioritySelector.served(batch.get(0).getPriority());
+            long now = System.currentTimeMillis();
+            for (QueuedNotification queued : batch) {
+                held.put(queued.getReceipt(), new HeldEntry(queued.getPriority(), now));
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void ack(QueuedNotification notification) {
+        held.remove(notification.getReceipt());
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.lrem(processingKey, 1, notification.getReceipt());
+            pipeline.hdel(claimsKey, notification.getReceipt());
+            pipeline.sync();
+        }
+    }
+
+    @Override
+    public long backlog() {
+        long total = 0;
+        try (Jedis jedis = jedisPool.getResource()) {
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                total += jedis.llen(QueueKeys.listKey(channel, priority));
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long inFlight() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.llen(processingKey);
+        }
+    }
+
+    /**
+     * Refreshes the claims of entries this consumer still holds so the reaper leaves them alone,
+     * and re-registers the worker with a fresh heartbeat. Entries held longer than maxHoldMs are no
+     * longer renewed, e.g. ones whose outcome could not be recorded, and are redelivered after the
+     * visibility timeout.
+     * Returns how many claims were renewed.
+     */
+    @Override
+    public int renewClaims() {
+        long now = System.currentTimeMillis();
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(now));
+        args.add(workerId);
+        Iterator<Map.Entry<String, HeldEntry>> entries = held.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, HeldEntry> entry = entries.next();
+            if (now - entry.getValue().polledAt >= maxHoldMs) {
+                entries.remove();
+                continue;
+            }
+            args.add(entry.getKey());
+            args.add(entry.getValue().priority.name());
+        }
+
+        // Runs even with nothing held, as the heartbeat of a node whose consumer is waiting for free workers
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object renewed = jedis.eval(RENEW_SCRIPT, Arrays.asList(claimsKey, workersKey, heartbeatsKey), args);
+            return ((Long) renewed).intValue();
+        }
+    }
+
+    /**
+     * BLMOVE has a single source, so the blocking wait is on the URGENT queue and
+     * lasts at most idleRecheckMs before the caller polls every segment again.
+     */
+    private List<QueuedNotification> claimBlocking(Jedis jedis, int maxItems) {
+        // Registered with a fresh heartbeat before the list can fill. The reaper only drops a worker whose
+        // list is empty and whose heartbeat is older than the visibility timeout, which BLMOVE never waits out
+        Pipeline pipeline = jedis.pipelined();
+        pipeline.sadd(workersKey, workerId);
+        pipeline.hset(heartbeatsKey, workerId, String.valueOf(System.currentTimeMillis()));
+        pipeline.sync();
+        String first = jedis.blmove(QueueKeys.listKey(channel, NotificationPriority.URGENT), processingKey,
+            ListDirection.RIGHT, ListDirection.LEFT, idleBlockSeconds);
+        if (first == null) {
+            return Collections.emptyList();
+        }
+        // The reaper treats an unclaimed entry as claimed when it first sees it, so a crash here is safe
+        jedis.hset(claimsKey, first, claimValue(System.currentTimeMillis(), NotificationPriority.URGENT));
+
+        List<QueuedNotification> batch = new ArrayList<>(maxItems);
+        batch.add(new QueuedNotification(first, first, NotificationPriority.URGENT));
+        if (maxItems > 1) {
+            batch.addAll(claim(jedis, Collections.singletonList(NotificationPriority.URGENT), maxItems - 1));
+        }
+        return batch;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<QueuedNotification> claim(Jedis jedis, List<NotificationPriority> order, int maxIds) {
+        List<String> keys = new ArrayList<>(4 + order.size());
+        keys.add(processingKey);
+        keys.add(claimsKey);
+        keys.add(workersKey);
+        keys.add(heartbeatsKey);
+        List<String> args = new ArrayList<>(3 + order.size());
+        args.add(String.valueOf(maxIds));
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(workerId);
+        for (NotificationPriority priority : order) {
+            keys.add(QueueKeys.listKey(channel, priority));
+            args.add(priority.name());
+        }
+
+        Object result = jedis.eval(CLAIM_SCRIPT, keys, args);
+        if (result == null) {
+            return Collections.emptyList();
+        }
+
+        List<Object> claimed = (List<Object>) result;
+        NotificationPriority priority = NotificationPriority.valueOf((String) claimed.get(0));
+        List<String> entries = (List<String>) claimed.get(1);
+        List<QueuedNotification> batch = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            batch.add(new QueuedNotification(entry, entry, priority));
+        }
+        return batch;
+    }
+
+    private static final class HeldEntry {
+        private final NotificationPriority priority;
+        private final long polledAt;
+
+        HeldEntry(NotificationPriority priority, long polledAt) {
+            this.priority = priority;
+            this.polledAt = polledAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Puts ids whose claim is older than the visibility timeout back on the channel
+ * queue. Every processor node runs one; requeueing is guarded by LREM so
+ * concurrent reapers never duplicate an entry, and by the claim read so a claim
+ * renewed meanwhile by its worker keeps the entry where it is. A worker is only
+ * deregistered, atomically, while its processing list is empty and it has not
+ * polled or renewed for the visibility timeout, so a worker that registered just
+ * before moving an entry is never dropped with that entry in its list.
+ */
+public class ReliableQueueReaper implements Runnable {
+
+    // KEYS: processing list, channel queue, claims hash
+    // ARGV: notification id, claim value read by the reaper
+    private static final String REQUEUE_SCRIPT =
+        "if redis.call('HGET', KEYS[3], ARGV[1]) ~= ARGV[2] then return 0 end " +
+        "if redis.call('LREM', KEYS[1], 1, ARGV[1]) > 0 then " +
+        "  redis.call('RPUSH', KEYS[2], ARGV[1]) " +
+        "  redis.call('HDEL', KEYS[3], ARGV[1]) " +
+        "  return 1 " +
+        "end " +
+        "return 0";
+
+    // KEYS: processing list, worker registry, worker heartbeats
+    // ARGV: worker id, heartbeats older than this (millis) are stale
+    // Workers registered before heartbeats were recorded have none and count as stale.
+    private static final String DEREGISTER_SCRIPT =
+        "if redis.call('LLEN', KEYS[1]) > 0 then return 0 end " +
+        "local seen = tonumber(redis.call('HGET', KEYS[3], ARGV[1])) " +
+        "if seen and seen >= tonumber(ARGV[2]) then return 0 end " +
+        "redis.call('SREM', KEYS[2], ARGV[1]) " +
+        "redis.call('HDEL', KEYS[3], ARGV[1]) " +
+        "return 1";
+
+    private final JedisPool jedisPool;
+    private final long visibilityTimeoutMs;
+
+    public ReliableQueueReaper(JedisPool jedisPool, long visibilityTimeoutMs) {
+        this.jedisPool = jedisPool;
+        this.visibilityTimeoutMs = visibilityTimeoutMs;
+    }
+
+    @Override
+    public void run() {
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            try {
+                int requeued = reap(channel);
+                if (requeued > 0) {
+                    System.out.println("Requeued " + requeued + " expired " + channel + " notifications");
+                }
+            } catch (Exception e) {
+                System.err.println("Error reaping " + channel + " processing lists: " + e.getMessage());
+            }
+        }
+    }
+
+    public int reap(NotificationChannel channel) {
+        int requeued = 0;
+        long now = System.currentTimeMillis();
+        String workersKey = ReliableQueueConsumer.workersKey(channel);
+        String heartbeatsKey = ReliableQueueConsumer.heartbeatsKey(channel);
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            Set<String> workers = jedis.smembers(workersKey);
+            for (String workerId : workers) {
+                String processingKey = ReliableQueueConsumer.processingKey(channel, workerId);
+                String claimsKey = ReliableQueueConsumer.claimsKey(channel, workerId);
+
+                List<String> inFlight = jedis.lrange(processingKey, 0, -1);
+                if (inFlight.isEmpty()) {
+                    // Rechecked in the script, since the worker may have moved an entry in since LRANGE
+                    jedis.eval(DEREGISTER_SCRIPT, Arrays.asList(processingKey, workersKey, heartbeatsKey),
+                        Arrays.asList(workerId, String.valueOf(now - visibilityTimeoutMs)));
+                    continue;
+                }
+
+                Map<String, String> claims = jedis.hgetAll(claimsKey);
+                for (String notificationId : inFlight) {
+                    String claim = claims.get(notificationId);
+                    if (claim == null) {
+                        // Priority is unknown for entries moved without a claim, requeue them as MEDIUM
+                        jedis.hsetnx(claimsKey, notificationId,
+                            ReliableQueueConsumer.claimValue(now, NotificationPriority.MEDIUM));
+                        continue;
+                    }
+
+                    String[] parts = claim.split(":", 2);
+                    if (now - Long.parseLong(parts[0]) < visibilityTimeoutMs) {
+                        continue;
+                    }
+                    NotificationPriority priority = parts.length > 1
+                        ? NotificationPriority.valueOf(parts[1]) : NotificationPriority.MEDIUM;
+
+                    Object moved = jedis.eval(REQUEUE_SCRIPT,
+                        Arrays.asList(processingKey, QueueKeys.listKey(channel, priority), claimsKey),
+                        Arrays.asList(notificationId, claim));
+                    if (Long.valueOf(1L).equals(moved)) {
+                        requeued++;
+                    }
+                }
+            }
+        }
+        return requeued;
+    }
+}
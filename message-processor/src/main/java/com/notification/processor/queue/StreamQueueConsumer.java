@@ -0,0 +1,233 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import com.notification.processor.config.ProcessorConfiguration.QueueConfig;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.StreamEntryID;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.params.XAutoClaimParams;
+import redis.clients.jedis.params.XReadGroupParams;
+import redis.clients.jedis.resps.StreamEntry;
+import redis.clients.jedis.resps.StreamGroupInfo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consumes notification_stream:&lt;channel&gt;:&lt;priority&gt; through a consumer
+ * group, so any number of processor nodes share a channel and every entry stays
+ * replayable until it is acked. Acked entries are deleted rather than trimmed by
+ * length, so a backlog is never cut off before it is read. Entries idle in another
+ * consumer's pending list for longer than the visibility timeout are taken over with XAUTOCLAIM.
+ */
+public class StreamQueueConsumer implements QueueConsumer {
+
+    public static final String ID_FIELD = "id";
+
+    private static final NotificationPriority[] PRIORITY_DESC = {
+        NotificationPriority.URGENT, NotificationPriority.HIGH, NotificationPriority.MEDIUM, NotificationPriority.LOW
+    };
+
+    private final ChannelConfig config;
+    private final JedisPool jedisPool;
+    private final PrioritySelector prioritySelector;
+    private final String group;
+    private final String consumerName;
+    private final long visibilityTimeoutMs;
+    private final long reclaimIntervalMs;
+    private final Map<NotificationPriority, String> streamKeys = new EnumMap<>(NotificationPriority.class);
+    private final Map<String, NotificationPriority> prioritiesByKey = new HashMap<>();
+
+    private volatile boolean groupsCreated = false;
+    private long lastReclaimAt = 0;
+
+    public StreamQueueConsumer(NotificationChannel channel, ChannelConfig config, QueueConfig queueConfig,
+                               JedisPool jedisPool, PrioritySelector prioritySelector, String workerId) {
+        this.config = config;
+        this.jedisPool = jedisPool;
+        this.prioritySelector = prioritySelector;
+        this.group = queueConfig.getConsumerGroup();
+        this.consumerName = workerId;
+        this.visibilityTimeoutMs = queueConfig.getVisibilityTimeoutMs();
+        this.reclaimIntervalMs = queueConfig.getReaperIntervalMs();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            String key = QueueKeys.streamKey(channel, priority);
+            streamKeys.put(priority, key);
+            prioritiesByKey.put(key, priority);
+        }
+    }
+
+    @Override
+    public List<QueuedNotification> poll(int maxItems) {
+        List<QueuedNotification> batch;
+        try (Jedis jedis = jedisPool.getResource()) {
+            ensureGroups(jedis);
+
+            batch = reclaimIfDue(jedis, maxItems);
+            if (batch.isEmpty()) {
+                batch = readNew(jedis, maxItems);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            prioritySelector.idle();
+        } else {
+            prioritySelector.served(batch.get(0).getPriority());
+        }
+        return batch;
+    }
+
+    @Override
+    public void ack(QueuedNotification notification) {
+        String streamKey = streamKeys.get(notification.getPriority());
+        StreamEntryID entryId = new StreamEntryID(notification.getReceipt());
+        try (Jedis jedis = jedisPool.getResource()) {
+            // The processors share one group, so an acked entry is done for everyone
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.xack(streamKey, group, entryId);
+            pipeline.xdel(streamKey, entryId);
+            pipeline.sync();
+        }
+    }
+
+    @Override
+    public long backlog() {
+        // "lag" is reported by Redis 7+, older servers only expose the pending count
+        long total = 0;
+        for (String streamKey : streamKeys.values()) {
+            Object lag = groupInfo(streamKey).map(info -> info.getGroupInfo().get("lag")).orElse(null);
+            if (lag instanceof Number) {
+                total += ((Number) lag).longValue();
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public long inFlight() {
+        long total = 0;
+        for (String streamKey : streamKeys.values()) {
+            total += groupInfo(streamKey).map(StreamGroupInfo::getPending).orElse(0L);
+        }
+        return total;
+    }
+
+    private Optional<StreamGroupInfo> groupInfo(String streamKey) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            for (StreamGroupInfo info : jedis.xinfoGroups(streamKey)) {
+                if (group.equals(info.getName())) {
+                    return Optional.of(info);
+                }
+            }
+        } catch (JedisDataException e) {
+            // Stream not created yet
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Tries each segment without blocking in the selector's order, then blocks on
+     * the segments together when every one of them is empty.
+     */
+    private List<QueuedNotification> readNew(Jedis jedis, int maxItems) {
+        for (NotificationPriority priority : prioritySelector.nextOrder()) {
+            List<QueuedNotification> batch = read(jedis, XReadGroupParams.xReadGroupParams().count(maxItems),
+                Collections.singletonMap(streamKeys.get(priority), StreamEntryID.UNRECEIVED_ENTRY));
+            if (!batch.isEmpty()) {
+                return batch;
+            }
+        }
+
+        // COUNT applies per stream, so only watch as many streams as maxItems can cover
+        Map<String, StreamEntryID> watched = new LinkedHashMap<>();
+        for (NotificationPriority priority : PRIORITY_DESC) {
+            if (watched.size() >= maxItems) {
+                break;
+            }
+            watched.put(streamKeys.get(priority), StreamEntryID.UNRECEIVED_ENTRY);
+        }
+        return read(jedis, XReadGroupParams.xReadGroupParams()
+            .count(Math.max(1, maxItems / watched.size()))
+            .block(config.getBlockTimeoutSeconds() * 1000), watched);
+    }
+
+    private List<QueuedNotification> read(Jedis jedis, XReadGroupParams params, Map<String, StreamEntryID> streams) {
+        List<Map.Entry<String, List<StreamEntry>>> result = jedis.xreadGroup(group, consumerName, params, streams);
+        if (result == null || result.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<QueuedNotification> batch = new ArrayList<>();
+        for (Map.Entry<String, List<StreamEntry>> stream : result) {
+            batch.addAll(toQueued(jedis, stream.getKey(), stream.getValue()));
+        }
+        return batch;
+    }
+
+    private List<QueuedNotification> reclaimIfDue(Jedis jedis, int maxItems) {
+        long now = System.currentTimeMillis();
+        if (now - lastReclaimAt < reclaimIntervalMs) {
+            return Collections.emptyList();
+        }
+        lastReclaimAt = now;
+
+        List<QueuedNotification> batch = new ArrayList<>();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            if (batch.size() >= maxItems) {
+                break;
+            }
+            String streamKey = streamKeys.get(priority);
+            Map.Entry<StreamEntryID, List<StreamEntry>> claimed = jedis.xautoclaim(streamKey, group, consumerName,
+                visibilityTimeoutMs, new StreamEntryID(), XAutoClaimParams.xAutoClaimParams().count(maxItems - batch.size()));
+            if (claimed != null && claimed.getValue() != null && !claimed.getValue().isEmpty()) {
+                System.out.println("Reclaimed " + claimed.getValue().size() + " idle entries from " + streamKey);
+                batch.addAll(toQueued(jedis, streamKey, claimed.getValue()));
+            }
+        }
+        return batch;
+    }
+
+    private List<QueuedNotification> toQueued(Jedis jedis, String streamKey, List<StreamEntry> entries) {
+        NotificationPriority priority = prioritiesByKey.get(streamKey);
+        List<QueuedNotification> batch = new ArrayList<>(entries.size());
+        for (StreamEntry entry : entries) {
+            String queueEntry = entry.getFields().get(ID_FIELD);
+            if (queueEntry == null) {
+                // Malformed entry, ack and delete it so it doesn't sit in the pending list forever
+                jedis.xack(streamKey, group, entry.getID());
+                jedis.xdel(streamKey, entry.getID());
+                continue;
+            }
+            batch.add(new QueuedNotification(queueEntry, entry.getID().toString(), priority));
+        }
+        return batch;
+    }
+
+    private void ensureGroups(Jedis jedis) {
+        if (groupsCreated) {
+            return;
+        }
+        for (String streamKey : streamKeys.values()) {
+            try {
+                // Start from the beginning so entries added before the group existed are still delivered
+                jedis.xgroupCreate(streamKey, group, new StreamEntryID(), true);
+            } catch (JedisDataException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith("BUSYGROUP")) {
+                    throw e;
+                }
+            }
+        }
+        groupsCreated = true;
+    }
+}
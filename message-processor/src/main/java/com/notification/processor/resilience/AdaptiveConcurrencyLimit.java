@@ -0,0 +1,77 @@
+package com.notification.processor.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AIMD limit on in-flight deliveries. Each completion slower than the latency threshold,
+ * or failed, cuts the limit by backoffRatio. Each fast success while the limit is at least
+ * half used adds 1/limit, so roughly one more slot per limit's worth of successes.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdMs;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight = 0;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, long latencyThresholdMs, double backoffRatio) {
+        this.minLimit = Math.max(1, Math.min(minLimit, maxLimit));
+        this.maxLimit = maxLimit;
+        this.latencyThresholdMs = latencyThresholdMs;
+        this.backoffRatio = backoffRatio;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Waits up to the timeout for room under the limit, then takes up to max permits.
+     * Returns 0 if none freed up in time.
+     */
+    public synchronized int acquire(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (available() <= 0) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return 0;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        int granted = Math.min(max, available());
+        inFlight += granted;
+        return granted;
+    }
+
+    // Returns permits that were acquired but not used
+    public synchronized void release(int unused) {
+        if (unused > 0) {
+            inFlight -= unused;
+            notifyAll();
+        }
+    }
+
+    // Records a finished delivery and frees its permit
+    public synchronized void onComplete(long latencyMs, boolean success) {
+        boolean saturated = inFlight >= limit / 2;
+        inFlight--;
+        if (!success || latencyMs > latencyThresholdMs) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (saturated) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private int available() {
+        return (int) limit - inFlight;
+    }
+}
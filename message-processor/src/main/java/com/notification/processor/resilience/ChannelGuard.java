@@ -0,0 +1,103 @@
+package com.notification.processor.resilience;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.processor.config.ProcessorConfiguration.ResilienceConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protection for one channel's provider: a breaker for the channel, one per destination
+ * host (used for webhooks, where each customer endpoint fails independently), and the
+ * adaptive limit on in-flight deliveries. Destination breakers are kept for at most
+ * maxDestinations hosts and dropped once a host has had no deliveries for destinationIdleMs.
+ * The idle period never ends before an open breaker would have let probes through, so a
+ * dropped breaker was closed or due to half-open anyway.
+ */
+public class ChannelGuard {
+
+    private final ResilienceConfig config;
+    private final CircuitBreaker channelBreaker;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final LoadingCache<String, CircuitBreaker> destinationBreakers;
+
+    public ChannelGuard(ResilienceConfig config, AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.config = config;
+        this.channelBreaker = new CircuitBreaker(config);
+        this.concurrencyLimit = concurrencyLimit;
+        this.destinationBreakers = CacheBuilder.newBuilder()
+            .maximumSize(config.getMaxDestinations())
+            .expireAfterAccess(Math.max(config.getDestinationIdleMs(), config.getOpenDurationMs()), TimeUnit.MILLISECONDS)
+            .build(CacheLoader.from(host -> new CircuitBreaker(config)));
+    }
+
+    /**
+     * Permits for up to max deliveries, bounded by the adaptive limit and, while the channel
+     * breaker is half-open, by its probe allowance. While the breaker is open this waits out
+     * (part of) the open period and returns 0, so nothing is taken off the queue.
+     */
+    public int acquire(int max, long timeout, TimeUnit unit) throws InterruptedException {
+        long openMs = channelBreaker.remainingOpenMs();
+        if (openMs > 0) {
+            Thread.sleep(Math.min(openMs, unit.toMillis(timeout)));
+            return 0;
+        }
+
+        int permits = concurrencyLimit.acquire(max, timeout, unit);
+        int allowed = channelBreaker.tryAcquire(permits);
+        if (allowed < permits) {
+            concurrencyLimit.release(permits - allowed);
+            if (allowed == 0) {
+                // Half-open with every probe still out
+                Thread.sleep(Math.min(100, unit.toMillis(timeout)));
+            }
+        }
+        return allowed;
+    }
+
+    public void release(int unused) {
+        if (unused > 0) {
+            concurrencyLimit.release(unused);
+            channelBreaker.release(unused);
+        }
+    }
+
+    public void onComplete(long latencyMs, boolean success) {
+        concurrencyLimit.onComplete(latencyMs, success);
+        if (success) {
+            channelBreaker.onSuccess();
+        } else {
+            channelBreaker.onFailure();
+        }
+    }
+
+    public CircuitBreaker getChannelBreaker() {
+        return channelBreaker;
+    }
+
+    public AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public CircuitBreaker destinationBreaker(String host) {
+        return destinationBreakers.getUnchecked(host);
+    }
+
+    public void registerMetrics(MetricRegistry metrics, NotificationChannel channel) {
+        // 0 = closed, 1 = open, 2 = half-open
+        metrics.register(MetricRegistry.name("breaker", channel.getValue(), "state"),
+            (Gauge<Integer>) () -> channelBreaker.getState().ordinal());
+        metrics.register(MetricRegistry.name("breaker", channel.getValue(), "openDestinations"),
+            (Gauge<Long>) () -> destinationBreakers.asMap().values().stream()
+                .filter(breaker -> breaker.getState() != CircuitBreaker.State.CLOSED)
+                .count());
+        metrics.register(MetricRegistry.name("concurrency", channel.getValue(), "limit"),
+            (Gauge<Integer>) concurrencyLimit::getLimit);
+        metrics.register(MetricRegistry.name("concurrency", channel.getValue(), "inFlight"),
+            (Gauge<Integer>) concurrencyLimit::getInFlight);
+    }
+}
@@ -0,0 +1,138 @@
+package com.notification.processor.resilience;
+
+import com.notification.processor.config.ProcessorConfiguration.ResilienceConfig;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. It opens when the failure rate over the last windowSize
+ * outcomes reaches the threshold, which takes at least minimumCalls outcomes. It stays
+ * open for openDurationMs. Then it lets halfOpenProbes calls through: it closes if they
+ * all succeed and reopens on the first failure.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final ResilienceConfig config;
+    private final LongSupplier clock;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private int recorded = 0;
+    private int next = 0;
+    private int failures = 0;
+    private long openedAt = 0;
+    private int probesInFlight = 0;
+    private int probeSuccesses = 0;
+
+    public CircuitBreaker(ResilienceConfig config) {
+        this(config, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(ResilienceConfig config, LongSupplier clock) {
+        this.config = config;
+        this.clock = clock;
+        this.outcomes = new boolean[config.getWindowSize()];
+    }
+
+    /**
+     * Returns how many of max calls may go ahead now: all of them while closed, none
+     * while open, and the remaining probe allowance while half-open.
+     */
+    public synchronized int tryAcquire(int max) {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= config.getOpenDurationMs()) {
+            state = State.HALF_OPEN;
+            probesInFlight = 0;
+            probeSuccesses = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return max;
+            case HALF_OPEN:
+                int granted = Math.max(0, Math.min(max, config.getHalfOpenProbes() - probesInFlight - probeSuccesses));
+                probesInFlight += granted;
+                return granted;
+            case OPEN:
+            default:
+                return 0;
+        }
+    }
+
+    public boolean tryAcquire() {
+        return tryAcquire(1) == 1;
+    }
+
+    // Returns calls granted by tryAcquire that were never made
+    public synchronized void release(int unused) {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - unused);
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            probesInFlight = Math.max(0, probesInFlight - 1);
+            if (++probeSuccesses >= config.getHalfOpenProbes()) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= config.getMinimumCalls()
+                    && failures >= config.getFailureRateThreshold() * recorded) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Time until an open breaker lets probes through, 0 otherwise
+    public synchronized long remainingOpenMs() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openedAt + config.getOpenDurationMs() - clock.getAsLong());
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        recorded = 0;
+        next = 0;
+        failures = 0;
+    }
+}
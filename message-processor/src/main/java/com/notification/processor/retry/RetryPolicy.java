@@ -0,0 +1,36 @@
+package com.notification.processor.retry;
+
+import com.notification.processor.config.ProcessorConfiguration.RetryConfig;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Exponential backoff with jitter. The delay before retry n is
+ * min(maxDelayMs, initialDelayMs * backoffMultiplier^(n-1)), randomised between half and the
+ * full value, so a burst of failures comes back spread out instead of all at once.
+ */
+public class RetryPolicy {
+
+    private final RetryConfig config;
+    private final DoubleSupplier random;
+
+    public RetryPolicy(RetryConfig config) {
+        this(config, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    RetryPolicy(RetryConfig config, DoubleSupplier random) {
+        this.config = config;
+        this.random = random;
+    }
+
+    public boolean shouldRetry(int failures) {
+        return failures <= config.getMaxRetries();
+    }
+
+    public long delayMs(int retry) {
+        double backoff = Math.min(config.getMaxDelayMs(),
+            config.getInitialDelayMs() * Math.pow(config.getBackoffMultiplier(), retry - 1));
+        return (long) (backoff / 2 + random.getAsDouble() * backoff / 2);
+    }
+}
@@ -0,0 +1,126 @@
+package com.notification.processor.retry;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.RetryConfig;
+import com.notification.processor.config.ProcessorConfiguration.SchedulerConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+import com.notification.processor.queue.QueuedNotification;
+import com.notification.processor.scheduler.DelayQueue;
+import com.notification.processor.scheduler.DelayQueuePromoter;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Schedules failed deliveries for another attempt. The failure is recorded on the row,
+ * and the id goes into the retry set with a backoff delay. When due, the promoter puts it
+ * back on its channel queue. After maxRetries it goes to the dead-letter list instead.
+ * Retries never come from scanning the table; the periodic sweep only picks up
+ * retryable rows that went missing from Redis.
+ */
+public class RetryService {
+
+    public static final String RETRY_KEY = "notification_retry";
+    public static final String DEAD_LETTER_KEY = "notification_dead_letter";
+
+    private final JedisPool jedisPool;
+    private final DelayQueue retryQueue;
+    private final ProcessorNotificationDAO notificationDAO;
+    private final RetryConfig config;
+    private final RetryPolicy policy;
+    private final int batchSize;
+    private final NotificationCacheInvalidator cacheInvalidator;
+    private final DelayQueuePromoter promoter;
+
+    public RetryService(JedisPool jedisPool, DelayQueue retryQueue, ProcessorNotificationDAO notificationDAO,
+                        RetryConfig config, SchedulerConfig schedulerConfig,
+                        NotificationCacheInvalidator cacheInvalidator) {
+        this.jedisPool = jedisPool;
+        this.retryQueue = retryQueue;
+        this.notificationDAO = notificationDAO;
+        this.config = config;
+        this.policy = new RetryPolicy(config);
+        this.batchSize = schedulerConfig.getBatchSize();
+        this.cacheInvalidator = cacheInvalidator;
+        this.promoter = new DelayQueuePromoter("retry-promoter", retryQueue, batchSize,
+            schedulerConfig.getMaxSleepMs(), entries -> {
+                notificationDAO.markRetryPendingEntries(entries, new Date());
+                cacheInvalidator.invalidateEntries(entries);
+            });
+    }
+
+    public void start() {
+        promoter.start();
+    }
+
+    public void stop() throws InterruptedException {
+        promoter.stop();
+    }
+
+    // Permanent failures (rejected address, 4xx) go straight to the dead-letter list
+    public void onFailure(QueuedNotification queued, NotificationChannel channel, String errorMessage, boolean retryable) {
+        long now = System.currentTimeMillis();
+        Optional<Integer> failures = notificationDAO.recordFailure(queued.getNotificationId(), queued.getCreatedAt(),
+            errorMessage, retryable, config.getMaxRetries(), new Date(now));
+        cacheInvalidator.invalidate(queued.getNotificationId());
+        if (!failures.isPresent()) {
+            // Row is gone, nothing left to deliver
+            return;
+        }
+
+        // A permanent failure comes back past maxRetries, so the policy turns it down too
+        if (policy.shouldRetry(failures.get())) {
+            retryQueue.schedule(channel, queued.getPriority(), queued.getEntry(), now + policy.delayMs(failures.get()));
+        } else {
+            try (Jedis jedis = jedisPool.getResource()) {
+                jedis.lpush(DEAD_LETTER_KEY,
+                    QueueKeys.delayedMember(channel, queued.getPriority(), queued.getEntry()));
+            }
+            System.out.println("Notification " + queued.getNotificationId() + " moved to dead-letter after "
+                + failures.get() + " failures");
+        }
+    }
+
+    // Parks a notification that was not attempted, e.g. because its destination's breaker is open
+    public void defer(QueuedNotification queued, NotificationChannel channel, long delayMs) {
+        retryQueue.schedule(channel, queued.getPriority(), queued.getEntry(), System.currentTimeMillis() + delayMs);
+    }
+
+    public long deadLetterSize() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.llen(DEAD_LETTER_KEY);
+        }
+    }
+
+    /**
+     * Re-indexes retryable FAILED rows that have waited longer than any backoff allows,
+     * e.g. after Redis lost data, and promotes them straight away.
+     */
+    public void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            Date cutoff = new Date(now - config.getMaxDelayMs() - config.getSweepGraceMs());
+            List<NotificationMessage> stale;
+            do {
+                stale = notificationDAO.findStaleRetries(config.getMaxRetries(), cutoff, batchSize);
+                for (NotificationMessage notification : stale) {
+                    retryQueue.schedule(notification.getChannel(), notification.getPriority(),
+                        QueueKeys.queueEntry(notification.getId(), notification.getCreatedAt()), now);
+                }
+                if (!stale.isEmpty()) {
+                    System.out.println("Re-indexed " + stale.size() + " stale retries");
+                    // The rows leave FAILED before the next page is read
+                    promoter.promoteAllDue();
+                }
+            } while (stale.size() == batchSize);
+        } catch (Exception e) {
+            System.err.println("Error sweeping failed notifications: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.notification.processor.scheduler;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.config.ProcessorConfiguration.QueueTransportType;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.resps.Tuple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sorted set of queue entries scored by due time. Members carry their queue key
+ * suffix (see {@link QueueKeys#delayedMember}), so due entries are moved to the right
+ * channel queue by a script. Promotion reads the due entries, lets the caller mark
+ * their rows PENDING, and only then pushes them, so a consumer never sees a row that is
+ * still SCHEDULED or FAILED. Several processor nodes can promote from the same set: the
+ * status update is idempotent, and only the node whose ZREM succeeds pushes an entry.
+ * With the DATABASE transport there are no channel queues; due entries are only
+ * removed, and the caller's status update hands the rows to the consumers.
+ */
+public class DelayQueue {
+
+    // KEYS: sorted set
+    // ARGV: queue key prefix, "1" to XADD into streams, "0" to LPUSH, "" to push nowhere, then the members
+    private static final String PUSH_SCRIPT =
+        "local pushed = {} " +
+        "for i = 3, #ARGV do " +
+        "  local member = ARGV[i] " +
+        "  if redis.call('ZREM', KEYS[1], member) == 1 then " +
+        "    local sep = string.find(member, ':', string.find(member, ':', 1, true) + 1, true) " +
+        "    local queue = ARGV[1] .. string.sub(member, 1, sep - 1) " +
+        "    local entry = string.sub(member, sep + 1) " +
+        "    if ARGV[2] == '1' then " +
+        "      redis.call('XADD', queue, '*', 'id', entry) " +
+        "    elseif ARGV[2] == '0' then " +
+        "      redis.call('LPUSH', queue, entry) " +
+        "    end " +
+        "    pushed[#pushed + 1] = entry " +
+        "  end " +
+        "end " +
+        "return pushed";
+
+    private final JedisPool jedisPool;
+    private final String key;
+    private final String queuePrefix;
+    private final String pushMode;
+
+    public DelayQueue(JedisPool jedisPool, String key, QueueTransportType transport) {
+        this.jedisPool = jedisPool;
+        this.key = key;
+        boolean streams = transport == QueueTransportType.STREAM;
+        this.pushMode = transport == QueueTransportType.DATABASE ? "" : streams ? "1" : "0";
+        this.queuePrefix = streams ? QueueKeys.STREAM_PREFIX : QueueKeys.LIST_PREFIX;
+    }
+
+    // entry is a queue entry as built by QueueKeys#queueEntry
+    public void schedule(NotificationChannel channel, NotificationPriority priority, String entry, long dueMillis) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.zadd(key, dueMillis, QueueKeys.delayedMember(channel, priority, entry));
+        }
+    }
+
+    /**
+     * Takes up to limit entries due at or before now, hands their queue entries to beforePush, and then
+     * moves them to their channel queues. If beforePush throws, nothing is moved and the entries stay due.
+     * Returns how many entries were due.
+     */
+    public int promoteDue(long now, int limit, Consumer<List<String>> beforePush) {
+        List<String> members;
+        try (Jedis jedis = jedisPool.getResource()) {
+            members = jedis.zrangeByScore(key, Double.NEGATIVE_INFINITY, now, 0, limit);
+        }
+        if (members.isEmpty()) {
+            return 0;
+        }
+
+        List<String> entries = new ArrayList<>(members.size());
+        for (String member : members) {
+            entries.add(queueEntry(member));
+        }
+        beforePush.accept(entries);
+
+        List<String> args = new ArrayList<>(2 + members.size());
+        args.add(queuePrefix);
+        args.add(pushMode);
+        args.addAll(members);
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.eval(PUSH_SCRIPT, Collections.singletonList(key), args);
+        }
+        return members.size();
+    }
+
+    // Due time of the earliest entry, or -1 when the set is empty
+    public long nextDueMillis() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            List<Tuple> first = jedis.zrangeWithScores(key, 0, 0);
+            return first.isEmpty() ? -1 : (long) first.get(0).getScore();
+        }
+    }
+
+    public long size() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            return jedis.zcard(key);
+        }
+    }
+
+    static String queueEntry(String member) {
+        int sep = member.indexOf(':', member.indexOf(':') + 1);
+        return member.substring(sep + 1);
+    }
+}
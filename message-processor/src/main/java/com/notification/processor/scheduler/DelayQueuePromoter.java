@@ -0,0 +1,82 @@
+package com.notification.processor.scheduler;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Moves due entries from a {@link DelayQueue} to the channel queues on its own thread.
+ * After each batch it sleeps until the next due time, but never longer than maxSleepMs.
+ * Queue entries of each due batch go to onDue before they are pushed, so onDue can mark the rows
+ * deliverable; if it throws, the batch stays due and is retried.
+ */
+public class DelayQueuePromoter {
+
+    private final String name;
+    private final DelayQueue delayQueue;
+    private final int batchSize;
+    private final long maxSleepMs;
+    private final Consumer<List<String>> onDue;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    public DelayQueuePromoter(String name, DelayQueue delayQueue, int batchSize, long maxSleepMs,
+                              Consumer<List<String>> onDue) {
+        this.name = name;
+        this.delayQueue = delayQueue;
+        this.batchSize = batchSize;
+        this.maxSleepMs = maxSleepMs;
+        this.onDue = onDue;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::promoteLoop, name);
+        thread.start();
+    }
+
+    public void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join();
+        }
+    }
+
+    private void promoteLoop() {
+        while (running) {
+            try {
+                // A full batch means more may already be due
+                if (promoteDue(System.currentTimeMillis()) == batchSize) {
+                    continue;
+                }
+                long nextDue = delayQueue.nextDueMillis();
+                long sleepMs = nextDue < 0 ? maxSleepMs : Math.min(maxSleepMs, nextDue - System.currentTimeMillis());
+                if (sleepMs > 0) {
+                    Thread.sleep(sleepMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                System.err.println("Error in " + name + ": " + e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    public int promoteDue(long now) {
+        return delayQueue.promoteDue(now, batchSize, onDue);
+    }
+
+    // Promotes until nothing more is due
+    public void promoteAllDue() {
+        while (promoteDue(System.currentTimeMillis()) == batchSize) {
+            // next batch
+        }
+    }
+}
@@ -4,7 +4,7 @@ import com.notification.processor.service.NotificationProcessor;
 
 public class ProcessingScheduler {
     private final NotificationProcessor processor;
-    private boolean running = false;
+    private volatile boolean running = false;
 
     public ProcessingScheduler(NotificationProcessor processor) {
         this.processor = processor;
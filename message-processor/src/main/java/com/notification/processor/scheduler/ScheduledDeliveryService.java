@@ -0,0 +1,70 @@
+package com.notification.processor.scheduler;
+
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.SchedulerConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Dispatches future-dated notifications. The API indexes them in the scheduled set; the
+ * promoter moves due entries to the channel queues and marks the rows PENDING. The
+ * database is only read by the periodic sweep, which re-indexes SCHEDULED rows that
+ * never made it into Redis.
+ */
+public class ScheduledDeliveryService {
+
+    private final DelayQueue delayQueue;
+    private final ProcessorNotificationDAO notificationDAO;
+    private final SchedulerConfig config;
+    private final DelayQueuePromoter promoter;
+
+    public ScheduledDeliveryService(DelayQueue delayQueue, ProcessorNotificationDAO notificationDAO, SchedulerConfig config,
+                                    NotificationCacheInvalidator cacheInvalidator) {
+        this.delayQueue = delayQueue;
+        this.notificationDAO = notificationDAO;
+        this.config = config;
+        this.promoter = new DelayQueuePromoter("scheduled-promoter", delayQueue, config.getBatchSize(),
+            config.getMaxSleepMs(), entries -> {
+                notificationDAO.markScheduledPendingEntries(entries, new Date());
+                cacheInvalidator.invalidateEntries(entries);
+            });
+    }
+
+    public void start() {
+        promoter.start();
+    }
+
+    public void stop() throws InterruptedException {
+        promoter.stop();
+    }
+
+    /**
+     * Re-indexes rows that are still SCHEDULED well past their due time, e.g. after
+     * Redis lost data, and promotes them straight away.
+     */
+    public void sweep() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - config.getSweepGraceMs());
+            List<NotificationMessage> overdue;
+            do {
+                overdue = notificationDAO.findScheduledNotifications(cutoff, config.getBatchSize());
+                for (NotificationMessage notification : overdue) {
+                    delayQueue.schedule(notification.getChannel(), notification.getPriority(),
+                        QueueKeys.queueEntry(notification.getId(), notification.getCreatedAt()),
+                        notification.getScheduledTime().getTime());
+                }
+                if (!overdue.isEmpty()) {
+                    System.out.println("Re-indexed " + overdue.size() + " overdue scheduled notifications");
+                    // The rows leave SCHEDULED before the next page is read
+                    promoter.promoteAllDue();
+                }
+            } while (overdue.size() == config.getBatchSize());
+        } catch (Exception e) {
+            System.err.println("Error sweeping scheduled notifications: " + e.getMessage());
+        }
+    }
+}
@@ -1,25 +1,167 @@
 package com.notification.processor.service;
 
-import com.notification.common.model.NotificationMessage;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
 import com.notification.common.enums.NotificationChannel;
 import com.notification.common.enums.NotificationStatus;
-import com.notification.common.util.DateTimeUtil;
-import redis.clients.jedis.Jedis;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.template.TemplateCache;
+import com.notification.common.util.QueueKeys;
+import com.notification.delivery.ChannelSender;
+import com.notification.delivery.DeliveryEngine;
+import com.notification.delivery.DeliveryException;
+import com.notification.delivery.DestinationBusyException;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration;
+import com.notification.processor.content.SharedContentResolver;
+import com.notification.processor.db.ProcessorNotificationDAO;
+import com.notification.processor.execution.DeliveryExecutor;
+import com.notification.processor.execution.DeliveryExecutors;
+import com.notification.processor.queue.ChannelQueueConsumer;
+import com.notification.processor.queue.DatabaseQueueConsumer;
+import com.notification.processor.queue.PrioritySelector;
+import com.notification.processor.queue.QueueConsumer;
+import com.notification.processor.queue.QueuedNotification;
+import com.notification.processor.queue.ReliableQueueConsumer;
+import com.notification.processor.queue.ReliableQueueReaper;
+import com.notification.processor.queue.StreamQueueConsumer;
+import com.notification.processor.resilience.AdaptiveConcurrencyLimit;
+import com.notification.processor.resilience.ChannelGuard;
+import com.notification.processor.resilience.CircuitBreaker;
+import com.notification.processor.retry.RetryService;
+import com.notification.processor.scheduler.DelayQueue;
+import com.notification.processor.scheduler.ScheduledDeliveryService;
+import com.notification.processor.status.StatusWriteBehind;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.JedisPoolConfig;
 
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class NotificationProcessor {
+    // How long a send to a host at its in-flight cap waits before it is tried again
+    private static final long BUSY_DEFER_MS = 1000;
+
+    private final ProcessorConfiguration configuration;
+    private final MetricRegistry metrics;
     private final JedisPool jedisPool;
-    private boolean running = false;
+    private final HikariDataSource dataSource;
+    private final Jdbi jdbi;
+    private final ProcessorNotificationDAO notificationDAO;
+    private final DeliveryEngine deliveryEngine;
+    private final TemplateCache contentCache;
+    private final SharedContentResolver contentResolver;
+    private final NotificationCacheInvalidator cacheInvalidator;
+    private final StatusWriteBehind statusWriter;
+    // Acks entries once their SENT mark is committed, off the status writer's thread
+    private final ExecutorService ackExecutor;
+    private final String workerId;
+    private final Map<NotificationChannel, DeliveryExecutor> workerPools = new EnumMap<>(NotificationChannel.class);
+    // Async sends whose outcome has not been handed to a worker yet; shutdown waits for them before draining
+    private final Map<NotificationChannel, Set<CompletableFuture<Void>>> inFlightSends = new EnumMap<>(NotificationChannel.class);
+    private final List<Thread> consumerThreads = new ArrayList<>();
+    private ScheduledExecutorService maintenanceExecutor;
+    private ScheduledDeliveryService scheduledDeliveryService;
+    private RetryService retryService;
+    private volatile boolean running = false;
+
+    public NotificationProcessor(ProcessorConfiguration configuration, MetricRegistry metrics) {
+        this.configuration = configuration;
+        this.metrics = metrics;
 
-    public NotificationProcessor() {
-        this.jedisPool = new JedisPool("localhost", 6379);
+        ProcessorConfiguration.RedisConfig redisConfig = configuration.getRedisConfig();
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(redisConfig.getMaxConnections());
+        poolConfig.setMaxIdle(redisConfig.getMaxIdle());
+
+        this.jedisPool = new JedisPool(poolConfig,
+            redisConfig.getHost(),
+            redisConfig.getPort(),
+            redisConfig.getTimeout(),
+            redisConfig.getPassword());
+
+        ProcessorConfiguration.DatabaseConfig databaseConfig = configuration.getDatabaseConfig();
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl(databaseConfig.getUrl());
+        hikariConfig.setUsername(databaseConfig.getUser());
+        hikariConfig.setPassword(databaseConfig.getPassword());
+        hikariConfig.setMaximumPoolSize(databaseConfig.getMaxPoolSize());
+        // Start even when Postgres is down; queue consumption does not depend on it
+        hikariConfig.setInitializationFailTimeout(-1);
+        this.dataSource = new HikariDataSource(hikariConfig);
+        this.jdbi = Jdbi.create(dataSource).installPlugin(new SqlObjectPlugin());
+        this.notificationDAO = jdbi.onDemand(ProcessorNotificationDAO.class);
+        this.deliveryEngine = new DeliveryEngine(configuration.getDeliveryConfig());
+        ProcessorConfiguration.ContentCacheConfig contentCacheConfig = configuration.getContentCacheConfig();
+        this.contentCache = new TemplateCache(contentCacheConfig.getMaxEntries(), contentCacheConfig.getMaxChars());
+        this.contentResolver = new SharedContentResolver(notificationDAO, contentCache);
+        this.cacheInvalidator = new NotificationCacheInvalidator(jedisPool);
+        this.statusWriter = new StatusWriteBehind(notificationDAO, cacheInvalidator,
+            configuration.getStatusWriteConfig(), metrics.histogram("status.sent.batchSize"));
+        this.ackExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "sent-ack");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        String configuredWorkerId = configuration.getQueueConfig().getWorkerId();
+        this.workerId = configuredWorkerId != null ? configuredWorkerId : defaultWorkerId();
     }
 
     public void startProcessing() {
         running = true;
+        statusWriter.start();
+        metrics.register("status.sent.pending", (Gauge<Integer>) statusWriter::pendingCount);
+
+        ProcessorConfiguration.QueueConfig queueConfig = configuration.getQueueConfig();
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor();
+        if (queueConfig.getTransport() == ProcessorConfiguration.QueueTransportType.RELIABLE_LIST) {
+            maintenanceExecutor.scheduleWithFixedDelay(
+                new ReliableQueueReaper(jedisPool, queueConfig.getVisibilityTimeoutMs()),
+                queueConfig.getReaperIntervalMs(), queueConfig.getReaperIntervalMs(), TimeUnit.MILLISECONDS);
+        }
+
+        ProcessorConfiguration.SchedulerConfig schedulerConfig = configuration.getSchedulerConfig();
+        DelayQueue scheduledQueue = new DelayQueue(jedisPool, QueueKeys.SCHEDULED_KEY, queueConfig.getTransport());
+        scheduledDeliveryService = new ScheduledDeliveryService(scheduledQueue, notificationDAO, schedulerConfig,
+            cacheInvalidator);
+        scheduledDeliveryService.start();
+        maintenanceExecutor.scheduleWithFixedDelay(scheduledDeliveryService::sweep,
+            schedulerConfig.getSweepIntervalMs(), schedulerConfig.getSweepIntervalMs(), TimeUnit.MILLISECONDS);
+        metrics.register("scheduler.pending", (Gauge<Long>) scheduledQueue::size);
+
+        ProcessorConfiguration.RetryConfig retryConfig = configuration.getRetryConfig();
+        DelayQueue retryQueue = new DelayQueue(jedisPool, RetryService.RETRY_KEY, queueConfig.getTransport());
+        retryService = new RetryService(jedisPool, retryQueue, notificationDAO, retryConfig, schedulerConfig,
+            cacheInvalidator);
+        retryService.start();
+        maintenanceExecutor.scheduleWithFixedDelay(retryService::sweep,
+            retryConfig.getSweepIntervalMs(), retryConfig.getSweepIntervalMs(), TimeUnit.MILLISECONDS);
+        metrics.register("retry.pending", (Gauge<Long>) retryQueue::size);
+        metrics.register("retry.deadLetter", (Gauge<Long>) retryService::deadLetterSize);
+        metrics.register("content.cache.size", (Gauge<Integer>) contentCache::size);
+        metrics.register("content.cache.misses", (Gauge<Long>) contentCache::getMisses);
         
         // Process different channels
         processChannel(NotificationChannel.EMAIL);
@@ -30,18 +172,103 @@ public class NotificationProcessor {
     }
 
     private void processChannel(NotificationChannel channel) {
-        new Thread(() -> {
+        ProcessorConfiguration.ChannelConfig channelConfig = configuration.getChannelConfig(channel);
+        QueueConsumer consumer = createConsumer(channel);
+        if (consumer instanceof ReliableQueueConsumer || consumer instanceof DatabaseQueueConsumer) {
+            // Renewed well within the visibility timeout, so held entries are never reaped from a live node
+            long renewIntervalMs = Math.max(1000, configuration.getQueueConfig().getVisibilityTimeoutMs() / 3);
+            maintenanceExecutor.scheduleWithFixedDelay(() -> renewClaims(consumer, channel),
+                renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        DeliveryExecutor workerPool = DeliveryExecutors.create(channel, channelConfig, configuration.getExecutionMode());
+        workerPools.put(channel, workerPool);
+        Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+        inFlightSends.put(channel, inFlight);
+
+        metrics.register(MetricRegistry.name("queue", channel.getValue(), "backlog"), (Gauge<Long>) consumer::backlog);
+        metrics.register(MetricRegistry.name("queue", channel.getValue(), "inFlight"), (Gauge<Long>) consumer::inFlight);
+        metrics.register(MetricRegistry.name("workers", channel.getValue(), "active"), (Gauge<Integer>) workerPool::getActiveCount);
+        metrics.register(MetricRegistry.name("workers", channel.getValue(), "queued"), (Gauge<Integer>) workerPool::getQueuedCount);
+
+        ProcessorConfiguration.ResilienceConfig resilienceConfig = configuration.getResilienceConfig();
+        ChannelGuard guard = new ChannelGuard(resilienceConfig, new AdaptiveConcurrencyLimit(
+            resilienceConfig.getMinConcurrency(), workerPool.getCapacity(),
+            channelConfig.getLatencyThresholdMs(), resilienceConfig.getBackoffRatio()));
+        guard.registerMetrics(metrics, channel);
+        ChannelSender sender = deliveryEngine.sender(channel);
+
+        Thread consumerThread = new Thread(() -> {
             while (running) {
-                try (Jedis jedis = jedisPool.getResource()) {
-                    String queueKey = "notification_queue:" + channel.getValue();
-                    String notificationId = jedis.rpop(queueKey);
-                    
-                    if (notificationId != null) {
-                        processNotification(notificationId, channel);
+                try {
+                    // While the breaker is open or the adaptive limit is reached, ids stay in Redis instead of burning retries
+                    int permits = guard.acquire(channelConfig.getBatchSize(), 1, TimeUnit.SECONDS);
+                    if (permits == 0) {
+                        continue;
+                    }
+
+                    // Only pull as many ids as there are free worker slots; when the pool is full, Redis is left alone
+                    int slots = workerPool.reserve(permits, 1, TimeUnit.SECONDS);
+                    guard.release(permits - slots);
+                    if (slots == 0) {
+                        continue;
+                    }
+
+                    List<QueuedNotification> batch;
+                    try {
+                        // Blocks until ids arrive or the block timeout elapses, so no idle sleep is needed
+                        batch = consumer.poll(slots);
+                    } catch (RuntimeException e) {
+                        workerPool.release(slots);
+                        guard.release(slots);
+                        throw e;
+                    }
+                    workerPool.release(slots - batch.size());
+                    guard.release(slots - batch.size());
+
+                    Map<String, NotificationMessage> notifications;
+                    try {
+                        // One query for the whole batch instead of one per delivery
+                        notifications = loadNotifications(batch);
+                    } catch (RuntimeException e) {
+                        workerPool.release(batch.size());
+                        guard.release(batch.size());
+                        throw e;
+                    }
+
+                    Map<String, QueuedNotification> queuedById = new HashMap<>();
+                    List<NotificationMessage> deliverable = new ArrayList<>(batch.size());
+                    for (QueuedNotification entry : batch) {
+                        NotificationMessage notification = notifications.get(entry.getNotificationId());
+                        // Entries queued as a bare id take the loaded row's created_at for the status writes
+                        QueuedNotification queued = notification != null && entry.getCreatedAt() == null
+                            ? entry.withCreatedAt(notification.getCreatedAt()) : entry;
+                        if (notification == null || notification.getStatus() == NotificationStatus.SENT
+                                || notification.getStatus() == NotificationStatus.CANCELLED
+                                || notification.getStatus() == NotificationStatus.FAILED) {
+                            // Deleted, cancelled, or already delivered before a redelivery. FAILED rows belong
+                            // to the retry set, which marks them PENDING before it queues them again
+                            runOnWorker(workerPool, () -> skip(consumer, queued, guard));
+                        } else {
+                            queuedById.put(queued.getNotificationId(), queued);
+                            deliverable.add(notification);
+                        }
+                    }
+
+                    if (sender.isAsync()) {
+                        for (NotificationMessage notification : deliverable) {
+                            dispatch(consumer, notification, queuedById.get(notification.getId()),
+                                channel, sender, guard, workerPool, inFlight);
+                        }
                     } else {
-                        // No notifications to process, wait a bit
-                        Thread.sleep(1000);
+                        // A group runs as one task, e.g. one SMTP message to many recipients; its other slots are freed
+                        for (List<NotificationMessage> group : sender.group(deliverable)) {
+                            runOnWorker(workerPool, () -> deliver(consumer, group, queuedById, channel, sender, guard));
+                            workerPool.release(group.size() - 1);
+                        }
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 } catch (Exception e) {
                     System.err.println("Error processing " + channel + " notifications: " + e.getMessage());
                     try {
@@ -52,31 +279,309 @@ public class NotificationProcessor {
                     }
                 }
             }
-        }).start();
+        }, channel.getValue() + "-consumer");
+        consumerThreads.add(consumerThread);
+        consumerThread.start();
     }
 
-    private void processNotification(String notificationId, NotificationChannel channel) {
-        System.out.println("Processing notification " + notificationId + " for channel " + channel);
-        
-        // Simulate processing time
+    private static void renewClaims(QueueConsumer consumer, NotificationChannel channel) {
         try {
-            Thread.sleep(500 + (long)(Math.random() * 1500));
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+            consumer.renewClaims();
+        } catch (Exception e) {
+            System.err.println("Error renewing " + channel + " claims: " + e.getMessage());
         }
-        
-        // Simulate success/failure
-        boolean success = Math.random() > 0.1; // 90% success rate
-        
-        if (success) {
-            System.out.println("Successfully processed notification " + notificationId);
-        } else {
-            System.out.println("Failed to process notification " + notificationId);
+    }
+
+    private void skip(QueueConsumer consumer, QueuedNotification queued, ChannelGuard guard) {
+        guard.release(1);
+        ack(consumer, queued);
+    }
+
+    // Entries that are not acked because of a crash or error are redelivered after the visibility timeout
+    private void deliver(QueueConsumer consumer, List<NotificationMessage> group,
+                         Map<String, QueuedNotification> queuedById, NotificationChannel channel,
+                         ChannelSender sender, ChannelGuard guard) {
+        List<NotificationMessage> attempted = new ArrayList<>(group.size());
+        Map<String, CircuitBreaker> destinationBreakers = new HashMap<>();
+        for (NotificationMessage notification : group) {
+            CircuitBreaker destinationBreaker = destinationBreaker(sender, guard, notification);
+            if (destinationBreaker != null && !destinationBreaker.tryAcquire()) {
+                // Only this host is failing; park the notification until its breaker lets probes through
+                defer(consumer, queuedById.get(notification.getId()), channel, guard,
+                    Math.max(1000, destinationBreaker.remainingOpenMs()));
+                continue;
+            }
+            if (destinationBreaker != null) {
+                destinationBreakers.put(notification.getId(), destinationBreaker);
+            }
+            attempted.add(notification);
+        }
+        if (attempted.isEmpty()) {
+            return;
+        }
+
+        Map<String, DeliveryException> failures;
+        long started = System.nanoTime();
+        try {
+            failures = sender.sendAll(attempted);
+        } catch (RuntimeException e) {
+            DeliveryException failure = toDeliveryException(e);
+            failures = new HashMap<>();
+            for (NotificationMessage notification : attempted) {
+                failures.put(notification.getId(), failure);
+            }
         }
+        long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        for (NotificationMessage notification : attempted) {
+            complete(consumer, queuedById.get(notification.getId()), channel, guard,
+                destinationBreakers.get(notification.getId()), failures.get(notification.getId()), latencyMs);
+        }
+    }
+
+    /**
+     * Starts a non-blocking send from the consumer thread. The notification keeps its worker slot
+     * while the request is in flight, but no thread waits on it; the outcome is recorded by a
+     * worker once the response arrives.
+     */
+    private void dispatch(QueueConsumer consumer, NotificationMessage notification, QueuedNotification queued,
+                          NotificationChannel channel, ChannelSender sender, ChannelGuard guard,
+                          DeliveryExecutor workerPool, Set<CompletableFuture<Void>> inFlight) {
+        CircuitBreaker destinationBreaker = destinationBreaker(sender, guard, notification);
+        if (destinationBreaker != null && !destinationBreaker.tryAcquire()) {
+            long delayMs = Math.max(1000, destinationBreaker.remainingOpenMs());
+            runOnWorker(workerPool, () -> defer(consumer, queued, channel, guard, delayMs));
+            return;
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<Void> sent;
+        try {
+            sent = sender.sendAsync(notification);
+        } catch (RuntimeException e) {
+            sent = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<Void> handled = sent.handle((ignored, error) -> {
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            DeliveryException failure = error != null ? toDeliveryException(error) : null;
+            runOnWorker(workerPool, () -> complete(consumer, queued, channel, guard, destinationBreaker, failure, latencyMs));
+            return null;
+        });
+        inFlight.add(handled);
+        handled.whenComplete((ignored, error) -> inFlight.remove(handled));
     }
 
+    /**
+     * Submits a task that holds a reserved slot. Once the pool is draining the task runs on the
+     * calling thread instead, so its guard permit is released and its entry acked or left for
+     * redelivery rather than dropped.
+     */
+    private static void runOnWorker(DeliveryExecutor workerPool, Runnable task) {
+        try {
+            workerPool.submit(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    private void complete(QueueConsumer consumer, QueuedNotification queued, NotificationChannel channel,
+                          ChannelGuard guard, CircuitBreaker destinationBreaker, DeliveryException failure,
+                          long latencyMs) {
+        if (failure instanceof DestinationBusyException) {
+            // Never sent: the host already has its maximum in flight
+            if (destinationBreaker != null) {
+                destinationBreaker.release(1);
+            }
+            defer(consumer, queued, channel, guard, BUSY_DEFER_MS);
+            return;
+        }
+
+        // A rejected recipient says nothing about the provider's health
+        boolean healthy = failure == null || !failure.isRetryable();
+        guard.onComplete(latencyMs, healthy);
+        if (destinationBreaker != null) {
+            if (healthy) {
+                destinationBreaker.onSuccess();
+            } else {
+                destinationBreaker.onFailure();
+            }
+        }
+
+        try {
+            if (failure == null) {
+                // Coalesced with other workers' outcomes. The worker moves on; under SYNC durability the
+                // entry is acked once the row is committed, and stays unacked for redelivery if that fails
+                statusWriter.markSent(queued.getNotificationId(), queued.getCreatedAt(), new Date())
+                    .whenCompleteAsync((ignored, error) -> {
+                        if (error != null) {
+                            System.err.println("Error recording notification " + queued.getNotificationId()
+                                + " as sent: " + error.getMessage());
+                            return;
+                        }
+                        ack(consumer, queued);
+                    }, ackExecutor);
+                return;
+            }
+            // From here the retry set owns the notification
+            retryService.onFailure(queued, channel, failure.getMessage(), failure.isRetryable());
+            consumer.ack(queued);
+        } catch (Exception e) {
+            System.err.println("Error processing notification " + queued.getNotificationId() + ": " + e.getMessage());
+        }
+    }
+
+    private static void ack(QueueConsumer consumer, QueuedNotification queued) {
+        try {
+            consumer.ack(queued);
+        } catch (Exception e) {
+            System.err.println("Error acking notification " + queued.getNotificationId() + ": " + e.getMessage());
+        }
+    }
+
+    // Parks a notification that was not attempted; it does not count as a failure
+    private void defer(QueueConsumer consumer, QueuedNotification queued, NotificationChannel channel,
+                       ChannelGuard guard, long delayMs) {
+        guard.release(1);
+        try {
+            retryService.defer(queued, channel, delayMs);
+            consumer.ack(queued);
+        } catch (Exception e) {
+            System.err.println("Error deferring notification " + queued.getNotificationId() + ": " + e.getMessage());
+        }
+    }
+
+    private static CircuitBreaker destinationBreaker(ChannelSender sender, ChannelGuard guard,
+                                                     NotificationMessage notification) {
+        String destination = sender.destination(notification);
+        return destination != null ? guard.destinationBreaker(destination) : null;
+    }
+
+    private static DeliveryException toDeliveryException(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DeliveryException) {
+            return (DeliveryException) cause;
+        }
+        return new DeliveryException(cause.getMessage() != null ? cause.getMessage() : cause.toString(), true, cause);
+    }
+
+    private Map<String, NotificationMessage> loadNotifications(List<QueuedNotification> batch) {
+        if (batch.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<String> ids = new ArrayList<>(batch.size());
+        List<Date> createdAts = new ArrayList<>(batch.size());
+        List<String> bareIds = new ArrayList<>();
+        for (QueuedNotification queued : batch) {
+            if (queued.getCreatedAt() != null) {
+                ids.add(queued.getNotificationId());
+                createdAts.add(queued.getCreatedAt());
+            } else {
+                bareIds.add(queued.getNotificationId());
+            }
+        }
+        Map<String, NotificationMessage> notifications = new HashMap<>();
+        // created_at limits the read to the partitions the batch lives in
+        if (!ids.isEmpty()) {
+            for (NotificationMessage notification : notificationDAO.findByIds(ids, createdAts)) {
+                notifications.put(notification.getId(), notification);
+            }
+        }
+        if (!bareIds.isEmpty()) {
+            for (NotificationMessage notification : notificationDAO.findByIdsAnyPartition(bareIds)) {
+                notifications.put(notification.getId(), notification);
+            }
+        }
+        // Campaign rows carry only a content hash; render their title and message from the cached content
+        contentResolver.resolve(notifications.values());
+        return notifications;
+    }
+
+    private QueueConsumer createConsumer(NotificationChannel channel) {
+        ProcessorConfiguration.ChannelConfig channelConfig = configuration.getChannelConfig(channel);
+        ProcessorConfiguration.QueueConfig queueConfig = configuration.getQueueConfig();
+        PrioritySelector prioritySelector = new PrioritySelector(
+            queueConfig.getPriorityWeights(), queueConfig.getStarvationThresholdMs());
+
+        switch (queueConfig.getTransport()) {
+            case LIST:
+                return new ChannelQueueConsumer(channel, channelConfig, jedisPool, prioritySelector);
+            case STREAM:
+                return new StreamQueueConsumer(channel, channelConfig, queueConfig,
+                    jedisPool, prioritySelector, workerId);
+            case DATABASE:
+                return new DatabaseQueueConsumer(channel, queueConfig, notificationDAO, prioritySelector,
+                    cacheInvalidator);
+            case RELIABLE_LIST:
+            default:
+                return new ReliableQueueConsumer(channel, channelConfig, jedisPool,
+                    prioritySelector, workerId, queueConfig.getIdleRecheckMs(), queueConfig.getMaxHoldMs());
+        }
+    }
+
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Stops polling, then lets every channel finish the work it already took
+     * before the Redis and database pools are closed.
+     */
     public void stopProcessing() {
         running = false;
+        long shutdownTimeoutMs = TimeUnit.SECONDS.toMillis(configuration.getShutdownTimeoutSeconds());
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMs;
+
+        try {
+            if (scheduledDeliveryService != null) {
+                scheduledDeliveryService.stop();
+            }
+            if (retryService != null) {
+                retryService.stop();
+            }
+            for (Thread consumerThread : consumerThreads) {
+                consumerThread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+            for (Map.Entry<NotificationChannel, DeliveryExecutor> entry : workerPools.entrySet()) {
+                awaitInFlightSends(entry.getKey(), deadline);
+                long remaining = Math.max(1, deadline - System.currentTimeMillis());
+                if (!entry.getValue().drain(remaining, TimeUnit.MILLISECONDS)) {
+                    System.err.println("Timed out draining " + entry.getKey() + " workers");
+                }
+            }
+            statusWriter.stop();
+            ackExecutor.shutdown();
+            ackExecutor.awaitTermination(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdownNow();
+        }
+        deliveryEngine.close();
         jedisPool.close();
+        dataSource.close();
+    }
+
+    // Outcomes of requests still on the wire are handed to the workers, so they must land before the pool drains
+    private void awaitInFlightSends(NotificationChannel channel, long deadline) throws InterruptedException {
+        Set<CompletableFuture<Void>> inFlight = inFlightSends.get(channel);
+        if (inFlight == null || inFlight.isEmpty()) {
+            return;
+        }
+        CompletableFuture<?>[] pending = inFlight.toArray(new CompletableFuture<?>[0]);
+        try {
+            CompletableFuture.allOf(pending).get(Math.max(1, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            System.err.println("Timed out waiting for " + inFlight.size() + " in-flight " + channel + " sends");
+        } catch (ExecutionException e) {
+            // Each outcome is recorded by complete(); a failure here was already logged there
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package com.notification.processor.status;
+
+import com.codahale.metrics.Histogram;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.StatusWriteConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces SENT outcomes from all workers and writes them on one thread, as a single JDBC
+ * batch and commit per flush: whatever arrived within flushIntervalMs of the first outcome,
+ * up to maxBatchSize. The API's cached copies are invalidated after each flush.
+ * With SYNC durability the future markSent returns completes once the row is committed, and the
+ * caller acks the queue entry from it, so no worker waits on the flush. With ASYNC the future is
+ * already complete; a crash loses the SENT mark of at most the unflushed outcomes, and failed
+ * flushes are retried instead of reported.
+ */
+public class StatusWriteBehind {
+
+    public enum Durability {
+        SYNC,
+        ASYNC
+    }
+
+    private static final long IDLE_POLL_MS = 100;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private final ProcessorNotificationDAO notificationDAO;
+    private final NotificationCacheInvalidator cacheInvalidator;
+    private final Durability durability;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<SentOutcome> pending;
+    private final Histogram batchSizes;
+    private final Thread flusher;
+    private volatile boolean running = false;
+
+    public StatusWriteBehind(ProcessorNotificationDAO notificationDAO, NotificationCacheInvalidator cacheInvalidator,
+                             StatusWriteConfig config, Histogram batchSizes) {
+        this.notificationDAO = notificationDAO;
+        this.cacheInvalidator = cacheInvalidator;
+        this.durability = config.getDurability();
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        this.pending = new ArrayBlockingQueue<>(config.getMaxPending());
+        this.batchSizes = batchSizes;
+        this.flusher = new Thread(this::run, "status-writer");
+        this.flusher.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        flusher.start();
+    }
+
+    // Flushes everything already handed over before returning
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join();
+    }
+
+    /**
+     * Blocks only while maxPending outcomes are waiting. Under SYNC durability the returned future
+     * completes on the writer thread once the row is committed, or exceptionally if the flush failed.
+     */
+    public CompletableFuture<Void> markSent(String notificationId, Date createdAt, Date sentAt)
+            throws InterruptedException {
+        SentOutcome outcome = new SentOutcome(notificationId, createdAt, sentAt);
+        pending.put(outcome);
+        return durability == Durability.SYNC ? outcome.done : CompletableFuture.completedFuture(null);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void run() {
+        List<SentOutcome> batch = new ArrayList<>(maxBatchSize);
+        while (running || !pending.isEmpty()) {
+            try {
+                SentOutcome first = pending.poll(IDLE_POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    pending.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    SentOutcome next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.drainTo(batch);
+                fail(batch, e);
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<SentOutcome> batch) throws InterruptedException {
+        List<String> ids = new ArrayList<>(batch.size());
+        List<Date> createdAts = new ArrayList<>(batch.size());
+        List<Date> sentAts = new ArrayList<>(batch.size());
+        for (SentOutcome outcome : batch) {
+            ids.add(outcome.notificationId);
+            createdAts.add(outcome.createdAt);
+            sentAts.add(outcome.sentAt);
+        }
+
+        while (true) {
+            try {
+                notificationDAO.markSentAll(ids, createdAts, sentAts);
+                break;
+            } catch (Exception e) {
+                if (durability == Durability.SYNC || !running) {
+                    System.err.println("Error recording " + ids.size() + " sent notifications: " + e.getMessage());
+                    fail(batch, e);
+                    return;
+                }
+                // ASYNC callers have acked already, so dropping the batch would lose the outcomes
+                System.err.println("Error recording " + ids.size() + " sent notifications, retrying: " + e.getMessage());
+                Thread.sleep(RETRY_DELAY_MS);
+            }
+        }
+
+        batchSizes.update(ids.size());
+        cacheInvalidator.invalidate(ids);
+        for (SentOutcome outcome : batch) {
+            outcome.done.complete(null);
+        }
+    }
+
+    private static void fail(List<SentOutcome> batch, Exception cause) {
+        for (SentOutcome outcome : batch) {
+            outcome.done.completeExceptionally(cause);
+        }
+    }
+
+    private static class SentOutcome {
+        private final String notificationId;
+        private final Date createdAt;
+        private final Date sentAt;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        SentOutcome(String notificationId, Date createdAt, Date sentAt) {
+            this.notificationId = notificationId;
+            this.createdAt = createdAt;
+            this.sentAt = sentAt;
+        }
+    }
+}
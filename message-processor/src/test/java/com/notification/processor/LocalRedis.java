@@ -0,0 +1,30 @@
+package com.notification.processor;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public final class LocalRedis {
+
+    private static final String HOST = System.getProperty("redis.host", "localhost");
+    private static final int PORT = Integer.getInteger("redis.port", 6379);
+
+    private LocalRedis() {}
+
+    // Skips the calling test instead of failing when no local Redis is running
+    public static JedisPool connectOrSkip() {
+        JedisPool pool = new JedisPool(HOST, PORT);
+        boolean available;
+        try (Jedis jedis = pool.getResource()) {
+            available = "PONG".equals(jedis.ping());
+        } catch (Exception e) {
+            available = false;
+        }
+        if (!available) {
+            pool.close();
+        }
+        assumeTrue(available, "No Redis reachable at " + HOST + ":" + PORT);
+        return pool;
+    }
+}
@@ -0,0 +1,55 @@
+package com.notification.processor.content;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.template.TemplateCache;
+import com.notification.processor.db.ProcessorNotificationDAO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SharedContentResolverTest {
+
+    @Mock
+    private ProcessorNotificationDAO notificationDAO;
+
+    @Test
+    void resolve_LoadsContentOncePerHashAndRendersPerRecipient() {
+        SharedContent content = new SharedContent();
+        content.setContentHash("abc");
+        content.setTitle("Hi {{name}}");
+        content.setMessage("Your code is {{code}}");
+        when(notificationDAO.findContent(anyList())).thenReturn(List.of(content));
+        SharedContentResolver resolver = new SharedContentResolver(notificationDAO, new TemplateCache(100, 10_000));
+
+        NotificationMessage ada = campaignRow("n1", Map.of("name", "Ada", "code", "1234"));
+        NotificationMessage bob = campaignRow("n2", Map.of("name", "Bob", "code", "5678"));
+        NotificationMessage plain = new NotificationMessage("Plain", "Own body", NotificationChannel.EMAIL, "u3");
+        resolver.resolve(List.of(ada, plain));
+        resolver.resolve(List.of(bob));
+
+        verify(notificationDAO, times(1)).findContent(List.of("abc"));
+        assertEquals("Hi Ada", ada.getTitle());
+        assertEquals("Your code is 5678", bob.getMessage());
+        assertEquals("Own body", plain.getMessage());
+    }
+
+    private static NotificationMessage campaignRow(String id, Map<String, String> data) {
+        NotificationMessage notification = new NotificationMessage(null, null, NotificationChannel.EMAIL, id);
+        notification.setId(id);
+        notification.setContentHash("abc");
+        notification.setTemplateData(data);
+        return notification;
+    }
+}
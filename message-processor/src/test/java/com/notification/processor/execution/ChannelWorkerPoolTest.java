@@ -0,0 +1,88 @@
+package com.notification.processor.execution;
+
+import com.notification.common.enums.NotificationChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChannelWorkerPoolTest {
+
+    private final ChannelWorkerPool pool = new ChannelWorkerPool(NotificationChannel.WEBHOOK, 2, 3);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.drain(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void reserve_IsBoundedByWorkersPlusQueueCapacity() throws InterruptedException {
+        assertEquals(5, pool.reserve(100, 10, TimeUnit.MILLISECONDS));
+        assertEquals(0, pool.reserve(1, 10, TimeUnit.MILLISECONDS));
+
+        pool.release(2);
+
+        assertEquals(2, pool.reserve(100, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void submit_FreesSlotWhenTaskCompletes_SoOneSlowTaskDoesNotBlockOthers() throws InterruptedException {
+        CountDownLatch slowTaskRelease = new CountDownLatch(1);
+        CountDownLatch fastTaskDone = new CountDownLatch(1);
+
+        assertEquals(2, pool.reserve(2, 10, TimeUnit.MILLISECONDS));
+        pool.submit(() -> awaitQuietly(slowTaskRelease));
+        pool.submit(fastTaskDone::countDown);
+
+        assertTrue(fastTaskDone.await(1, TimeUnit.SECONDS));
+        assertEquals(3, pool.reserve(3, 10, TimeUnit.MILLISECONDS));
+        // Only the fast task's slot comes back while the slow one is still running
+        assertEquals(1, pool.reserve(100, 1, TimeUnit.SECONDS));
+
+        slowTaskRelease.countDown();
+        assertTrue(pool.drain(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_NeverRejectsReservedSlots_WhenTasksFinishImmediately() throws InterruptedException {
+        AtomicInteger ran = new AtomicInteger();
+        int submitted = 0;
+        // Each slot comes back as its task ends, possibly before the worker has taken the next queued task
+        while (submitted < 20_000) {
+            int slots = pool.reserve(5, 1, TimeUnit.SECONDS);
+            for (int i = 0; i < slots; i++) {
+                pool.submit(ran::incrementAndGet);
+            }
+            submitted += slots;
+        }
+
+        assertTrue(pool.drain(5, TimeUnit.SECONDS));
+        assertEquals(submitted, ran.get());
+        assertEquals(5, pool.reserve(100, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void submit_AfterDrainFreesTheSlot() throws InterruptedException {
+        assertTrue(pool.drain(1, TimeUnit.SECONDS));
+        assertEquals(1, pool.reserve(1, 10, TimeUnit.MILLISECONDS));
+
+        assertThrows(RejectedExecutionException.class, () -> pool.submit(() -> { }));
+
+        assertEquals(5, pool.reserve(100, 10, TimeUnit.MILLISECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
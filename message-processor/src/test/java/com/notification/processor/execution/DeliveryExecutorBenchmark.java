@@ -0,0 +1,108 @@
+package com.notification.processor.execution;
+
+import com.notification.common.enums.NotificationChannel;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 10k deliveries that each block for SEND_MILLIS, the shape of a slow SMTP or
+ * webhook send. Run with ./gradlew :message-processor:benchmark -PvirtualThreads
+ * to include the virtual-thread executor.
+ */
+@Tag("benchmark")
+class DeliveryExecutorBenchmark {
+
+    private static final int SENDS = 10_000;
+    private static final long SEND_MILLIS = 200;
+
+    @Test
+    void platformPool256() throws InterruptedException {
+        report("platform, 256 threads", run(new ChannelWorkerPool(NotificationChannel.WEBHOOK, 256, SENDS)));
+    }
+
+    @Test
+    void platformPool2048() throws InterruptedException {
+        report("platform, 2048 threads", run(new ChannelWorkerPool(NotificationChannel.WEBHOOK, 2048, SENDS)));
+    }
+
+    @Test
+    void virtualThreads10k() throws InterruptedException {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21");
+        report("virtual, 10k cap", run(DeliveryExecutors.virtual(NotificationChannel.WEBHOOK, SENDS)));
+    }
+
+    private Result run(DeliveryExecutor executor) throws InterruptedException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        long nonHeapBefore = memory.getNonHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peakInFlight = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(SENDS);
+        long peakHeap = heapBefore;
+
+        long start = System.nanoTime();
+        int submitted = 0;
+        while (submitted < SENDS) {
+            int slots = executor.reserve(SENDS - submitted, 1, TimeUnit.SECONDS);
+            for (int i = 0; i < slots; i++) {
+                executor.submit(() -> {
+                    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(SEND_MILLIS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        inFlight.decrementAndGet();
+                        done.countDown();
+                    }
+                });
+            }
+            submitted += slots;
+        }
+
+        while (!done.await(50, TimeUnit.MILLISECONDS)) {
+            peakHeap = Math.max(peakHeap, memory.getHeapMemoryUsage().getUsed());
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(executor.drain(10, TimeUnit.SECONDS));
+
+        return new Result(elapsedMs, peakInFlight.get(), threads.getPeakThreadCount(),
+            peakHeap - heapBefore, memory.getNonHeapMemoryUsage().getUsed() - nonHeapBefore);
+    }
+
+    private static void report(String name, Result result) {
+        System.out.printf("%-24s %6d ms  peak in-flight %5d  peak platform threads %5d  heap +%4d MB  non-heap +%3d MB%n",
+            name, result.elapsedMs, result.peakInFlight, result.peakThreads,
+            result.heapGrowth >> 20, result.nonHeapGrowth >> 20);
+    }
+
+    private static class Result {
+        final long elapsedMs;
+        final int peakInFlight;
+        final int peakThreads;
+        final long heapGrowth;
+        final long nonHeapGrowth;
+
+        Result(long elapsedMs, int peakInFlight, int peakThreads, long heapGrowth, long nonHeapGrowth) {
+            this.elapsedMs = elapsedMs;
+            this.peakInFlight = peakInFlight;
+            this.peakThreads = peakThreads;
+            this.heapGrowth = heapGrowth;
+            this.nonHeapGrowth = nonHeapGrowth;
+        }
+    }
+}
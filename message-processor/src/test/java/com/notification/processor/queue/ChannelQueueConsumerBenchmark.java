@@ -0,0 +1,109 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.LocalRedis;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import com.notification.processor.config.ProcessorConfiguration.PopMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("benchmark")
+class ChannelQueueConsumerBenchmark {
+
+    private static final NotificationChannel CHANNEL = NotificationChannel.EMAIL;
+    private static final int MESSAGES = 50_000;
+
+    private JedisPool jedisPool;
+
+    @BeforeEach
+    void setUp() {
+        jedisPool = LocalRedis.connectOrSkip();
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(QueueKeys.listKey(CHANNEL, NotificationPriority.MEDIUM));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jedisPool != null) {
+            jedisPool.close();
+        }
+    }
+
+    @Test
+    void compareSingleRpopWithBatchedPops() {
+        long legacy = drainWithSingleRpop();
+        long brpop = drainWithConsumer(PopMode.BRPOP, 100);
+        long blmpop = drainWithConsumer(PopMode.BLMPOP, 100);
+
+        System.out.printf("RPOP x1 loop:        %,d msg/s%n", legacy);
+        System.out.printf("BRPOP + RPOP count:  %,d msg/s%n", brpop);
+        System.out.printf("BLMPOP count:        %,d msg/s%n", blmpop);
+    }
+
+    // The loop NotificationProcessor used before: one round trip per id, checking out a connection each time
+    private long drainWithSingleRpop() {
+        fill();
+        String queueKey = QueueKeys.listKey(CHANNEL, NotificationPriority.MEDIUM);
+        int drained = 0;
+        long start = System.nanoTime();
+        while (true) {
+            try (Jedis jedis = jedisPool.getResource()) {
+                if (jedis.rpop(queueKey) == null) {
+                    break;
+                }
+                drained++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(MESSAGES, drained);
+        return throughput(drained, elapsed);
+    }
+
+    private long drainWithConsumer(PopMode popMode, int batchSize) {
+        fill();
+        ChannelConfig config = new ChannelConfig();
+        config.setPopMode(popMode);
+        config.setBatchSize(batchSize);
+        config.setBlockTimeoutSeconds(1);
+        ChannelQueueConsumer consumer = new ChannelQueueConsumer(CHANNEL, config, jedisPool,
+            new PrioritySelector(Collections.emptyMap(), 5000));
+
+        int drained = 0;
+        long start = System.nanoTime();
+        while (drained < MESSAGES) {
+            List<QueuedNotification> batch = consumer.poll(batchSize);
+            drained += batch.size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(MESSAGES, drained);
+        return throughput(drained, elapsed);
+    }
+
+    private void fill() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            String queueKey = QueueKeys.listKey(CHANNEL, NotificationPriority.MEDIUM);
+            for (int i = 0; i < MESSAGES; i++) {
+                pipeline.lpush(queueKey, "notification-" + i);
+            }
+            pipeline.sync();
+        }
+    }
+
+    private static long throughput(int messages, long elapsedNanos) {
+        return messages * 1_000_000_000L / Math.max(elapsedNanos, 1);
+    }
+}
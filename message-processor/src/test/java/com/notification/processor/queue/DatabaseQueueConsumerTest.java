@@ -0,0 +1,109 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.model.NotificationMessage;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.QueueConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabaseQueueConsumerTest {
+
+    @Mock
+    private ProcessorNotificationDAO notificationDAO;
+
+    @Mock
+    private PrioritySelector prioritySelector;
+
+    @Mock
+    private NotificationCacheInvalidator cacheInvalidator;
+
+    @Test
+    void poll_ClaimsFromTheFirstSegmentWithPendingRows() {
+        when(prioritySelector.nextOrder()).thenReturn(List.of(NotificationPriority.HIGH, NotificationPriority.LOW));
+        when(notificationDAO.claimPending(eq(NotificationChannel.SMS), eq(NotificationPriority.HIGH), eq(10), any()))
+            .thenReturn(Collections.emptyList());
+        when(notificationDAO.claimPending(eq(NotificationChannel.SMS), eq(NotificationPriority.LOW), eq(10), any()))
+            .thenReturn(List.of(row("n1", 1000L), row("n2", 2000L)));
+        DatabaseQueueConsumer consumer = new DatabaseQueueConsumer(NotificationChannel.SMS, queueConfig(),
+            notificationDAO, prioritySelector, cacheInvalidator);
+
+        List<QueuedNotification> batch = consumer.poll(10);
+
+        assertEquals(2, batch.size());
+        assertEquals("n1", batch.get(0).getNotificationId());
+        assertEquals(new Date(1000L), batch.get(0).getCreatedAt());
+        assertEquals(NotificationPriority.LOW, batch.get(0).getPriority());
+        verify(prioritySelector).served(NotificationPriority.LOW);
+        verify(cacheInvalidator).invalidate(List.of("n1", "n2"));
+    }
+
+    @Test
+    void poll_ReleasesStaleClaimsOncePerInterval() {
+        when(prioritySelector.nextOrder()).thenReturn(List.of(NotificationPriority.MEDIUM));
+        when(notificationDAO.claimPending(any(), any(), eq(5), any())).thenReturn(Collections.emptyList());
+        DatabaseQueueConsumer consumer = new DatabaseQueueConsumer(NotificationChannel.EMAIL, queueConfig(),
+            notificationDAO, prioritySelector, cacheInvalidator);
+
+        assertTrue(consumer.poll(5).isEmpty());
+        assertTrue(consumer.poll(5).isEmpty());
+
+        verify(notificationDAO, times(1)).releaseStaleClaims(eq(NotificationChannel.EMAIL), any(), any());
+        verify(prioritySelector, times(2)).idle();
+        verify(prioritySelector, never()).served(any());
+    }
+
+    @Test
+    void renewClaims_RefreshesHeldRowsUntilTheyAreAcked() {
+        when(prioritySelector.nextOrder()).thenReturn(List.of(NotificationPriority.HIGH));
+        when(notificationDAO.claimPending(eq(NotificationChannel.SMS), eq(NotificationPriority.HIGH), eq(10), any()))
+            .thenReturn(List.of(row("n1", 1000L), row("n2", 2000L)));
+        when(notificationDAO.renewClaims(any(), any(), any())).thenReturn(2, 1);
+        DatabaseQueueConsumer consumer = new DatabaseQueueConsumer(NotificationChannel.SMS, queueConfig(),
+            notificationDAO, prioritySelector, cacheInvalidator);
+        List<QueuedNotification> batch = consumer.poll(10);
+
+        assertEquals(2, consumer.renewClaims());
+        verify(notificationDAO).renewClaims(eq(List.of("n1", "n2")), eq(List.of(new Date(1000L), new Date(2000L))), any());
+
+        consumer.ack(batch.get(0));
+        assertEquals(1, consumer.renewClaims());
+        verify(notificationDAO).renewClaims(eq(List.of("n2")), eq(List.of(new Date(2000L))), any());
+
+        consumer.ack(batch.get(1));
+        assertEquals(0, consumer.renewClaims());
+        verify(notificationDAO, times(2)).renewClaims(any(), any(), any());
+    }
+
+    private static NotificationMessage row(String id, long createdAtMillis) {
+        NotificationMessage row = new NotificationMessage();
+        row.setId(id);
+        row.setCreatedAt(new Date(createdAtMillis));
+        return row;
+    }
+
+    private static QueueConfig queueConfig() {
+        QueueConfig config = new QueueConfig();
+        config.setReaperIntervalMs(60000);
+        config.setIdleRecheckMs(1);
+        return config;
+    }
+}
@@ -0,0 +1,61 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationPriority;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class PrioritySelectorTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+
+    @Test
+    void nextOrder_SharesPollsByWeight_WhenAllSegmentsAreBacklogged() {
+        PrioritySelector selector = new PrioritySelector(weights(8, 4, 2, 1), 60_000, clock::get);
+        Map<NotificationPriority, Integer> served = new EnumMap<>(NotificationPriority.class);
+
+        for (int i = 0; i < 150; i++) {
+            NotificationPriority first = selector.nextOrder().get(0);
+            selector.served(first);
+            served.merge(first, 1, Integer::sum);
+        }
+
+        assertEquals(80, served.get(NotificationPriority.URGENT));
+        assertEquals(40, served.get(NotificationPriority.HIGH));
+        assertEquals(20, served.get(NotificationPriority.MEDIUM));
+        assertEquals(10, served.get(NotificationPriority.LOW));
+    }
+
+    @Test
+    void nextOrder_PutsStarvedSegmentFirst() {
+        // LOW has no weight at all, only the starvation guard lets it through
+        PrioritySelector selector = new PrioritySelector(weights(8, 4, 2, 0), 1000, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(50);
+            NotificationPriority first = selector.nextOrder().get(0);
+            assertNotEquals(NotificationPriority.LOW, first);
+            selector.served(first);
+        }
+        clock.addAndGet(1000);
+        selector.served(NotificationPriority.URGENT);
+        selector.served(NotificationPriority.HIGH);
+        selector.served(NotificationPriority.MEDIUM);
+
+        assertEquals(NotificationPriority.LOW, selector.nextOrder().get(0));
+    }
+
+    private static Map<NotificationPriority, Integer> weights(int urgent, int high, int medium, int low) {
+        Map<NotificationPriority, Integer> weights = new EnumMap<>(NotificationPriority.class);
+        weights.put(NotificationPriority.URGENT, urgent);
+        weights.put(NotificationPriority.HIGH, high);
+        weights.put(NotificationPriority.MEDIUM, medium);
+        weights.put(NotificationPriority.LOW, low);
+        return weights;
+    }
+}
@@ -0,0 +1,138 @@
+package com.notification.processor.queue;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.LocalRedis;
+import com.notification.processor.config.ProcessorConfiguration.ChannelConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReliableQueueConsumerTest {
+
+    private static final NotificationChannel CHANNEL = NotificationChannel.SMS;
+    private static final String WORKER_ID = "test-worker";
+
+    private JedisPool jedisPool;
+    private ReliableQueueConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        jedisPool = LocalRedis.connectOrSkip();
+        try (Jedis jedis = jedisPool.getResource()) {
+            for (NotificationPriority priority : NotificationPriority.values()) {
+                jedis.del(QueueKeys.listKey(CHANNEL, priority));
+            }
+            jedis.del(
+                ReliableQueueConsumer.processingKey(CHANNEL, WORKER_ID),
+                ReliableQueueConsumer.claimsKey(CHANNEL, WORKER_ID),
+                ReliableQueueConsumer.workersKey(CHANNEL),
+                ReliableQueueConsumer.heartbeatsKey(CHANNEL));
+            jedis.lpush(QueueKeys.listKey(CHANNEL, NotificationPriority.MEDIUM), "n1", "n2", "n3");
+        }
+
+        ChannelConfig config = new ChannelConfig();
+        config.setBlockTimeoutSeconds(1);
+        consumer = new ReliableQueueConsumer(CHANNEL, config, jedisPool,
+            new PrioritySelector(Collections.emptyMap(), 5000), WORKER_ID, 100, 60000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jedisPool != null) {
+            jedisPool.close();
+        }
+    }
+
+    @Test
+    void poll_MovesIdsToProcessingList_UntilAcked() {
+        List<QueuedNotification> batch = consumer.poll(2);
+
+        assertEquals(List.of("n1", "n2"), ids(batch));
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(2, jedis.llen(ReliableQueueConsumer.processingKey(CHANNEL, WORKER_ID)));
+            assertEquals(1, jedis.llen(QueueKeys.listKey(CHANNEL, NotificationPriority.MEDIUM)));
+        }
+
+        batch.forEach(consumer::ack);
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(0, jedis.llen(ReliableQueueConsumer.processingKey(CHANNEL, WORKER_ID)));
+            assertTrue(jedis.hgetAll(ReliableQueueConsumer.claimsKey(CHANNEL, WORKER_ID)).isEmpty());
+        }
+    }
+
+    @Test
+    void reaper_RequeuesExpiredClaims_AheadOfWaitingIds() {
+        List<QueuedNotification> batch = consumer.poll(2);
+        consumer.ack(batch.get(0));
+
+        int requeued = new ReliableQueueReaper(jedisPool, 0).reap(CHANNEL);
+
+        assertEquals(1, requeued);
+        assertEquals(List.of("n2", "n3"), ids(consumer.poll(2)));
+    }
+
+    @Test
+    void renewClaims_KeepsHeldEntriesFromTheReaper() {
+        List<QueuedNotification> batch = consumer.poll(2);
+        consumer.ack(batch.get(0));
+        try (Jedis jedis = jedisPool.getResource()) {
+            // As if n2 had waited for a worker since long before the visibility timeout
+            jedis.hset(ReliableQueueConsumer.claimsKey(CHANNEL, WORKER_ID), "n2",
+                ReliableQueueConsumer.claimValue(0, NotificationPriority.MEDIUM));
+        }
+
+        assertEquals(1, consumer.renewClaims());
+
+        assertEquals(0, new ReliableQueueReaper(jedisPool, 60000).reap(CHANNEL));
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(List.of("n2"), jedis.lrange(ReliableQueueConsumer.processingKey(CHANNEL, WORKER_ID), 0, -1));
+        }
+    }
+
+    @Test
+    void reaper_DeregistersOnlyWorkersWithoutARecentHeartbeat() {
+        consumer.poll(3).forEach(consumer::ack);
+        String workersKey = ReliableQueueConsumer.workersKey(CHANNEL);
+
+        new ReliableQueueReaper(jedisPool, 60000).reap(CHANNEL);
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertTrue(jedis.sismember(workersKey, WORKER_ID));
+            // As if the worker had not polled since long before the visibility timeout
+            jedis.hset(ReliableQueueConsumer.heartbeatsKey(CHANNEL), WORKER_ID, "0");
+        }
+
+        new ReliableQueueReaper(jedisPool, 60000).reap(CHANNEL);
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertFalse(jedis.sismember(workersKey, WORKER_ID));
+        }
+    }
+
+    @Test
+    void poll_DrainsUrgentSegmentFirst() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.lpush(QueueKeys.listKey(CHANNEL, NotificationPriority.URGENT), "u1");
+        }
+
+        List<QueuedNotification> batch = consumer.poll(2);
+
+        assertEquals(List.of("u1"), ids(batch));
+        assertEquals(NotificationPriority.URGENT, batch.get(0).getPriority());
+    }
+
+    private static List<String> ids(List<QueuedNotification> batch) {
+        return batch.stream().map(QueuedNotification::getNotificationId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.notification.processor.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void slowDeliveriesShrinkTheLimitDownToTheFloor() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 10, 100, 0.5);
+        assertEquals(10, limit.acquire(10, 0, TimeUnit.MILLISECONDS));
+
+        limit.onComplete(500, true);
+        assertEquals(5, limit.getLimit());
+        limit.onComplete(500, true);
+        limit.onComplete(500, true);
+        limit.onComplete(0, false);
+
+        assertEquals(2, limit.getLimit());
+        assertEquals(6, limit.getInFlight());
+        assertEquals(0, limit.acquire(1, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void fastDeliveriesGrowTheLimitBackTowardsTheCeiling() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 8, 100, 0.5);
+        limit.acquire(8, 0, TimeUnit.MILLISECONDS);
+        limit.onComplete(500, true);
+        limit.release(7);
+        assertEquals(4, limit.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            int granted = limit.acquire(limit.getLimit(), 0, TimeUnit.MILLISECONDS);
+            for (int j = 0; j < granted; j++) {
+                limit.onComplete(10, true);
+            }
+        }
+
+        assertEquals(8, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void acquireWaitsForACompletion() throws InterruptedException {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 1, 100, 0.5);
+        assertEquals(1, limit.acquire(1, 0, TimeUnit.MILLISECONDS));
+
+        Thread completer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            limit.onComplete(10, true);
+        });
+        completer.start();
+
+        assertEquals(1, limit.acquire(1, 5, TimeUnit.SECONDS));
+        completer.join();
+    }
+}
@@ -0,0 +1,88 @@
+package com.notification.processor.resilience;
+
+import com.notification.processor.config.ProcessorConfiguration.ResilienceConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceConfig config = new ResilienceConfig();
+        config.setWindowSize(10);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(0.5);
+        config.setOpenDurationMs(1000);
+        config.setHalfOpenProbes(2);
+        breaker = new CircuitBreaker(config, now::get);
+    }
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(0, breaker.tryAcquire(10));
+        assertEquals(1000, breaker.remainingOpenMs());
+    }
+
+    @Test
+    void halfOpenProbesCloseTheBreakerWhenTheySucceed() {
+        tripBreaker();
+        now.addAndGet(1000);
+
+        assertEquals(2, breaker.tryAcquire(10));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(10, breaker.tryAcquire(10));
+    }
+
+    @Test
+    void failedProbeReopensTheBreaker() {
+        tripBreaker();
+        now.addAndGet(1000);
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1000, breaker.remainingOpenMs());
+    }
+
+    @Test
+    void unusedProbesCanBeHandedBack() {
+        tripBreaker();
+        now.addAndGet(1000);
+        assertEquals(2, breaker.tryAcquire(2));
+
+        breaker.release(1);
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+}
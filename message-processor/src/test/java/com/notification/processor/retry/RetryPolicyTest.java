@@ -0,0 +1,40 @@
+package com.notification.processor.retry;
+
+import com.notification.processor.config.ProcessorConfiguration.RetryConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RetryPolicyTest {
+
+    private final RetryConfig config = new RetryConfig();
+
+    @Test
+    void delayMs_GrowsExponentiallyUpToMaxDelay() {
+        RetryPolicy upperBound = new RetryPolicy(config, () -> 1.0);
+
+        assertEquals(1000, upperBound.delayMs(1));
+        assertEquals(2000, upperBound.delayMs(2));
+        assertEquals(4000, upperBound.delayMs(3));
+        assertEquals(30000, upperBound.delayMs(10));
+    }
+
+    @Test
+    void delayMs_JitterNeverGoesBelowHalfTheBackoff() {
+        RetryPolicy lowerBound = new RetryPolicy(config, () -> 0.0);
+
+        assertEquals(500, lowerBound.delayMs(1));
+        assertEquals(15000, lowerBound.delayMs(10));
+    }
+
+    @Test
+    void shouldRetry_StopsAfterMaxRetries() {
+        RetryPolicy policy = new RetryPolicy(config);
+
+        assertTrue(policy.shouldRetry(1));
+        assertTrue(policy.shouldRetry(3));
+        assertFalse(policy.shouldRetry(4));
+    }
+}
@@ -0,0 +1,103 @@
+package com.notification.processor.scheduler;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.QueueKeys;
+import com.notification.processor.LocalRedis;
+import com.notification.processor.config.ProcessorConfiguration.QueueTransportType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DelayQueueTest {
+
+    private static final String KEY = "test_delay_queue";
+
+    private JedisPool jedisPool;
+
+    @BeforeEach
+    void setUp() {
+        jedisPool = LocalRedis.connectOrSkip();
+        try (Jedis jedis = jedisPool.getResource()) {
+            jedis.del(KEY,
+                QueueKeys.listKey(NotificationChannel.SMS, NotificationPriority.HIGH),
+                QueueKeys.listKey(NotificationChannel.EMAIL, NotificationPriority.LOW),
+                QueueKeys.streamKey(NotificationChannel.PUSH, NotificationPriority.URGENT));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (jedisPool != null) {
+            jedisPool.close();
+        }
+    }
+
+    @Test
+    void promoteDue_MovesOnlyDueEntriesToTheirQueues() {
+        DelayQueue delayQueue = new DelayQueue(jedisPool, KEY, QueueTransportType.RELIABLE_LIST);
+        delayQueue.schedule(NotificationChannel.SMS, NotificationPriority.HIGH, "n1", 1000);
+        delayQueue.schedule(NotificationChannel.EMAIL, NotificationPriority.LOW, "n2", 2000);
+        delayQueue.schedule(NotificationChannel.SMS, NotificationPriority.HIGH, "n3", 5000);
+
+        List<String> due = new ArrayList<>();
+
+        assertEquals(2, delayQueue.promoteDue(2000, 10, due::addAll));
+
+        assertEquals(List.of("n1", "n2"), due);
+        assertEquals(1, delayQueue.size());
+        assertEquals(5000, delayQueue.nextDueMillis());
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(List.of("n1"), jedis.lrange(QueueKeys.listKey(NotificationChannel.SMS, NotificationPriority.HIGH), 0, -1));
+            assertEquals(List.of("n2"), jedis.lrange(QueueKeys.listKey(NotificationChannel.EMAIL, NotificationPriority.LOW), 0, -1));
+        }
+    }
+
+    @Test
+    void promoteDue_HonoursLimitAndStreamTransport() {
+        DelayQueue delayQueue = new DelayQueue(jedisPool, KEY, QueueTransportType.STREAM);
+        for (int i = 0; i < 5; i++) {
+            delayQueue.schedule(NotificationChannel.PUSH, NotificationPriority.URGENT, "n" + i, i);
+        }
+
+        assertEquals(3, delayQueue.promoteDue(10, 3, entries -> { }));
+        assertEquals(2, delayQueue.promoteDue(10, 3, entries -> { }));
+        assertEquals(-1, delayQueue.nextDueMillis());
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(5, jedis.xlen(QueueKeys.streamKey(NotificationChannel.PUSH, NotificationPriority.URGENT)));
+        }
+    }
+
+    @Test
+    void promoteDue_PushesOnlyAfterTheCallbackSucceeds() {
+        DelayQueue delayQueue = new DelayQueue(jedisPool, KEY, QueueTransportType.RELIABLE_LIST);
+        delayQueue.schedule(NotificationChannel.SMS, NotificationPriority.HIGH, "n1", 1000);
+        String smsHigh = QueueKeys.listKey(NotificationChannel.SMS, NotificationPriority.HIGH);
+
+        assertThrows(IllegalStateException.class, () -> delayQueue.promoteDue(2000, 10, entries -> {
+            try (Jedis jedis = jedisPool.getResource()) {
+                assertEquals(0, jedis.llen(smsHigh));
+            }
+            throw new IllegalStateException("db down");
+        }));
+
+        assertEquals(1, delayQueue.size());
+        assertEquals(1, delayQueue.promoteDue(2000, 10, entries -> { }));
+        try (Jedis jedis = jedisPool.getResource()) {
+            assertEquals(List.of("n1"), jedis.lrange(smsHigh, 0, -1));
+        }
+    }
+
+    @Test
+    void queueEntry_StripsQueueSuffix() {
+        assertEquals("abc:def", DelayQueue.queueEntry("sms:high:abc:def"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.notification.processor.status;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.UniformReservoir;
+import com.notification.processor.cache.NotificationCacheInvalidator;
+import com.notification.processor.config.ProcessorConfiguration.StatusWriteConfig;
+import com.notification.processor.db.ProcessorNotificationDAO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StatusWriteBehindTest {
+
+    @Mock
+    private ProcessorNotificationDAO notificationDAO;
+
+    @Mock
+    private NotificationCacheInvalidator cacheInvalidator;
+
+    private StatusWriteBehind writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void markSent_CoalescesOutcomesIntoFewBatches() throws Exception {
+        writer = new StatusWriteBehind(notificationDAO, cacheInvalidator, config(StatusWriteBehind.Durability.SYNC, 100),
+            new Histogram(new UniformReservoir()));
+        writer.start();
+
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            sends.add(writer.markSent("n" + i, new Date(), new Date()));
+        }
+        CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+
+        ArgumentCaptor<List<String>> ids = ArgumentCaptor.forClass(List.class);
+        verify(notificationDAO, atLeastOnce()).markSentAll(ids.capture(), anyList(), anyList());
+        assertEquals(40, ids.getAllValues().stream().mapToInt(List::size).sum());
+        verify(cacheInvalidator, atLeastOnce()).invalidate(anyList());
+        // Nobody waits on a commit, so outcomes handed over within the flush interval share it
+        assertTrue(ids.getAllValues().size() < 40);
+    }
+
+    @Test
+    void markSent_SyncReportsAFailedFlushToTheCaller() throws InterruptedException {
+        when(notificationDAO.markSentAll(anyList(), anyList(), anyList())).thenThrow(new RuntimeException("db down"));
+        writer = new StatusWriteBehind(notificationDAO, cacheInvalidator, config(StatusWriteBehind.Durability.SYNC, 10),
+            new Histogram(new UniformReservoir()));
+        writer.start();
+
+        CompletableFuture<Void> sent = writer.markSent("n1", new Date(), new Date());
+
+        assertThrows(CompletionException.class, sent::join);
+    }
+
+    private static StatusWriteConfig config(StatusWriteBehind.Durability durability, int maxBatchSize) {
+        StatusWriteConfig config = new StatusWriteConfig();
+        config.setDurability(durability);
+        config.setMaxBatchSize(maxBatchSize);
+        config.setFlushIntervalMs(20);
+        return config;
+    }
+}
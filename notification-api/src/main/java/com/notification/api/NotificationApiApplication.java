@@ -8,7 +8,20 @@ import com.notification.api.resources.BatchResource;
 import com.notification.api.auth.JwtAuthFilter;
 import com.notification.api.auth.ApiKeyAuthFilter;
 import com.notification.api.auth.NotificationPrincipal;
+import com.notification.api.cache.NotificationCache;
 import com.notification.api.db.NotificationDAO;
+import com.notification.api.outbox.OutboxDAO;
+import com.notification.api.outbox.OutboxRelay;
+import com.notification.api.queue.DatabaseNotificationQueue;
+import com.notification.api.queue.NotificationQueue;
+import com.notification.api.queue.RedisListNotificationQueue;
+import com.notification.api.queue.RedisStreamNotificationQueue;
+import com.notification.api.retention.NotificationArchiver;
+import com.notification.api.retention.PartitionMaintenance;
+import com.notification.api.stats.CounterDAO;
+import com.notification.api.stats.CounterRollup;
+import com.notification.api.stats.StatsCache;
+import com.codahale.metrics.Gauge;
 import io.dropwizard.Application;
 import io.dropwizard.auth.AuthDynamicFeature;
 import io.dropwizard.auth.AuthValueFactoryProvider;
@@ -56,6 +69,31 @@ public class NotificationApiApplication extends Application<NotificationApiConfi
             configuration.getRedisConfig().getPassword());
         
         final NotificationDAO notificationDAO = jdbi.onDemand(NotificationDAO.class);
+        final NotificationQueue notificationQueue = createQueue(configuration.getQueueConfig(), jedisPool);
+        
+        // Resources only write to Postgres; the relay moves outbox rows to Redis
+        final NotificationApiConfiguration.OutboxConfig outboxConfig = configuration.getOutboxConfig();
+        environment.lifecycle().manage(new OutboxRelay(jdbi, notificationQueue,
+            outboxConfig.getBatchSize(), outboxConfig.getPollIntervalMs()));
+        final OutboxDAO outboxDAO = jdbi.onDemand(OutboxDAO.class);
+        environment.metrics().register("outbox.pending", (Gauge<Long>) outboxDAO::countPending);
+        
+        // Stats read counters kept up to date from the trigger's deltas
+        final NotificationApiConfiguration.CountersConfig countersConfig = configuration.getCountersConfig();
+        environment.lifecycle().manage(new CounterRollup(jdbi, countersConfig.getRollupBatchSize(),
+            countersConfig.getRollupIntervalMs(), countersConfig.getReconcileIntervalMs()));
+        final CounterDAO counterDAO = jdbi.onDemand(CounterDAO.class);
+        environment.metrics().register("counters.pendingDeltas", (Gauge<Long>) counterDAO::countPendingDeltas);
+        
+        // New partitions ahead of time, whole old partitions out for retention
+        final boolean archiving = configuration.getArchiveConfig().isEnabled();
+        environment.lifecycle().manage(new PartitionMaintenance(jdbi, configuration.getPartitionConfig(), archiving));
+        
+        // Audit copy of old SENT, FAILED and CANCELLED notifications on disk, then the rows are deleted
+        if (archiving) {
+            environment.lifecycle().manage(new NotificationArchiver(jdbi, environment.getObjectMapper(),
+                configuration.getArchiveConfig()));
+        }
         
         // Setup authentication chain using deprecated patterns
         final ContainerRequestFilter jwtFilter = new JwtAuthFilter.Builder<NotificationPrincipal>()
@@ -74,9 +112,27 @@ public class NotificationApiApplication extends Application<NotificationApiConfi
         environment.jersey().register(new AuthDynamicFeature(chainedAuthFilter));
         environment.jersey().register(new AuthValueFactoryProvider.Binder<NotificationPrincipal>(NotificationPrincipal.class));
         
+        final NotificationApiConfiguration.StatsConfig statsConfig = configuration.getStatsConfig();
+        final StatsCache statsCache = new StatsCache(counterDAO,
+            statsConfig.getTtlMs(), statsConfig.getMaxEntries());
+        environment.metrics().register("stats.cache.hits", (Gauge<Long>) statsCache::getHits);
+        environment.metrics().register("stats.cache.misses", (Gauge<Long>) statsCache::getMisses);
+        
+        final NotificationApiConfiguration.NotificationCacheConfig cacheConfig = configuration.getNotificationCacheConfig();
+        final NotificationCache notificationCache = new NotificationCache(notificationDAO, jedisPool,
+            environment.getObjectMapper(), cacheConfig.getLocalMaxEntries(), cacheConfig.getLocalTtlMs(),
+            cacheConfig.getActiveTtlSeconds(), cacheConfig.getTerminalTtlSeconds(),
+            environment.metrics().timer("notifications.cache.lookups"));
+        environment.metrics().register("notifications.cache.local.hitRate", (Gauge<Double>) notificationCache::getLocalHitRate);
+        environment.metrics().register("notifications.cache.local.size", (Gauge<Long>) notificationCache::getLocalSize);
+        environment.metrics().register("notifications.cache.redis.hits", (Gauge<Long>) notificationCache::getRedisHits);
+        environment.metrics().register("notifications.cache.redis.misses", (Gauge<Long>) notificationCache::getRedisMisses);
+        
         // Register resources
-        environment.jersey().register(new NotificationResource(notificationDAO, jedisPool));
-        environment.jersey().register(new BatchResource(notificationDAO, jedisPool));
+        environment.jersey().register(new NotificationResource(notificationDAO, statsCache, notificationCache));
+        environment.jersey().register(new BatchResource(notificationDAO,
+            configuration.getBatchConfig().getChunkSize(), configuration.getBatchConfig().getMaxLineChars(),
+            environment.getObjectMapper(), environment.getValidator(), statsCache));
         
         // Register health checks
         environment.healthChecks().register("database", new DatabaseHealthCheck(jdbi));
@@ -87,4 +143,16 @@ public class NotificationApiApplication extends Application<NotificationApiConfi
             jedisPool.close();
         }));
     }
+    
+    private NotificationQueue createQueue(NotificationApiConfiguration.QueueConfig queueConfig, JedisPool jedisPool) {
+        switch (queueConfig.getTransport()) {
+            case STREAM:
+                return new RedisStreamNotificationQueue(jedisPool);
+            case DATABASE:
+                return new DatabaseNotificationQueue(jedisPool);
+            case LIST:
+            default:
+                return new RedisListNotificationQueue(jedisPool);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.notification.api.batch;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotNull;
+import java.util.Map;
+
+public class CampaignRecipient {
+
+    @JsonProperty
+    @NotNull
+    private String recipientId;
+
+    @JsonProperty
+    @Email
+    private String recipientEmail;
+
+    @JsonProperty
+    private String recipientPhone;
+
+    @JsonProperty
+    private String recipientSlackChannel;
+
+    // Values for the campaign's {{placeholders}}
+    @JsonProperty
+    private Map<String, String> data;
+
+    public String getRecipientId() { return recipientId; }
+    public void setRecipientId(String recipientId) { this.recipientId = recipientId; }
+
+    public String getRecipientEmail() { return recipientEmail; }
+    public void setRecipientEmail(String recipientEmail) { this.recipientEmail = recipientEmail; }
+
+    public String getRecipientPhone() { return recipientPhone; }
+    public void setRecipientPhone(String recipientPhone) { this.recipientPhone = recipientPhone; }
+
+    public String getRecipientSlackChannel() { return recipientSlackChannel; }
+    public void setRecipientSlackChannel(String recipientSlackChannel) { this.recipientSlackChannel = recipientSlackChannel; }
+
+    public Map<String, String> getData() { return data; }
+    public void setData(Map<String, String> data) { this.data = data; }
+}
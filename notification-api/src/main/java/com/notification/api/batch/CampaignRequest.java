@@ -0,0 +1,87 @@
+package com.notification.api.batch;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One title/message, optionally with {{placeholders}}, sent to many recipients. The content
+ * is stored once; each recipient row only carries its address and placeholder values.
+ */
+public class CampaignRequest {
+
+    @JsonProperty
+    @NotNull
+    @Size(min = 1, max = 255)
+    private String title;
+
+    @JsonProperty
+    @NotNull
+    @Size(min = 1, max = 5000)
+    private String message;
+
+    @JsonProperty
+    @NotNull
+    private NotificationChannel channel;
+
+    @JsonProperty
+    private NotificationPriority priority = NotificationPriority.MEDIUM;
+
+    @JsonProperty
+    private Date scheduledTime;
+
+    @JsonProperty
+    private String templateId;
+
+    @JsonProperty
+    @NotEmpty
+    @Valid
+    private List<CampaignRecipient> recipients;
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public NotificationChannel getChannel() { return channel; }
+    public void setChannel(NotificationChannel channel) { this.channel = channel; }
+
+    public NotificationPriority getPriority() { return priority; }
+    public void setPriority(NotificationPriority priority) { this.priority = priority; }
+
+    public Date getScheduledTime() { return scheduledTime; }
+    public void setScheduledTime(Date scheduledTime) { this.scheduledTime = scheduledTime; }
+
+    public String getTemplateId() { return templateId; }
+    public void setTemplateId(String templateId) { this.templateId = templateId; }
+
+    public List<CampaignRecipient> getRecipients() { return recipients; }
+    public void setRecipients(List<CampaignRecipient> recipients) { this.recipients = recipients; }
+
+    // SHA-256 over the length-prefixed title and the message, so no two distinct pairs collide by concatenation
+    public String contentHash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((title.length() + ":" + title).getBytes(StandardCharsets.UTF_8));
+            digest.update(message.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
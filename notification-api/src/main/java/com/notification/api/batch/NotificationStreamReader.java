@@ -0,0 +1,201 @@
+package com.notification.api.batch;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.notification.common.model.NotificationMessage;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads notifications one at a time from NDJSON or a JSON array, so an upload is
+ * never held in memory as a whole. Invalid records are counted and skipped; only
+ * the first few error messages are kept. NDJSON is read line by line, so a malformed
+ * line is rejected on its own with its line number, and a line longer than maxLineChars is
+ * skipped without being buffered. A JSON array cannot be resumed after a syntax error, which
+ * readChunk reports as a JsonProcessingException.
+ */
+public class NotificationStreamReader implements Closeable {
+
+    private static final int MAX_ERRORS = 100;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final BufferedReader in;
+    private final int maxLineChars;
+    private final List<String> errors = new ArrayList<>();
+    // NDJSON input is scanned through this buffer; a line never grows past maxLineChars
+    private final char[] buffer = new char[8192];
+    private final StringBuilder line = new StringBuilder();
+    private int bufferPos = 0;
+    private int bufferEnd = 0;
+
+    // Set once the input turns out to be a JSON array
+    private JsonParser arrayParser;
+    private boolean started = false;
+    private boolean finished = false;
+    private int lineNumber = 0;
+    private long recordIndex = 0;
+    private long rejected = 0;
+
+    public NotificationStreamReader(ObjectMapper objectMapper, Validator validator, InputStream in,
+                                    int maxLineChars) throws IOException {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        this.maxLineChars = maxLineChars;
+    }
+
+    /**
+     * Appends up to max valid notifications to chunk. Leaves chunk empty once the input is exhausted.
+     */
+    public void readChunk(List<NotificationMessage> chunk, int max) throws IOException {
+        if (!started) {
+            start();
+        }
+        while (chunk.size() < max && !finished) {
+            if (arrayParser != null) {
+                readArrayElement(chunk);
+            } else {
+                readLine(chunk);
+            }
+        }
+    }
+
+    // A top-level array is read element by element, anything else as newline-delimited root values
+    private void start() throws IOException {
+        started = true;
+        int c;
+        while (true) {
+            in.mark(1);
+            c = in.read();
+            if (c == '\n') {
+                lineNumber++;
+            } else if (c < 0 || !Character.isWhitespace(c)) {
+                break;
+            }
+        }
+        if (c < 0) {
+            finished = true;
+            return;
+        }
+        in.reset();
+        if (c == '[') {
+            arrayParser = objectMapper.getFactory().createParser(in);
+            arrayParser.nextToken();
+        }
+    }
+
+    private void readArrayElement(List<NotificationMessage> chunk) throws IOException {
+        JsonToken token = arrayParser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            finished = true;
+            return;
+        }
+        long index = recordIndex++;
+        NotificationMessage notification = objectMapper.readValue(arrayParser, NotificationMessage.class);
+        validate(notification, "record " + index, chunk);
+    }
+
+    private void readLine(List<NotificationMessage> chunk) throws IOException {
+        int c = read();
+        if (c < 0) {
+            finished = true;
+            return;
+        }
+        line.setLength(0);
+        boolean oversized = false;
+        while (c >= 0 && c != '\n') {
+            if (line.length() < maxLineChars) {
+                line.append((char) c);
+            } else {
+                oversized = true;
+            }
+            c = read();
+        }
+        lineNumber++;
+        if (oversized) {
+            recordIndex++;
+            reject("line " + lineNumber + ": longer than " + maxLineChars + " characters");
+            return;
+        }
+        String text = line.toString();
+        if (text.trim().isEmpty()) {
+            return;
+        }
+        recordIndex++;
+        NotificationMessage notification;
+        try {
+            notification = objectMapper.readValue(text, NotificationMessage.class);
+        } catch (JsonProcessingException e) {
+            reject("line " + lineNumber + ": malformed JSON: " + e.getOriginalMessage());
+            return;
+        }
+        validate(notification, "line " + lineNumber, chunk);
+    }
+
+    private int read() throws IOException {
+        if (bufferPos == bufferEnd) {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) {
+                return -1;
+            }
+            bufferPos = 0;
+            bufferEnd = read;
+        }
+        return buffer[bufferPos++];
+    }
+
+    private void validate(NotificationMessage notification, String position, List<NotificationMessage> chunk) {
+        Set<ConstraintViolation<NotificationMessage>> violations = validator.validate(notification);
+        if (violations.isEmpty()) {
+            chunk.add(notification);
+        } else {
+            ConstraintViolation<NotificationMessage> violation = violations.iterator().next();
+            reject(position + ": " + violation.getPropertyPath() + " " + violation.getMessage());
+        }
+    }
+
+    private void reject(String error) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    public long getRecordsRead() {
+        return recordIndex;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    // Line of the current position, for reporting malformed input
+    public int getLineNumber() {
+        return arrayParser != null ? lineNumber + arrayParser.getCurrentLocation().getLineNr() : lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (arrayParser != null) {
+            arrayParser.close();
+        }
+        in.close();
+    }
+}
@@ -0,0 +1,202 @@
+package com.notification.api.cache;
+
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.notification.api.db.NotificationDAO;
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache for single-notification lookups: a small in-process LRU in front of a
+ * Redis hash per notification, in front of Postgres. Concurrent misses for one id within an
+ * instance share a single load. Writers delete the Redis hash (the processor does too, via
+ * {@link QueueKeys#cacheKey}); other instances' local copies expire after localTtlMs.
+ * Deleting also bumps the row's cache version, and a load only stores its result if the
+ * version is the one it saw before reading the database, so a lookup racing a write
+ * neither puts the old row back in Redis nor keeps it locally.
+ */
+public class NotificationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationCache.class);
+
+    // Thrown inside the loader so absent rows are not cached; shared because it carries no state
+    private static final Exception NOT_FOUND = new Exception("not found", null, false, false) { };
+
+    // KEYS: cache hash, cache version
+    // ARGV: version seen before the database read ("" if none), TTL seconds, then field and value pairs
+    private static final String STORE_SCRIPT =
+        "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[1] then return 0 end " +
+        "redis.call('DEL', KEYS[1]) " +
+        "redis.call('HSET', KEYS[1], unpack(ARGV, 3)) " +
+        "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+        "return 1";
+
+    private final NotificationDAO notificationDAO;
+    private final JedisPool jedisPool;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, NotificationMessage> local;
+    private final int activeTtlSeconds;
+    private final int terminalTtlSeconds;
+    private final Timer lookups;
+    private final AtomicLong redisHits = new AtomicLong();
+    private final AtomicLong redisMisses = new AtomicLong();
+
+    public NotificationCache(NotificationDAO notificationDAO, JedisPool jedisPool, ObjectMapper objectMapper,
+                             int localMaxEntries, long localTtlMs, int activeTtlSeconds, int terminalTtlSeconds,
+                             Timer lookups) {
+        this.notificationDAO = notificationDAO;
+        this.jedisPool = jedisPool;
+        this.objectMapper = objectMapper;
+        this.local = CacheBuilder.newBuilder()
+            .maximumSize(localMaxEntries)
+            .expireAfterWrite(localTtlMs, TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+        this.activeTtlSeconds = activeTtlSeconds;
+        this.terminalTtlSeconds = terminalTtlSeconds;
+        this.lookups = lookups;
+    }
+
+    public Optional<NotificationMessage> get(String id) throws Exception {
+        try (Timer.Context ignored = lookups.time()) {
+            return Optional.of(local.get(id, () -> loadShared(id)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() == NOT_FOUND) {
+                return Optional.empty();
+            }
+            if (e.getCause() instanceof StaleLoad) {
+                // Current enough for this caller, but too old to be served to the next one
+                return Optional.of(((StaleLoad) e.getCause()).notification);
+            }
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    public void invalidate(String id) {
+        local.invalidate(id);
+        String versionKey = QueueKeys.cacheVersionKey(id);
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            pipeline.incr(versionKey);
+            pipeline.expire(versionKey, QueueKeys.CACHE_VERSION_TTL_SECONDS);
+            pipeline.del(QueueKeys.cacheKey(id));
+            pipeline.sync();
+        } catch (Exception e) {
+            // The entry still expires on its own TTL
+            LOG.warn("Failed to invalidate cached notification {}: {}", id, e.getMessage());
+        }
+    }
+
+    public double getLocalHitRate() { return local.stats().hitRate(); }
+    public long getLocalSize() { return local.size(); }
+    public long getRedisHits() { return redisHits.get(); }
+    public long getRedisMisses() { return redisMisses.get(); }
+
+    private NotificationMessage loadShared(String id) throws Exception {
+        String key = QueueKeys.cacheKey(id);
+        String versionKey = QueueKeys.cacheVersionKey(id);
+        // Null when Redis is unreachable; the row is then served without being stored there
+        String version = null;
+        try (Jedis jedis = jedisPool.getResource()) {
+            Map<String, String> fields = jedis.hgetAll(key);
+            if (!fields.isEmpty()) {
+                redisHits.incrementAndGet();
+                return decode(fields);
+            }
+            version = Objects.toString(jedis.get(versionKey), "");
+        } catch (Exception e) {
+            LOG.warn("Notification cache read failed for {}, using the database: {}", id, e.getMessage());
+        }
+        redisMisses.incrementAndGet();
+
+        Optional<NotificationMessage> loaded = notificationDAO.findById(id);
+        if (!loaded.isPresent()) {
+            throw NOT_FOUND;
+        }
+        NotificationMessage notification = loaded.get();
+        if (version == null) {
+            return notification;
+        }
+
+        List<String> args = new ArrayList<>();
+        args.add(version);
+        args.add(String.valueOf(ttlSeconds(notification.getStatus())));
+        for (Map.Entry<String, String> field : encode(notification).entrySet()) {
+            args.add(field.getKey());
+            args.add(field.getValue());
+        }
+        Object stored;
+        try (Jedis jedis = jedisPool.getResource()) {
+            stored = jedis.eval(STORE_SCRIPT, Arrays.asList(key, versionKey), args);
+        } catch (Exception e) {
+            LOG.warn("Notification cache write failed for {}: {}", id, e.getMessage());
+            return notification;
+        }
+        if (!Long.valueOf(1L).equals(stored)) {
+            throw new StaleLoad(notification);
+        }
+        return notification;
+    }
+
+    // FAILED rows may still be retried, so only SENT and CANCELLED rows are cached for the long TTL
+    private int ttlSeconds(NotificationStatus status) {
+        return status == NotificationStatus.SENT || status == NotificationStatus.CANCELLED
+            ? terminalTtlSeconds : activeTtlSeconds;
+    }
+
+    // One hash field per property, each holding that property's JSON
+    private Map<String, String> encode(NotificationMessage notification) {
+        ObjectNode tree = objectMapper.valueToTree(notification);
+        Map<String, String> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> it = tree.fields();
+        while (it.hasNext()) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!field.getValue().isNull()) {
+                fields.put(field.getKey(), field.getValue().toString());
+            }
+        }
+        return fields;
+    }
+
+    private NotificationMessage decode(Map<String, String> fields) throws IOException {
+        ObjectNode tree = objectMapper.createObjectNode();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            tree.set(field.getKey(), objectMapper.readTree(field.getValue()));
+        }
+        return objectMapper.treeToValue(tree, NotificationMessage.class);
+    }
+
+    // Thrown inside the loader when the row changed during the load, so the result is not cached locally
+    private static final class StaleLoad extends Exception {
+        private final NotificationMessage notification;
+
+        StaleLoad(NotificationMessage notification) {
+            super("changed during load", null, false, false);
+            this.notification = notification;
+        }
+    }
+}
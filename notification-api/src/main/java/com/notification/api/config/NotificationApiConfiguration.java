@@ -1,6 +1,7 @@
 package com.notification.api.config;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.notification.api.retention.PartitionMaintenance;
 import io.dropwizard.Configuration;
 import io.dropwizard.db.DataSourceFactory;
 
@@ -18,6 +19,30 @@ public class NotificationApiConfiguration extends Configuration {
     @JsonProperty("redis")
     private RedisConfig redisConfig = new RedisConfig();
     
+    @JsonProperty("queue")
+    private QueueConfig queueConfig = new QueueConfig();
+    
+    @JsonProperty("batch")
+    private BatchConfig batchConfig = new BatchConfig();
+    
+    @JsonProperty("outbox")
+    private OutboxConfig outboxConfig = new OutboxConfig();
+    
+    @JsonProperty("stats")
+    private StatsConfig statsConfig = new StatsConfig();
+    
+    @JsonProperty("counters")
+    private CountersConfig countersConfig = new CountersConfig();
+    
+    @JsonProperty("notificationCache")
+    private NotificationCacheConfig notificationCacheConfig = new NotificationCacheConfig();
+    
+    @JsonProperty("partitions")
+    private PartitionConfig partitionConfig = new PartitionConfig();
+    
+    @JsonProperty("archive")
+    private ArchiveConfig archiveConfig = new ArchiveConfig();
+    
     @JsonProperty("jwtSecret")
     private String jwtSecret = "notification-secret-key-2023";
     
@@ -46,6 +71,70 @@ public class NotificationApiConfiguration extends Configuration {
         this.redisConfig = redisConfig;
     }
 
+    public QueueConfig getQueueConfig() {
+        return queueConfig;
+    }
+
+    public void setQueueConfig(QueueConfig queueConfig) {
+        this.queueConfig = queueConfig;
+    }
+
+    public BatchConfig getBatchConfig() {
+        return batchConfig;
+    }
+
+    public void setBatchConfig(BatchConfig batchConfig) {
+        this.batchConfig = batchConfig;
+    }
+
+    public OutboxConfig getOutboxConfig() {
+        return outboxConfig;
+    }
+
+    public void setOutboxConfig(OutboxConfig outboxConfig) {
+        this.outboxConfig = outboxConfig;
+    }
+
+    public StatsConfig getStatsConfig() {
+        return statsConfig;
+    }
+
+    public void setStatsConfig(StatsConfig statsConfig) {
+        this.statsConfig = statsConfig;
+    }
+
+    public CountersConfig getCountersConfig() {
+        return countersConfig;
+    }
+
+    public void setCountersConfig(CountersConfig countersConfig) {
+        this.countersConfig = countersConfig;
+    }
+
+    public NotificationCacheConfig getNotificationCacheConfig() {
+        return notificationCacheConfig;
+    }
+
+    public void setNotificationCacheConfig(NotificationCacheConfig notificationCacheConfig) {
+        this.notificationCacheConfig = notificationCacheConfig;
+    }
+
+    public PartitionConfig getPartitionConfig() {
+        return partitionConfig;
+    }
+
+    public void setPartitionConfig(PartitionConfig partitionConfig) {
+        this.partitionConfig = partitionConfig;
+    }
+
+    public ArchiveConfig getArchiveConfig() {
+        return archiveConfig;
+    }
+
+    public void setArchiveConfig(ArchiveConfig archiveConfig) {
+        this.archiveConfig = archiveConfig;
+    }
+
     public String getJwtSecret() {
         return jwtSecret;
     }
@@ -116,6 +205,204 @@ public class NotificationApiConfiguration extends Configuration {
         public void setMaxIdle(int maxIdle) { this.maxIdle = maxIdle; }
     }
 
+    public static class QueueConfig {
+        @JsonProperty("transport")
+        private QueueTransport transport = QueueTransport.LIST;
+
+        public QueueTransport getTransport() { return transport; }
+        public void setTransport(QueueTransport transport) { this.transport = transport; }
+    }
+
+    public static class BatchConfig {
+        // Rows per INSERT batch/transaction and per pipelined enqueue
+        @JsonProperty("chunkSize")
+        private int chunkSize = 1000;
+
+        // Longest NDJSON line accepted by the streaming endpoint; longer lines are rejected without being buffered
+        @JsonProperty("maxLineChars")
+        private int maxLineChars = 65536;
+
+        public int getChunkSize() { return chunkSize; }
+        public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+        public int getMaxLineChars() { return maxLineChars; }
+        public void setMaxLineChars(int maxLineChars) { this.maxLineChars = maxLineChars; }
+    }
+
+    public static class OutboxConfig {
+        // Outbox rows claimed and pipelined to Redis per relay round
+        @JsonProperty("batchSize")
+        private int batchSize = 1000;
+        
+        // Pause between rounds once the outbox has been drained
+        @JsonProperty("pollIntervalMs")
+        private long pollIntervalMs = 100;
+
+        public int getBatchSize() { return batchSize; }
+        public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+        
+        public long getPollIntervalMs() { return pollIntervalMs; }
+        public void setPollIntervalMs(long pollIntervalMs) { this.pollIntervalMs = pollIntervalMs; }
+    }
+
+    public static class StatsConfig {
+        // How long stats responses are served from memory before the counts are queried again
+        @JsonProperty("ttlMs")
+        private long ttlMs = 5000;
+        
+        // Cached keys: the global stats plus one per recently polled batch
+        @JsonProperty("maxEntries")
+        private int maxEntries = 10000;
+
+        public long getTtlMs() { return ttlMs; }
+        public void setTtlMs(long ttlMs) { this.ttlMs = ttlMs; }
+        
+        public int getMaxEntries() { return maxEntries; }
+        public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    }
+
+    public static class CountersConfig {
+        // Counter deltas folded into notification_counters per rollup transaction
+        @JsonProperty("rollupBatchSize")
+        private int rollupBatchSize = 10000;
+        
+        // How far the stats endpoints may trail the notifications table
+        @JsonProperty("rollupIntervalMs")
+        private long rollupIntervalMs = 1000;
+        
+        // Full recount that corrects drift; scans notifications, so keep it infrequent. 0 disables it
+        @JsonProperty("reconcileIntervalMs")
+        private long reconcileIntervalMs = 86400000;
+
+        public int getRollupBatchSize() { return rollupBatchSize; }
+        public void setRollupBatchSize(int rollupBatchSize) { this.rollupBatchSize = rollupBatchSize; }
+        
+        public long getRollupIntervalMs() { return rollupIntervalMs; }
+        public void setRollupIntervalMs(long rollupIntervalMs) { this.rollupIntervalMs = rollupIntervalMs; }
+        
+        public long getReconcileIntervalMs() { return reconcileIntervalMs; }
+        public void setReconcileIntervalMs(long reconcileIntervalMs) { this.reconcileIntervalMs = reconcileIntervalMs; }
+    }
+
+    public static class NotificationCacheConfig {
+        @JsonProperty("localMaxEntries")
+        private int localMaxEntries = 100000;
+        
+        // In-process copies are not invalidated across instances, so this bounds how stale another instance can be
+        @JsonProperty("localTtlMs")
+        private long localTtlMs = 1000;
+        
+        // Redis TTL for notifications that may still change; writers delete the entry anyway
+        @JsonProperty("activeTtlSeconds")
+        private int activeTtlSeconds = 10;
+        
+        // Redis TTL once SENT or CANCELLED; FAILED rows may still be retried and get activeTtlSeconds
+        @JsonProperty("terminalTtlSeconds")
+        private int terminalTtlSeconds = 300;
+
+        public int getLocalMaxEntries() { return localMaxEntries; }
+        public void setLocalMaxEntries(int localMaxEntries) { this.localMaxEntries = localMaxEntries; }
+        
+        public long getLocalTtlMs() { return localTtlMs; }
+        public void setLocalTtlMs(long localTtlMs) { this.localTtlMs = localTtlMs; }
+        
+        public int getActiveTtlSeconds() { return activeTtlSeconds; }
+        public void setActiveTtlSeconds(int activeTtlSeconds) { this.activeTtlSeconds = activeTtlSeconds; }
+        
+        public int getTerminalTtlSeconds() { return terminalTtlSeconds; }
+        public void setTerminalTtlSeconds(int terminalTtlSeconds) { this.terminalTtlSeconds = terminalTtlSeconds; }
+    }
+
+    public static class PartitionConfig {
+        // Width of each new notifications partition
+        @JsonProperty("interval")
+        private PartitionMaintenance.Interval interval = PartitionMaintenance.Interval.DAILY;
+        
+        // Partitions are created this far ahead of today
+        @JsonProperty("premakeDays")
+        private int premakeDays = 7;
+        
+        @JsonProperty("checkIntervalMs")
+        private long checkIntervalMs = 3600000;
+        
+        // Partitions entirely older than this are removed; 0 keeps everything
+        @JsonProperty("retentionDays")
+        private int retentionDays = 0;
+        
+        // DETACH leaves the old partition as a standalone table, e.g. for archiving
+        @JsonProperty("retentionAction")
+        private PartitionMaintenance.RetentionAction retentionAction = PartitionMaintenance.RetentionAction.DROP;
+
+        public PartitionMaintenance.Interval getInterval() { return interval; }
+        public void setInterval(PartitionMaintenance.Interval interval) { this.interval = interval; }
+        
+        public int getPremakeDays() { return premakeDays; }
+        public void setPremakeDays(int premakeDays) { this.premakeDays = premakeDays; }
+        
+        public long getCheckIntervalMs() { return checkIntervalMs; }
+        public void setCheckIntervalMs(long checkIntervalMs) { this.checkIntervalMs = checkIntervalMs; }
+        
+        public int getRetentionDays() { return retentionDays; }
+        public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+        
+        public PartitionMaintenance.RetentionAction getRetentionAction() { return retentionAction; }
+        public void setRetentionAction(PartitionMaintenance.RetentionAction retentionAction) { this.retentionAction = retentionAction; }
+    }
+
+    public static class ArchiveConfig {
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+        
+        // Segment files and index.ndjson are written here
+        @JsonProperty("directory")
+        private String directory = "./archive";
+        
+        // SENT, FAILED and CANCELLED notifications created before this many days ago are archived, then deleted
+        @JsonProperty("olderThanDays")
+        private int olderThanDays = 30;
+        
+        // Rows per round trip from the database cursor
+        @JsonProperty("fetchSize")
+        private int fetchSize = 1000;
+        
+        @JsonProperty("segmentMaxRows")
+        private int segmentMaxRows = 500000;
+        
+        // Rows per delete statement once a segment is on disk
+        @JsonProperty("deleteChunkSize")
+        private int deleteChunkSize = 5000;
+        
+        @JsonProperty("intervalMs")
+        private long intervalMs = 86400000;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        
+        public String getDirectory() { return directory; }
+        public void setDirectory(String directory) { this.directory = directory; }
+        
+        public int getOlderThanDays() { return olderThanDays; }
+        public void setOlderThanDays(int olderThanDays) { this.olderThanDays = olderThanDays; }
+        
+        public int getFetchSize() { return fetchSize; }
+        public void setFetchSize(int fetchSize) { this.fetchSize = fetchSize; }
+        
+        public int getSegmentMaxRows() { return segmentMaxRows; }
+        public void setSegmentMaxRows(int segmentMaxRows) { this.segmentMaxRows = segmentMaxRows; }
+        
+        public int getDeleteChunkSize() { return deleteChunkSize; }
+        public void setDeleteChunkSize(int deleteChunkSize) { this.deleteChunkSize = deleteChunkSize; }
+        
+        public long getIntervalMs() { return intervalMs; }
+        public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+    }
+
+    public enum QueueTransport {
+        LIST,
+        STREAM,
+        DATABASE
+    }
+
     public static class RateLimitingConfig {
         @JsonProperty("enabled")
         private boolean enabled = true;
@@ -4,15 +4,22 @@ import com.notification.common.model.NotificationMessage;
 import com.notification.common.enums.NotificationStatus;
 import com.notification.common.enums.NotificationChannel;
 import com.notification.common.enums.NotificationPriority;
+import com.notification.common.util.NotificationIds;
+import org.jdbi.v3.sqlobject.config.KeyColumn;
 import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.config.ValueColumn;
 import org.jdbi.v3.sqlobject.customizer.Bind;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.statement.GetGeneratedKeys;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
 
+import java.sql.Timestamp;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RegisterBeanMapper(NotificationMessage.class)
@@ -27,56 +34,173 @@ public interface NotificationDAO {
     @GetGeneratedKeys
     void insertNotification(@BindBean NotificationMessage notification);
     
-    @SqlQuery("SELECT * FROM notifications WHERE id = :id")
-    Optional<NotificationMessage> findById(@Bind("id") String id);
+    // One JDBC batch in one transaction; callers pass bounded chunks
+    @SqlBatch("INSERT INTO notifications (id, title, message, channel, priority, status, recipient_id, " +
+              "recipient_email, recipient_phone, recipient_slack_channel, scheduled_time, created_at, " +
+              "updated_at, template_id, batch_id) " +
+              "VALUES (:id, :title, :message, :channel, :priority, :status, :recipientId, " +
+              ":recipientEmail, :recipientPhone, :recipientSlackChannel, :scheduledTime, :createdAt, " +
+              ":updatedAt, :templateId, :batchId)")
+    @Transaction
+    void insertNotifications(@BindBean List<NotificationMessage> notifications);
+    
+    // Campaign rows: no title or message of their own, only the shared content's hash
+    @SqlBatch("INSERT INTO notifications (id, channel, priority, status, recipient_id, recipient_email, " +
+              "recipient_phone, recipient_slack_channel, scheduled_time, created_at, updated_at, template_id, " +
+              "batch_id, content_hash, template_data) " +
+              "VALUES (:id, :channel, :priority, :status, :recipientId, :recipientEmail, :recipientPhone, " +
+              ":recipientSlackChannel, :scheduledTime, :createdAt, :updatedAt, :templateId, :batchId, " +
+              ":contentHash, :templateDataJson)")
+    void insertSharedContentNotifications(@BindBean List<NotificationMessage> notifications,
+                                          @Bind("templateDataJson") List<String> templateDataJson);
+    
+    // Identical content submitted again maps to the row already stored
+    @SqlUpdate("INSERT INTO notification_content (content_hash, title, message, created_at) " +
+               "VALUES (:contentHash, :title, :message, :createdAt) ON CONFLICT DO NOTHING")
+    void insertContent(@Bind("contentHash") String contentHash,
+                       @Bind("title") String title,
+                       @Bind("message") String message,
+                       @Bind("createdAt") Date createdAt);
+    
+    // The first caller to use a batch id owns it; later inserts for the same id change nothing
+    @SqlUpdate("INSERT INTO notification_batches (batch_id, owner, created_at) " +
+               "VALUES (:batchId, :owner, :createdAt) ON CONFLICT DO NOTHING")
+    void insertBatch(@Bind("batchId") String batchId,
+                     @Bind("owner") String owner,
+                     @Bind("createdAt") Date createdAt);
+    
+    @SqlQuery("SELECT owner FROM notification_batches WHERE batch_id = :batchId")
+    Optional<String> findBatchOwner(@Bind("batchId") String batchId);
+    
+    // True if the batch id is new or already belongs to owner
+    default boolean claimBatch(String batchId, String owner, Date createdAt) {
+        insertBatch(batchId, owner, createdAt);
+        return findBatchOwner(batchId).map(owner::equals).orElse(false);
+    }
+    
+    @SqlUpdate("INSERT INTO notification_outbox (notification_id, notification_created_at, channel, priority, " +
+               "scheduled_time, notification_status) VALUES (:id, :createdAt, :channel, :priority, :scheduledTime, " +
+               ":status)")
+    void insertOutboxEntry(@BindBean NotificationMessage notification);
+    
+    @SqlBatch("INSERT INTO notification_outbox (notification_id, notification_created_at, channel, priority, " +
+              "scheduled_time, notification_status) VALUES (:id, :createdAt, :channel, :priority, :scheduledTime, " +
+              ":status)")
+    void insertOutboxEntries(@BindBean List<NotificationMessage> notifications);
+    
+    // The outbox row commits or rolls back with the notification, so nothing is queued that wasn't stored and vice versa
+    @Transaction
+    default void insertNotificationWithOutbox(NotificationMessage notification) {
+        insertNotification(notification);
+        insertOutboxEntry(notification);
+    }
+    
+    @Transaction
+    default void insertNotificationsWithOutbox(List<NotificationMessage> notifications) {
+        insertNotifications(notifications);
+        insertOutboxEntries(notifications);
+    }
+    
+    @Transaction
+    default void insertSharedContentNotificationsWithOutbox(List<NotificationMessage> notifications,
+                                                            List<String> templateDataJson) {
+        insertSharedContentNotifications(notifications, templateDataJson);
+        insertOutboxEntries(notifications);
+    }
+    
+    @Transaction
+    default void requeueForRetry(NotificationMessage notification, Date now) {
+        updateStatus(notification.getId(), notification.getCreatedAt(), NotificationStatus.PENDING, now, null);
+        incrementRetryCount(notification.getId(), notification.getCreatedAt(), now);
+        notification.setStatus(NotificationStatus.PENDING);
+        insertOutboxEntry(notification);
+    }
+    
+    // created_at names the one partition to read
+    @SqlQuery("SELECT * FROM notification_details WHERE id = :id AND created_at = :createdAt")
+    Optional<NotificationMessage> findById(@Bind("id") String id, @Bind("createdAt") Date createdAt);
+    
+    @SqlQuery("SELECT * FROM notification_details WHERE id = :id")
+    Optional<NotificationMessage> findByIdAnyPartition(@Bind("id") String id);
+    
+    // Ids minted by the API carry their creation time; ids chosen by clients probe every partition
+    default Optional<NotificationMessage> findById(String id) {
+        Date createdAt = NotificationIds.createdAt(id);
+        if (createdAt != null) {
+            Optional<NotificationMessage> notification = findById(id, createdAt);
+            if (notification.isPresent()) {
+                return notification;
+            }
+        }
+        return findByIdAnyPartition(id);
+    }
+    
+    // Keyset pages: the cursor is the (created_at, id) of the previous page's last row
+    @SqlQuery("SELECT * FROM notification_details WHERE recipient_id = :recipientId " +
+              "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    List<NotificationMessage> findByRecipientId(@Bind("recipientId") String recipientId,
+                                               @Bind("limit") int limit);
+    
+    // The plain created_at bound lets Postgres skip partitions newer than the cursor
+    @SqlQuery("SELECT * FROM notification_details WHERE recipient_id = :recipientId " +
+              "AND created_at <= :createdAt AND (created_at, id) < (:createdAt, :id) " +
+              "ORDER BY created_at DESC, id DESC LIMIT :limit")
+    List<NotificationMessage> findByRecipientIdAfter(@Bind("recipientId") String recipientId,
+                                                    @Bind("createdAt") Timestamp createdAt,
+                                                    @Bind("id") String id,
+                                                    @Bind("limit") int limit);
     
-    @SqlQuery("SELECT * FROM notifications WHERE recipient_id = :recipientId ORDER BY created_at DESC " +
-              "LIMIT :limit OFFSET :offset")
-    List<NotificationMessage> findByRecipientId(@Bind("recipientId") String recipientId, 
-                                               @Bind("limit") int limit, 
-                                               @Bind("offset") int offset);
+    default List<NotificationMessage> findByRecipientId(String recipientId, PageCursor cursor, int limit) {
+        if (cursor == null) {
+            return findByRecipientId(recipientId, limit);
+        }
+        return findByRecipientIdAfter(recipientId, cursor.getCreatedAt(), cursor.getId(), limit);
+    }
     
-    @SqlQuery("SELECT * FROM notifications WHERE status = :status ORDER BY priority DESC, created_at ASC " +
+    @SqlQuery("SELECT * FROM notification_details WHERE status = :status ORDER BY priority DESC, created_at ASC " +
               "LIMIT :limit")
     List<NotificationMessage> findByStatus(@Bind("status") NotificationStatus status, 
                                           @Bind("limit") int limit);
     
-    @SqlQuery("SELECT * FROM notifications WHERE channel = :channel AND status = :status " +
+    @SqlQuery("SELECT * FROM notification_details WHERE channel = :channel AND status = :status " +
               "ORDER BY priority DESC, created_at ASC LIMIT :limit")
     List<NotificationMessage> findByChannelAndStatus(@Bind("channel") NotificationChannel channel,
                                                     @Bind("status") NotificationStatus status,
                                                     @Bind("limit") int limit);
     
-    @SqlQuery("SELECT * FROM notifications WHERE batch_id = :batchId ORDER BY created_at ASC")
+    @SqlQuery("SELECT * FROM notification_details WHERE batch_id = :batchId ORDER BY created_at ASC")
     List<NotificationMessage> findByBatchId(@Bind("batchId") String batchId);
     
-    @SqlQuery("SELECT * FROM notifications WHERE scheduled_time <= :currentTime AND status = 'SCHEDULED' " +
+    @SqlQuery("SELECT * FROM notification_details WHERE scheduled_time <= :currentTime AND status = 'SCHEDULED' " +
               "ORDER BY priority DESC, scheduled_time ASC LIMIT :limit")
     List<NotificationMessage> findScheduledNotifications(@Bind("currentTime") Date currentTime,
                                                         @Bind("limit") int limit);
     
-    @SqlQuery("SELECT * FROM notifications WHERE status = 'FAILED' AND retry_count < :maxRetries " +
+    @SqlQuery("SELECT * FROM notification_details WHERE status = 'FAILED' AND retry_count < :maxRetries " +
               "ORDER BY priority DESC, updated_at ASC LIMIT :limit")
     List<NotificationMessage> findFailedNotificationsForRetry(@Bind("maxRetries") int maxRetries,
                                                              @Bind("limit") int limit);
     
     @SqlUpdate("UPDATE notifications SET status = :status, updated_at = :updatedAt, " +
-               "error_message = :errorMessage WHERE id = :id")
-    void updateStatus(@Bind("id") String id, 
+               "error_message = :errorMessage WHERE id = :id AND created_at = :createdAt")
+    void updateStatus(@Bind("id") String id,
+                     @Bind("createdAt") Date createdAt,
                      @Bind("status") NotificationStatus status,
                      @Bind("updatedAt") Date updatedAt,
                      @Bind("errorMessage") String errorMessage);
     
     @SqlUpdate("UPDATE notifications SET status = :status, sent_at = :sentAt, updated_at = :updatedAt " +
-               "WHERE id = :id")
+               "WHERE id = :id AND created_at = :createdAt")
     void markAsSent(@Bind("id") String id,
+                   @Bind("createdAt") Date createdAt,
                    @Bind("status") NotificationStatus status,
                    @Bind("sentAt") Date sentAt,
                    @Bind("updatedAt") Date updatedAt);
     
     @SqlUpdate("UPDATE notifications SET retry_count = retry_count + 1, updated_at = :updatedAt " +
-               "WHERE id = :id")
-    void incrementRetryCount(@Bind("id") String id, @Bind("updatedAt") Date updatedAt);
+               "WHERE id = :id AND created_at = :createdAt")
+    void incrementRetryCount(@Bind("id") String id, @Bind("createdAt") Date createdAt,
+                             @Bind("updatedAt") Date updatedAt);
     
     @SqlQuery("SELECT COUNT(*) FROM notifications WHERE recipient_id = :recipientId")
     long countByRecipientId(@Bind("recipientId") String recipientId);
@@ -90,6 +214,8 @@ public interface NotificationDAO {
     @SqlQuery("SELECT COUNT(*) FROM notifications WHERE batch_id = :batchId AND status = :status")
     long countByBatchIdAndStatus(@Bind("batchId") String batchId, @Bind("status") NotificationStatus status);
     
-    @SqlUpdate("DELETE FROM notifications WHERE created_at < :cutoffDate AND status IN ('SENT', 'FAILED')")
-    int deleteOldNotifications(@Bind("cutoffDate") Date cutoffDate);
+    @SqlQuery("SELECT status, COUNT(*) AS status_count FROM notifications WHERE batch_id = :batchId GROUP BY status")
+    @KeyColumn("status")
+    @ValueColumn("status_count")
+    Map<NotificationStatus, Long> countByBatchIdGroupedByStatus(@Bind("batchId") String batchId);
 }
\ No newline at end of file
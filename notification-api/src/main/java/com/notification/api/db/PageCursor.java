@@ -0,0 +1,54 @@
+package com.notification.api.db;
+
+import com.notification.common.model.NotificationMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position in a (created_at DESC, id DESC) listing: the key of the last row of the previous page.
+ * Clients only see it as an opaque token.
+ */
+public final class PageCursor {
+
+    private final Timestamp createdAt;
+    private final String id;
+
+    public PageCursor(Timestamp createdAt, String id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static PageCursor after(NotificationMessage last) {
+        Date createdAt = last.getCreatedAt();
+        // Keep the database's sub-millisecond precision so no row is skipped or repeated at the boundary
+        Timestamp ts = createdAt instanceof Timestamp ? (Timestamp) createdAt : new Timestamp(createdAt.getTime());
+        return new PageCursor(ts, last.getId());
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            Instant createdAt = Instant.parse(raw.substring(0, separator));
+            return new PageCursor(Timestamp.from(createdAt), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timestamp getCreatedAt() { return createdAt; }
+    public String getId() { return id; }
+}
@@ -0,0 +1,26 @@
+package com.notification.api.outbox;
+
+import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.List;
+
+@RegisterBeanMapper(OutboxEntry.class)
+public interface OutboxDAO {
+
+    // Row locks are held until the caller's transaction ends; SKIP LOCKED lets several API instances relay side by side
+    @SqlQuery("SELECT id, notification_id, notification_created_at, channel, priority, scheduled_time, " +
+              "notification_status " +
+              "FROM notification_outbox " +
+              "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    List<OutboxEntry> claimBatch(@Bind("limit") int limit);
+
+    @SqlUpdate("DELETE FROM notification_outbox WHERE id IN (<ids>)")
+    void deleteByIds(@BindList("ids") List<Long> ids);
+
+    @SqlQuery("SELECT COUNT(*) FROM notification_outbox")
+    long countPending();
+}
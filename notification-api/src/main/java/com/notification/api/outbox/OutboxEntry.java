@@ -0,0 +1,40 @@
+package com.notification.api.outbox;
+
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.enums.NotificationStatus;
+
+import java.util.Date;
+
+public class OutboxEntry {
+
+    private long id;
+    private String notificationId;
+    private Date notificationCreatedAt;
+    private NotificationChannel channel;
+    private NotificationPriority priority;
+    private Date scheduledTime;
+    // Status the row was stored with; null for entries written before it was recorded
+    private NotificationStatus notificationStatus;
+
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getNotificationId() { return notificationId; }
+    public void setNotificationId(String notificationId) { this.notificationId = notificationId; }
+
+    public Date getNotificationCreatedAt() { return notificationCreatedAt; }
+    public void setNotificationCreatedAt(Date notificationCreatedAt) { this.notificationCreatedAt = notificationCreatedAt; }
+
+    public NotificationChannel getChannel() { return channel; }
+    public void setChannel(NotificationChannel channel) { this.channel = channel; }
+
+    public NotificationPriority getPriority() { return priority; }
+    public void setPriority(NotificationPriority priority) { this.priority = priority; }
+
+    public Date getScheduledTime() { return scheduledTime; }
+    public void setScheduledTime(Date scheduledTime) { this.scheduledTime = scheduledTime; }
+
+    public NotificationStatus getNotificationStatus() { return notificationStatus; }
+    public void setNotificationStatus(NotificationStatus notificationStatus) { this.notificationStatus = notificationStatus; }
+}
@@ -0,0 +1,94 @@
+package com.notification.api.outbox;
+
+import com.notification.api.queue.NotificationQueue;
+import com.notification.common.model.NotificationMessage;
+import io.dropwizard.lifecycle.Managed;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves outbox rows to the Redis queue. Each round claims a batch, pushes it in one
+ * pipelined enqueue and deletes the rows in the same transaction, so a Redis failure
+ * leaves them in place for the next round. Delivery to Redis is at-least-once: a crash
+ * between the enqueue and the commit re-sends that batch.
+ */
+public class OutboxRelay implements Managed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final Jdbi jdbi;
+    private final NotificationQueue notificationQueue;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private ScheduledExecutorService executor;
+
+    public OutboxRelay(Jdbi jdbi, NotificationQueue notificationQueue, int batchSize, long pollIntervalMs) {
+        this.jdbi = jdbi;
+        this.notificationQueue = notificationQueue;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::drain, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void drain() {
+        try {
+            // Keep going while batches come back full instead of waiting out the poll interval
+            while (relayBatch() == batchSize) {
+                // next batch
+            }
+        } catch (Exception e) {
+            LOG.warn("Outbox relay failed, retrying in {} ms: {}", pollIntervalMs, e.getMessage());
+        }
+    }
+
+    int relayBatch() {
+        return jdbi.inTransaction(handle -> {
+            OutboxDAO outboxDAO = handle.attach(OutboxDAO.class);
+            List<OutboxEntry> entries = outboxDAO.claimBatch(batchSize);
+            if (entries.isEmpty()) {
+                return 0;
+            }
+
+            List<NotificationMessage> notifications = new ArrayList<>(entries.size());
+            List<Long> ids = new ArrayList<>(entries.size());
+            for (OutboxEntry entry : entries) {
+                NotificationMessage notification = new NotificationMessage();
+                notification.setId(entry.getNotificationId());
+                // Goes into the queue entry as the row's partition key; null for rows written before it was stored
+                notification.setCreatedAt(entry.getNotificationCreatedAt());
+                notification.setChannel(entry.getChannel());
+                notification.setPriority(entry.getPriority());
+                notification.setScheduledTime(entry.getScheduledTime());
+                notification.setStatus(entry.getNotificationStatus());
+                notifications.add(notification);
+                ids.add(entry.getId());
+            }
+
+            notificationQueue.enqueueAll(notifications);
+            outboxDAO.deleteByIds(ids);
+            return entries.size();
+        });
+    }
+}
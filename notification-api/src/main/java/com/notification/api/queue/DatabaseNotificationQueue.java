@@ -0,0 +1,51 @@
+package com.notification.api.queue;
+
+import com.notification.common.model.NotificationMessage;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * For processors using the DATABASE transport, which claim PENDING rows straight from the
+ * notifications table. PENDING notifications need no queue entry; SCHEDULED ones are still
+ * indexed in the scheduled set, whose promoter marks them PENDING when due.
+ */
+public class DatabaseNotificationQueue implements NotificationQueue {
+
+    private final JedisPool jedisPool;
+
+    public DatabaseNotificationQueue(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public void enqueue(NotificationMessage notification) {
+        enqueueAll(Collections.singletonList(notification));
+    }
+
+    @Override
+    public void enqueueAll(List<NotificationMessage> notifications) {
+        long now = System.currentTimeMillis();
+        List<NotificationMessage> deferred = new ArrayList<>();
+        for (NotificationMessage notification : notifications) {
+            if (NotificationQueue.isDeferred(notification, now)) {
+                deferred.add(notification);
+            }
+        }
+        if (deferred.isEmpty()) {
+            return;
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (NotificationMessage notification : deferred) {
+                NotificationQueue.schedule(pipeline, notification);
+            }
+            pipeline.sync();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.notification.api.queue;
+
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import redis.clients.jedis.Pipeline;
+
+import java.util.List;
+
+public interface NotificationQueue {
+
+    /**
+     * Enqueues a notification, or indexes it in the scheduled set when it was stored as SCHEDULED.
+     */
+    void enqueue(NotificationMessage notification);
+
+    /**
+     * Enqueues a batch in a single pipelined round trip.
+     */
+    void enqueueAll(List<NotificationMessage> notifications);
+
+    // Decided by the stored status, not the clock: a SCHEDULED row that is already due still goes through
+    // the scheduled set, since the scheduler would otherwise promote it a second time. Only entries without
+    // a stored status fall back to the scheduled time
+    static boolean isDeferred(NotificationMessage notification, long now) {
+        if (notification.getScheduledTime() == null) {
+            return false;
+        }
+        if (notification.getStatus() != null) {
+            return notification.getStatus() == NotificationStatus.SCHEDULED;
+        }
+        return notification.getScheduledTime().getTime() > now;
+    }
+
+    // Scored by due time; the processor's scheduler moves entries to the channel queues once due
+    static void schedule(Pipeline pipeline, NotificationMessage notification) {
+        pipeline.zadd(QueueKeys.SCHEDULED_KEY, notification.getScheduledTime().getTime(),
+            QueueKeys.delayedMember(notification.getChannel(), notification.getPriority(), entry(notification)));
+    }
+
+    // Id plus created_at, so consumers can address the row's partition
+    static String entry(NotificationMessage notification) {
+        return QueueKeys.queueEntry(notification.getId(), notification.getCreatedAt());
+    }
+}
@@ -0,0 +1,58 @@
+package com.notification.api.queue;
+
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RedisListNotificationQueue implements NotificationQueue {
+
+    private final JedisPool jedisPool;
+
+    public RedisListNotificationQueue(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public void enqueue(NotificationMessage notification) {
+        enqueueAll(Collections.singletonList(notification));
+    }
+
+    @Override
+    public void enqueueAll(List<NotificationMessage> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        // One variadic LPUSH per channel/priority queue keeps the batch in submission order
+        long now = System.currentTimeMillis();
+        List<NotificationMessage> deferred = new ArrayList<>();
+        Map<String, List<String>> entriesByKey = new LinkedHashMap<>();
+        for (NotificationMessage notification : notifications) {
+            if (NotificationQueue.isDeferred(notification, now)) {
+                deferred.add(notification);
+                continue;
+            }
+            entriesByKey.computeIfAbsent(QueueKeys.listKey(notification.getChannel(), notification.getPriority()),
+                key -> new ArrayList<>()).add(NotificationQueue.entry(notification));
+        }
+
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (NotificationMessage notification : deferred) {
+                NotificationQueue.schedule(pipeline, notification);
+            }
+            for (Map.Entry<String, List<String>> entry : entriesByKey.entrySet()) {
+                pipeline.lpush(entry.getKey(), entry.getValue().toArray(new String[0]));
+            }
+            pipeline.sync();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.notification.api.queue;
+
+import com.notification.common.model.NotificationMessage;
+import com.notification.common.util.QueueKeys;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.StreamEntryID;
+
+import java.util.Collections;
+import java.util.List;
+
+public class RedisStreamNotificationQueue implements NotificationQueue {
+
+    // Field read by the processor's StreamQueueConsumer; holds the queue entry (id and created_at)
+    public static final String ID_FIELD = "id";
+
+    private final JedisPool jedisPool;
+
+    public RedisStreamNotificationQueue(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+    }
+
+    @Override
+    public void enqueue(NotificationMessage notification) {
+        enqueueAll(Collections.singletonList(notification));
+    }
+
+    @Override
+    public void enqueueAll(List<NotificationMessage> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        try (Jedis jedis = jedisPool.getResource()) {
+            Pipeline pipeline = jedis.pipelined();
+            for (NotificationMessage notification : notifications) {
+                if (NotificationQueue.isDeferred(notification, now)) {
+                    NotificationQueue.schedule(pipeline, notification);
+                    continue;
+                }
+                // No MAXLEN: trimming would drop entries no consumer has read; the processor deletes them on ack
+                pipeline.xadd(QueueKeys.streamKey(notification.getChannel(), notification.getPriority()),
+                    StreamEntryID.NEW_ENTRY, Collections.singletonMap(ID_FIELD, NotificationQueue.entry(notification)));
+            }
+            pipeline.sync();
+        }
+    }
+}
@@ -1,22 +1,33 @@
 package com.notification.api.resources;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.notification.api.auth.NotificationPrincipal;
+import com.notification.api.batch.CampaignRecipient;
+import com.notification.api.batch.CampaignRequest;
+import com.notification.api.batch.NotificationStreamReader;
 import com.notification.api.db.NotificationDAO;
+import com.notification.api.stats.CounterDAO;
+import com.notification.api.stats.StatsCache;
 import com.notification.common.model.NotificationMessage;
 import com.notification.common.enums.NotificationStatus;
 import com.notification.common.util.DateTimeUtil;
+import com.notification.common.util.NotificationIds;
 import io.dropwizard.auth.Auth;
-import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.Jedis;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Path("/api/v1/batches")
@@ -25,11 +36,20 @@ import java.util.UUID;
 public class BatchResource {
     
     private final NotificationDAO notificationDAO;
-    private final JedisPool jedisPool;
+    private final int chunkSize;
+    private final int maxLineChars;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final StatsCache statsCache;
     
-    public BatchResource(NotificationDAO notificationDAO, JedisPool jedisPool) {
+    public BatchResource(NotificationDAO notificationDAO, int chunkSize, int maxLineChars, ObjectMapper objectMapper,
+                         Validator validator, StatsCache statsCache) {
         this.notificationDAO = notificationDAO;
-        this.jedisPool = jedisPool;
+        this.chunkSize = chunkSize;
+        this.maxLineChars = maxLineChars;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.statsCache = statsCache;
     }
     
     @POST
@@ -38,31 +58,142 @@ public class BatchResource {
                                @Context UriInfo uriInfo) {
         try {
             String batchId = UUID.randomUUID().toString();
+            Date now = DateTimeUtil.getCurrentTime();
+            notificationDAO.insertBatch(batchId, user.getName(), now);
             
-            for (NotificationMessage notification : notifications) {
-                if (notification.getId() == null) {
-                    notification.setId(UUID.randomUUID().toString());
-                }
-                notification.setBatchId(batchId);
-                notification.setCreatedAt(DateTimeUtil.getCurrentTime());
-                notification.setUpdatedAt(DateTimeUtil.getCurrentTime());
-                notification.setStatus(NotificationStatus.PENDING);
+            // Each chunk is one batched INSERT plus its outbox rows in a single transaction
+            for (int from = 0; from < notifications.size(); from += chunkSize) {
+                persistChunk(notifications.subList(from, Math.min(from + chunkSize, notifications.size())), batchId, now);
+            }
+            
+            return Response.status(Response.Status.CREATED)
+                .entity("{\"batchId\": \"" + batchId + "\", \"count\": " + notifications.size() + "}")
+                .build();
                 
-                notificationDAO.insertNotification(notification);
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Failed to create batch: " + e.getMessage() + "\"}")
+                .build();
+        }
+    }
+    
+    @POST
+    @Path("/campaign")
+    public Response createCampaign(@Auth NotificationPrincipal user,
+                                   @Valid @NotNull CampaignRequest campaign,
+                                   @Context UriInfo uriInfo) {
+        try {
+            String batchId = UUID.randomUUID().toString();
+            Date now = DateTimeUtil.getCurrentTime();
+            String contentHash = campaign.contentHash();
+            notificationDAO.insertBatch(batchId, user.getName(), now);
+            NotificationStatus status = DateTimeUtil.isAfter(campaign.getScheduledTime(), now)
+                ? NotificationStatus.SCHEDULED : NotificationStatus.PENDING;
+            
+            // Stored before any row references it; resubmitting the same content reuses it
+            notificationDAO.insertContent(contentHash, campaign.getTitle(), campaign.getMessage(), now);
+            
+            List<CampaignRecipient> recipients = campaign.getRecipients();
+            List<NotificationMessage> chunk = new ArrayList<>(Math.min(chunkSize, recipients.size()));
+            List<String> templateData = new ArrayList<>(Math.min(chunkSize, recipients.size()));
+            for (CampaignRecipient recipient : recipients) {
+                NotificationMessage notification = new NotificationMessage();
+                notification.setId(NotificationIds.newId(now));
+                notification.setChannel(campaign.getChannel());
+                notification.setPriority(campaign.getPriority());
+                notification.setStatus(status);
+                notification.setRecipientId(recipient.getRecipientId());
+                notification.setRecipientEmail(recipient.getRecipientEmail());
+                notification.setRecipientPhone(recipient.getRecipientPhone());
+                notification.setRecipientSlackChannel(recipient.getRecipientSlackChannel());
+                notification.setScheduledTime(campaign.getScheduledTime());
+                notification.setTemplateId(campaign.getTemplateId());
+                notification.setBatchId(batchId);
+                notification.setContentHash(contentHash);
+                notification.setCreatedAt(now);
+                notification.setUpdatedAt(now);
+                chunk.add(notification);
+                templateData.add(recipient.getData() == null || recipient.getData().isEmpty()
+                    ? null : objectMapper.writeValueAsString(recipient.getData()));
                 
-                try (Jedis jedis = jedisPool.getResource()) {
-                    String queueKey = "notification_queue:" + notification.getChannel().getValue();
-                    jedis.lpush(queueKey, notification.getId());
+                if (chunk.size() == chunkSize) {
+                    notificationDAO.insertSharedContentNotificationsWithOutbox(chunk, templateData);
+                    chunk = new ArrayList<>(chunkSize);
+                    templateData = new ArrayList<>(chunkSize);
                 }
             }
+            if (!chunk.isEmpty()) {
+                notificationDAO.insertSharedContentNotificationsWithOutbox(chunk, templateData);
+            }
             
             return Response.status(Response.Status.CREATED)
-                .entity("{\"batchId\": \"" + batchId + "\", \"count\": " + notifications.size() + "}")
+                .entity("{\"batchId\": \"" + batchId + "\", \"count\": " + recipients.size()
+                    + ", \"contentHash\": \"" + contentHash + "\"}")
                 .build();
                 
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                .entity("{\"error\": \"Failed to create batch: " + e.getMessage() + "\"}")
+                .entity("{\"error\": \"Failed to create campaign: " + e.getMessage() + "\"}")
+                .build();
+        }
+    }
+    
+    @POST
+    @Path("/stream")
+    @Consumes({"application/x-ndjson", MediaType.APPLICATION_JSON})
+    public Response createBatchFromStream(@Auth NotificationPrincipal user,
+                                          @QueryParam("batchId") String requestedBatchId,
+                                          InputStream body,
+                                          @Context UriInfo uriInfo) {
+        // A caller-supplied batch id lets progress be followed on /{batchId}/stats while the upload runs
+        if (requestedBatchId != null && !isUuid(requestedBatchId)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"batchId must be a UUID\"}")
+                .build();
+        }
+        String batchId = requestedBatchId != null ? requestedBatchId : UUID.randomUUID().toString();
+        Date now = DateTimeUtil.getCurrentTime();
+        long accepted = 0;
+        
+        try (NotificationStreamReader reader = new NotificationStreamReader(objectMapper, validator, body, maxLineChars)) {
+            // Appending to a batch is allowed only for the caller who created it
+            if (!notificationDAO.claimBatch(batchId, user.getName(), now)) {
+                return Response.status(Response.Status.FORBIDDEN)
+                    .entity("{\"error\": \"Batch " + batchId + " belongs to another caller\"}")
+                    .build();
+            }
+            
+            List<NotificationMessage> chunk = new ArrayList<>(chunkSize);
+            try {
+                while (true) {
+                    reader.readChunk(chunk, chunkSize);
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    persistChunk(chunk, batchId, now);
+                    accepted += chunk.size();
+                    chunk.clear();
+                }
+            } catch (JsonProcessingException e) {
+                // Only a JSON array stops here, NDJSON lines are rejected one by one. Chunks already
+                // persisted stay committed; report where the input broke
+                return Response.status(Response.Status.BAD_REQUEST)
+                    .entity(String.format(
+                        "{\"batchId\": \"%s\", \"accepted\": %d, \"rejected\": %d, \"error\": \"Malformed input at line %d\"}",
+                        batchId, accepted, reader.getRejected(), reader.getLineNumber()))
+                    .build();
+            }
+            
+            return Response.status(accepted > 0 ? Response.Status.CREATED : Response.Status.BAD_REQUEST)
+                .entity(String.format(
+                    "{\"batchId\": \"%s\", \"accepted\": %d, \"rejected\": %d, \"errors\": %s}",
+                    batchId, accepted, reader.getRejected(), objectMapper.writeValueAsString(reader.getErrors())))
+                .build();
+                
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"error\": \"Failed to create batch: " + e.getMessage() + "\", \"batchId\": \"" + batchId
+                    + "\", \"accepted\": " + accepted + "}")
                 .build();
         }
     }
@@ -95,10 +226,16 @@ public class BatchResource {
                                 @PathParam("batchId") @NotNull String batchId,
                                 @Context UriInfo uriInfo) {
         try {
-            long totalCount = notificationDAO.countByBatchId(batchId);
-            long sentCount = notificationDAO.countByBatchIdAndStatus(batchId, NotificationStatus.SENT);
-            long failedCount = notificationDAO.countByBatchIdAndStatus(batchId, NotificationStatus.FAILED);
-            long pendingCount = notificationDAO.countByBatchIdAndStatus(batchId, NotificationStatus.PENDING);
+            Map<NotificationStatus, Long> counts = statsCache.counts(CounterDAO.batchScope(batchId));
+            long totalCount = counts.values().stream().mapToLong(Long::longValue).sum();
+            if (totalCount == 0) {
+                // Counters trail writes by a rollup interval; a batch created just now is counted directly
+                counts = notificationDAO.countByBatchIdGroupedByStatus(batchId);
+                totalCount = counts.values().stream().mapToLong(Long::longValue).sum();
+            }
+            long sentCount = counts.getOrDefault(NotificationStatus.SENT, 0L);
+            long failedCount = counts.getOrDefault(NotificationStatus.FAILED, 0L);
+            long pendingCount = counts.getOrDefault(NotificationStatus.PENDING, 0L);
             
             if (totalCount == 0) {
                 return Response.status(Response.Status.NOT_FOUND)
@@ -118,4 +255,26 @@ public class BatchResource {
                 .build();
         }
     }
+    
+    // Canonical form only, so the same batch is never stored under two spellings
+    private static boolean isUuid(String value) {
+        try {
+            return UUID.fromString(value).toString().equals(value);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+    
+    private void persistChunk(List<NotificationMessage> chunk, String batchId, Date now) {
+        for (NotificationMessage notification : chunk) {
+            // Client ids are ignored, as on the single-notification endpoint
+            notification.setId(NotificationIds.newId(now));
+            notification.setBatchId(batchId);
+            notification.setCreatedAt(now);
+            notification.setUpdatedAt(now);
+            notification.setStatus(DateTimeUtil.isAfter(notification.getScheduledTime(), now)
+                ? NotificationStatus.SCHEDULED : NotificationStatus.PENDING);
+        }
+        notificationDAO.insertNotificationsWithOutbox(chunk);
+    }
 }
\ No newline at end of file
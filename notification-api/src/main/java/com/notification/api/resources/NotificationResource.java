@@ -1,14 +1,17 @@
 package com.notification.api.resources;
 
 import com.notification.api.auth.NotificationPrincipal;
+import com.notification.api.cache.NotificationCache;
 import com.notification.api.db.NotificationDAO;
+import com.notification.api.db.PageCursor;
+import com.notification.api.stats.CounterDAO;
+import com.notification.api.stats.StatsCache;
 import com.notification.common.model.NotificationMessage;
 import com.notification.common.enums.NotificationStatus;
 import com.notification.common.enums.NotificationChannel;
 import com.notification.common.util.DateTimeUtil;
+import com.notification.common.util.NotificationIds;
 import io.dropwizard.auth.Auth;
-import redis.clients.jedis.JedisPool;
-import redis.clients.jedis.Jedis;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
@@ -19,20 +22,25 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Path("/api/v1/notifications")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class NotificationResource {
     
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final NotificationDAO notificationDAO;
-    private final JedisPool jedisPool;
+    private final StatsCache statsCache;
+    private final NotificationCache notificationCache;
     
-    public NotificationResource(NotificationDAO notificationDAO, JedisPool jedisPool) {
+    public NotificationResource(NotificationDAO notificationDAO, StatsCache statsCache,
+                                NotificationCache notificationCache) {
         this.notificationDAO = notificationDAO;
-        this.jedisPool = jedisPool;
+        this.statsCache = statsCache;
+        this.notificationCache = notificationCache;
     }
     
     @POST
@@ -40,31 +48,27 @@ public class NotificationResource {
                                      @Valid @NotNull NotificationMessage notification,
                                      @Context UriInfo uriInfo) {
         try {
-            // Generate ID if not provided
-            if (notification.getId() == null) {
-                notification.setId(UUID.randomUUID().toString());
-            }
-            
             // Set defaults if not provided
             if (notification.getCreatedAt() == null) {
                 notification.setCreatedAt(DateTimeUtil.getCurrentTime());
             }
+            
+            // Always minted here: the key is (id, created_at), so a client-chosen id could be stored twice.
+            // The id embeds created_at so lookups by id can find the partition
+            notification.setId(NotificationIds.newId(notification.getCreatedAt()));
             if (notification.getUpdatedAt() == null) {
                 notification.setUpdatedAt(DateTimeUtil.getCurrentTime());
             }
             if (notification.getStatus() == null) {
                 notification.setStatus(NotificationStatus.PENDING);
             }
-            
-            // Insert into database
-            notificationDAO.insertNotification(notification);
-            
-            // Queue for processing using Redis
-            try (Jedis jedis = jedisPool.getResource()) {
-                String queueKey = "notification_queue:" + notification.getChannel().getValue();
-                jedis.lpush(queueKey, notification.getId());
+            if (DateTimeUtil.isAfter(notification.getScheduledTime(), DateTimeUtil.getCurrentTime())) {
+                notification.setStatus(NotificationStatus.SCHEDULED);
             }
             
+            // Insert into database; the outbox relay queues it in Redis
+            notificationDAO.insertNotificationWithOutbox(notification);
+            
             return Response.status(Response.Status.CREATED)
                 .entity(notification)
                 .build();
@@ -82,7 +86,8 @@ public class NotificationResource {
                                   @PathParam("id") @NotNull String id,
                                   @Context UriInfo uriInfo) {
         try {
-            Optional<NotificationMessage> notification = notificationDAO.findById(id);
+            // Status polling is served from the local and Redis caches; Postgres only sees misses
+            Optional<NotificationMessage> notification = notificationCache.get(id);
             
             if (notification.isPresent()) {
                 return Response.ok(notification.get()).build();
@@ -102,17 +107,33 @@ public class NotificationResource {
     @Path("/recipient/{recipientId}")
     public Response getNotificationsByRecipient(@Auth NotificationPrincipal user,
                                               @PathParam("recipientId") @NotNull String recipientId,
-                                              @DefaultValue("0") @QueryParam("offset") int offset,
+                                              @QueryParam("cursor") String cursor,
                                               @DefaultValue("20") @QueryParam("limit") int limit,
+                                              @DefaultValue("false") @QueryParam("includeTotal") boolean includeTotal,
                                               @Context UriInfo uriInfo) {
         try {
-            List<NotificationMessage> notifications = notificationDAO.findByRecipientId(recipientId, limit, offset);
-            long totalCount = notificationDAO.countByRecipientId(recipientId);
+            PageCursor after = cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor);
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
             
-            return Response.ok(notifications)
-                .header("X-Total-Count", totalCount)
-                .header("X-Offset", offset)
-                .header("X-Limit", limit)
+            // One extra row tells us whether there is a next page without counting
+            List<NotificationMessage> notifications = notificationDAO.findByRecipientId(recipientId, after, pageSize + 1);
+            boolean hasMore = notifications.size() > pageSize;
+            if (hasMore) {
+                notifications = notifications.subList(0, pageSize);
+            }
+            
+            Response.ResponseBuilder response = Response.ok(notifications)
+                .header("X-Limit", pageSize);
+            if (hasMore) {
+                response.header("X-Next-Cursor", PageCursor.after(notifications.get(pageSize - 1)).encode());
+            }
+            if (includeTotal) {
+                response.header("X-Total-Count", notificationDAO.countByRecipientId(recipientId));
+            }
+            return response.build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Invalid cursor: " + cursor + "\"}")
                 .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -167,11 +188,13 @@ public class NotificationResource {
             
             Date now = DateTimeUtil.getCurrentTime();
             
+            Date createdAt = existing.get().getCreatedAt();
             if (status == NotificationStatus.SENT) {
-                notificationDAO.markAsSent(id, status, now, now);
+                notificationDAO.markAsSent(id, createdAt, status, now, now);
             } else {
-                notificationDAO.updateStatus(id, status, now, errorMessage);
+                notificationDAO.updateStatus(id, createdAt, status, now, errorMessage);
             }
+            notificationCache.invalidate(id);
             
             return Response.ok("{\"message\": \"Status updated successfully\"}").build();
             
@@ -209,15 +232,9 @@ public class NotificationResource {
                     .build();
             }
             
-            // Update status to pending and increment retry count
-            notificationDAO.updateStatus(id, NotificationStatus.PENDING, DateTimeUtil.getCurrentTime(), null);
-            notificationDAO.incrementRetryCount(id, DateTimeUtil.getCurrentTime());
-            
-            // Re-queue for processing
-            try (Jedis jedis = jedisPool.getResource()) {
-                String queueKey = "notification_queue:" + notif.getChannel().getValue();
-                jedis.lpush(queueKey, id);
-            }
+            // Update status to pending, increment retry count and re-queue through the outbox
+            notificationDAO.requeueForRetry(notif, DateTimeUtil.getCurrentTime());
+            notificationCache.invalidate(id);
             
             return Response.ok("{\"message\": \"Notification queued for retry\"}").build();
             
@@ -231,13 +248,19 @@ public class NotificationResource {
     @GET
     @Path("/stats")
     public Response getNotificationStats(@Auth NotificationPrincipal user,
+                                       @QueryParam("channel") String channelStr,
                                        @Context UriInfo uriInfo) {
         try {
-            long pendingCount = notificationDAO.countByStatus(NotificationStatus.PENDING);
-            long processingCount = notificationDAO.countByStatus(NotificationStatus.PROCESSING);
-            long sentCount = notificationDAO.countByStatus(NotificationStatus.SENT);
-            long failedCount = notificationDAO.countByStatus(NotificationStatus.FAILED);
-            long scheduledCount = notificationDAO.countByStatus(NotificationStatus.SCHEDULED);
+            // Maintained counters, not a scan: O(1) whatever the table size
+            String scope = channelStr == null
+                ? CounterDAO.SCOPE_ALL
+                : CounterDAO.channelScope(NotificationChannel.fromValue(channelStr).name());
+            Map<NotificationStatus, Long> counts = statsCache.counts(scope);
+            long pendingCount = counts.getOrDefault(NotificationStatus.PENDING, 0L);
+            long processingCount = counts.getOrDefault(NotificationStatus.PROCESSING, 0L);
+            long sentCount = counts.getOrDefault(NotificationStatus.SENT, 0L);
+            long failedCount = counts.getOrDefault(NotificationStatus.FAILED, 0L);
+            long scheduledCount = counts.getOrDefault(NotificationStatus.SCHEDULED, 0L);
             
             String stats = String.format(
                 "{\"pending\": %d, \"processing\": %d, \"sent\": %d, \"failed\": %d, \"scheduled\": %d}",
@@ -246,6 +269,10 @@ public class NotificationResource {
             
             return Response.ok(stats).build();
             
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"error\": \"Invalid channel: " + channelStr + "\"}")
+                .build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                 .entity("{\"error\": \"Failed to retrieve stats: " + e.getMessage() + "\"}")
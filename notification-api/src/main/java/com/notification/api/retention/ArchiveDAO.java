@@ -0,0 +1,51 @@
+package com.notification.api.retention;
+
+import com.notification.common.enums.NotificationStatus;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public interface ArchiveDAO {
+
+    // Every terminal status, CANCELLED included; anything left behind would keep its partition from being dropped
+    List<String> TERMINAL_STATUSES = Arrays.stream(NotificationStatus.values())
+        .filter(NotificationStatus::isTerminal)
+        .map(NotificationStatus::name)
+        .collect(Collectors.toList());
+
+    // Rows the archiver may take: finished before the cutoff and not touched since the run started
+    String ARCHIVABLE = "created_at < :cutoff AND updated_at <= :snapshot AND status IN (<statuses>)";
+
+    // Raw rows plus their shared campaign content; read a segment at a time through a cursor by the archiver
+    String FROM_ARCHIVABLE = "SELECT n.*, c.title AS content_title, c.message AS content_message " +
+                             "FROM notifications n LEFT JOIN notification_content c ON c.content_hash = n.content_hash " +
+                             "WHERE n." + ARCHIVABLE.replace(" AND ", " AND n.");
+
+    // First segment of a run, oldest first
+    String SELECT_ARCHIVABLE = FROM_ARCHIVABLE + " ORDER BY n.created_at, n.id LIMIT :limit";
+
+    // Later segments restart after the previous segment's last (created_at, id); the plain created_at bound
+    // lets Postgres skip partitions that were already archived
+    String SELECT_ARCHIVABLE_AFTER = FROM_ARCHIVABLE + " AND n.created_at >= :afterCreatedAt " +
+                                     "AND (n.created_at, n.id) > (:afterCreatedAt, :afterId) " +
+                                     "ORDER BY n.created_at, n.id LIMIT :limit";
+
+    // Deletes up to :limit archivable rows within one written segment's (created_at, id) range
+    @SqlUpdate("DELETE FROM notifications WHERE (id, created_at) IN (" +
+               "SELECT id, created_at FROM notifications WHERE " + ARCHIVABLE + " " +
+               "AND (created_at, id) >= (:firstCreatedAt, :firstId) AND (created_at, id) <= (:lastCreatedAt, :lastId) " +
+               "LIMIT :limit)")
+    int deleteArchived(@BindList("statuses") List<String> statuses,
+                       @Bind("cutoff") Timestamp cutoff,
+                       @Bind("snapshot") Timestamp snapshot,
+                       @Bind("firstCreatedAt") Timestamp firstCreatedAt,
+                       @Bind("firstId") String firstId,
+                       @Bind("lastCreatedAt") Timestamp lastCreatedAt,
+                       @Bind("lastId") String lastId,
+                       @Bind("limit") int limit);
+}
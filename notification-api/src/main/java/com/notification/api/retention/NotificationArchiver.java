@@ -0,0 +1,228 @@
+package com.notification.api.retention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.notification.api.config.NotificationApiConfiguration.ArchiveConfig;
+import io.dropwizard.lifecycle.Managed;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.result.ResultIterator;
+import org.jdbi.v3.core.statement.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams finished (SENT, FAILED or CANCELLED) notifications older than olderThanDays out of Postgres through a cursor into
+ * gzip NDJSON segment files, and deletes each segment's rows in bounded chunks once the file is on
+ * disk and listed in index.ndjson. Each segment is read in its own short transaction, restarting
+ * after the previous segment's last (created_at, id), so no snapshot is held for the whole run.
+ * Memory stays flat however many rows qualify. A crash between the index entry and the delete
+ * archives those rows again on the next run.
+ */
+public class NotificationArchiver implements Managed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationArchiver.class);
+    private static final DateTimeFormatter RUN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    static final String INDEX_FILE = "index.ndjson";
+
+    private final Jdbi jdbi;
+    private final ObjectMapper objectMapper;
+    private final ArchiveConfig config;
+    private ScheduledExecutorService executor;
+
+    public NotificationArchiver(Jdbi jdbi, ObjectMapper objectMapper, ArchiveConfig config) {
+        this.jdbi = jdbi;
+        this.objectMapper = objectMapper;
+        this.config = config;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "notification-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::archive, 0, config.getIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void archive() {
+        try {
+            Path directory = Paths.get(config.getDirectory());
+            Files.createDirectories(directory);
+            Timestamp cutoff = Timestamp.valueOf(LocalDate.now().minusDays(config.getOlderThanDays()).atStartOfDay());
+            // Rows updated after this are left for the next run, so a delete never takes a row the file lacks
+            LocalDateTime started = LocalDateTime.now();
+            Timestamp snapshot = Timestamp.valueOf(started);
+            long start = System.currentTimeMillis();
+
+            long archived = archiveSegments(directory, RUN_FORMAT.format(started), cutoff, snapshot);
+            if (archived > 0) {
+                LOG.info("Archived and deleted {} notifications created before {} in {} ms",
+                    archived, cutoff, System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            LOG.warn("Notification archiving failed, retrying in {} ms: {}", config.getIntervalMs(), e.getMessage());
+        }
+    }
+
+    private long archiveSegments(Path directory, String runId, Timestamp cutoff, Timestamp snapshot) throws IOException {
+        long total = 0;
+        Segment previous = null;
+        for (int sequence = 0; ; sequence++) {
+            String name = String.format("notifications-%s-%04d.ndjson.gz", runId, sequence);
+            Segment after = previous;
+            // Postgres only reads through a cursor (honouring the fetch size) with autocommit off
+            Segment segment = jdbi.inTransaction(handle -> readSegment(handle, directory, name, cutoff, snapshot, after));
+            if (segment == null) {
+                return total;
+            }
+            total += finish(segment, directory, cutoff, snapshot);
+            if (segment.rows < config.getSegmentMaxRows()) {
+                return total;
+            }
+            previous = segment;
+        }
+    }
+
+    // Writes up to segmentMaxRows rows following the previous segment, or returns null when none are left
+    private Segment readSegment(Handle handle, Path directory, String name, Timestamp cutoff, Timestamp snapshot,
+                                Segment previous) throws IOException {
+        String sql = previous == null ? ArchiveDAO.SELECT_ARCHIVABLE : ArchiveDAO.SELECT_ARCHIVABLE_AFTER;
+        Query query = handle.createQuery(sql)
+            .bindList("statuses", ArchiveDAO.TERMINAL_STATUSES)
+            .bind("cutoff", cutoff)
+            .bind("snapshot", snapshot)
+            .bind("limit", config.getSegmentMaxRows());
+        if (previous != null) {
+            query.bind("afterCreatedAt", previous.lastCreatedAt).bind("afterId", previous.lastId);
+        }
+
+        Segment segment = null;
+        boolean complete = false;
+        try (ResultIterator<Map<String, Object>> rows = query.setFetchSize(config.getFetchSize()).mapToMap().iterator()) {
+            while (rows.hasNext()) {
+                Map<String, Object> row = rows.next();
+                if (segment == null) {
+                    segment = new Segment(directory, name);
+                }
+                segment.write(objectMapper.writeValueAsString(row), (Timestamp) row.get("created_at"), (String) row.get("id"));
+            }
+            complete = true;
+            return segment;
+        } finally {
+            if (segment != null && !complete) {
+                segment.abandon();
+            }
+        }
+    }
+
+    private long finish(Segment segment, Path directory, Timestamp cutoff, Timestamp snapshot) throws IOException {
+        long bytes = segment.close();
+
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("file", segment.file.getFileName().toString());
+        entry.put("rows", segment.rows);
+        entry.put("bytes", bytes);
+        entry.put("firstCreatedAt", segment.firstCreatedAt.toString());
+        entry.put("firstId", segment.firstId);
+        entry.put("lastCreatedAt", segment.lastCreatedAt.toString());
+        entry.put("lastId", segment.lastId);
+        entry.put("cutoff", cutoff.toString());
+        Files.write(directory.resolve(INDEX_FILE),
+            (objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+
+        // Each chunk commits on its own, so locks and the counter trigger's deltas stay small
+        ArchiveDAO dao = jdbi.onDemand(ArchiveDAO.class);
+        long deleted = 0;
+        int chunk;
+        do {
+            chunk = dao.deleteArchived(ArchiveDAO.TERMINAL_STATUSES, cutoff, snapshot, segment.firstCreatedAt, segment.firstId,
+                segment.lastCreatedAt, segment.lastId, config.getDeleteChunkSize());
+            deleted += chunk;
+        } while (chunk == config.getDeleteChunkSize());
+
+        LOG.info("Archived {} notifications to {}, deleted {}", segment.rows, segment.file.getFileName(), deleted);
+        return deleted;
+    }
+
+    // One gzip NDJSON file, written under a .part name and renamed once complete and synced
+    private static class Segment {
+        private final Path file;
+        private final Path partial;
+        private final FileOutputStream out;
+        private final GZIPOutputStream gzip;
+        private final Writer writer;
+        private long rows;
+        private Timestamp firstCreatedAt;
+        private String firstId;
+        private Timestamp lastCreatedAt;
+        private String lastId;
+
+        Segment(Path directory, String name) throws IOException {
+            this.file = directory.resolve(name);
+            this.partial = directory.resolve(name + ".part");
+            this.out = new FileOutputStream(partial.toFile());
+            this.gzip = new GZIPOutputStream(out, 64 * 1024);
+            this.writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        void write(String json, Timestamp createdAt, String id) throws IOException {
+            writer.write(json);
+            writer.write('\n');
+            if (rows == 0) {
+                firstCreatedAt = createdAt;
+                firstId = id;
+            }
+            lastCreatedAt = createdAt;
+            lastId = id;
+            rows++;
+        }
+
+        long close() throws IOException {
+            writer.flush();
+            gzip.finish();
+            out.getFD().sync();
+            writer.close();
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(file);
+        }
+
+        void abandon() {
+            try {
+                writer.close();
+                Files.deleteIfExists(partial);
+            } catch (IOException e) {
+                LOG.warn("Failed to remove partial archive segment {}: {}", partial, e.getMessage());
+            }
+        }
+    }
+}
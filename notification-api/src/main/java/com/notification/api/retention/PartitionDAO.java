@@ -0,0 +1,61 @@
+package com.notification.api.retention;
+
+import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.customizer.Define;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.List;
+
+// <partition> is always a name read from pg_inherits or built by PartitionMaintenance, never user input
+@RegisterBeanMapper(PartitionInfo.class)
+public interface PartitionDAO {
+
+    @SqlQuery("SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+              "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+              "WHERE i.inhparent = 'notifications'::regclass")
+    List<PartitionInfo> listPartitions();
+
+    @SqlQuery("SELECT to_regclass('<partition>') IS NOT NULL")
+    boolean exists(@Define("partition") String partition);
+
+    // Held until commit; blocks inserts that would land in the default partition and other instances' creates
+    @SqlUpdate("LOCK TABLE <partition> IN SHARE ROW EXCLUSIVE MODE")
+    void lockAgainstInserts(@Define("partition") String partition);
+
+    // Created standalone first, so rows already in the default partition can be moved in before attaching
+    @SqlUpdate("CREATE TABLE IF NOT EXISTS <partition> (LIKE notifications INCLUDING DEFAULTS INCLUDING CONSTRAINTS)")
+    void createDetached(@Define("partition") String partition);
+
+    @SqlUpdate("WITH moved AS (DELETE FROM <source> WHERE created_at >= '<from>' AND created_at < '<to>' " +
+               "RETURNING *) INSERT INTO <partition> SELECT * FROM moved")
+    int moveRows(@Define("source") String source, @Define("partition") String partition,
+                 @Define("from") String from, @Define("to") String to);
+
+    @SqlUpdate("ALTER TABLE notifications ATTACH PARTITION <partition> FOR VALUES FROM ('<from>') TO ('<to>')")
+    void attachPartition(@Define("partition") String partition, @Define("from") String from, @Define("to") String to);
+
+    @SqlQuery("SELECT EXISTS (SELECT 1 FROM <partition> WHERE status NOT IN ('SENT', 'FAILED', 'CANCELLED'))")
+    boolean hasUnfinished(@Define("partition") String partition);
+
+    @SqlQuery("SELECT EXISTS (SELECT 1 FROM <partition>)")
+    boolean hasRows(@Define("partition") String partition);
+
+    // Rows moved in from the default partition were uncounted by the trigger on delete; attaching doesn't count them
+    @SqlUpdate("INSERT INTO notification_counter_deltas (status, channel, batch_id, delta) " +
+               "SELECT status, channel, batch_id, CAST(COUNT(*) AS INTEGER) FROM <partition> " +
+               "GROUP BY status, channel, batch_id")
+    void count(@Define("partition") String partition);
+
+    // Dropping bypasses the row trigger, so the partition's rows are taken off the counters explicitly
+    @SqlUpdate("INSERT INTO notification_counter_deltas (status, channel, batch_id, delta) " +
+               "SELECT status, channel, batch_id, -CAST(COUNT(*) AS INTEGER) FROM <partition> " +
+               "GROUP BY status, channel, batch_id")
+    void uncount(@Define("partition") String partition);
+
+    @SqlUpdate("ALTER TABLE notifications DETACH PARTITION <partition>")
+    void detachPartition(@Define("partition") String partition);
+
+    @SqlUpdate("DROP TABLE <partition>")
+    void dropPartition(@Define("partition") String partition);
+}
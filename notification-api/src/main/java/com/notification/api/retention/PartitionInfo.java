@@ -0,0 +1,43 @@
+package com.notification.api.retention;
+
+import java.sql.Timestamp;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/** A partition of notifications and its bound, e.g. "FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-01-02 00:00:00')". */
+public class PartitionInfo {
+
+    private static final Pattern FROM = Pattern.compile("FROM \\('([^']+)'\\)");
+    private static final Pattern TO = Pattern.compile("TO \\('([^']+)'\\)");
+
+    private String name;
+    private String bound;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getBound() { return bound; }
+    public void setBound(String bound) { this.bound = bound; }
+
+    public boolean isDefault() {
+        return "DEFAULT".equals(bound);
+    }
+
+    /** Inclusive lower bound, or null for MINVALUE and the default partition. */
+    public Timestamp getFrom() {
+        return parse(FROM);
+    }
+
+    /** Exclusive upper bound, or null for the default partition. */
+    public Timestamp getTo() {
+        return parse(TO);
+    }
+
+    private Timestamp parse(Pattern pattern) {
+        if (bound == null) {
+            return null;
+        }
+        Matcher matcher = pattern.matcher(bound);
+        return matcher.find() ? Timestamp.valueOf(matcher.group(1)) : null;
+    }
+}
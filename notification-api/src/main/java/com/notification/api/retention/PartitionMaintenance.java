@@ -0,0 +1,174 @@
+package com.notification.api.retention;
+
+import com.notification.api.config.NotificationApiConfiguration.PartitionConfig;
+import io.dropwizard.lifecycle.Managed;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps notifications partitioned by created_at: creates partitions premakeDays ahead so inserts never
+ * land in the default partition, and once retentionDays is set, detaches or drops partitions that lie
+ * entirely before the cutoff. Rows that did land in the default partition, e.g. while maintenance was
+ * down, are moved into the new partition as it is created. Creation is serialized through a lock on
+ * the default partition, so several API instances can run this side by side. A partition still holding unfinished notifications is left in place;
+ * while the {@link NotificationArchiver} runs, so is any partition it has not yet emptied.
+ */
+public class PartitionMaintenance implements Managed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionMaintenance.class);
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public enum Interval {
+        DAILY(1),
+        WEEKLY(7);
+
+        private final int days;
+
+        Interval(int days) {
+            this.days = days;
+        }
+    }
+
+    public enum RetentionAction {
+        DETACH,
+        DROP
+    }
+
+    private final Jdbi jdbi;
+    private final PartitionConfig config;
+    private final boolean archiving;
+    private ScheduledExecutorService executor;
+
+    public PartitionMaintenance(Jdbi jdbi, PartitionConfig config, boolean archiving) {
+        this.jdbi = jdbi;
+        this.config = config;
+        this.archiving = archiving;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "partition-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::maintain, 0, config.getCheckIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void maintain() {
+        List<PartitionInfo> partitions;
+        try {
+            partitions = jdbi.withExtension(PartitionDAO.class, PartitionDAO::listPartitions);
+        } catch (Exception e) {
+            LOG.warn("Partition maintenance failed, retrying in {} ms: {}", config.getCheckIntervalMs(), e.getMessage());
+            return;
+        }
+        // A failed create must not stop retention, and the other way round
+        try {
+            createAhead(partitions);
+        } catch (Exception e) {
+            LOG.warn("Creating partitions failed, retrying in {} ms: {}", config.getCheckIntervalMs(), e.getMessage());
+        }
+        if (config.getRetentionDays() > 0) {
+            try {
+                expire(partitions);
+            } catch (Exception e) {
+                LOG.warn("Partition retention failed, retrying in {} ms: {}", config.getCheckIntervalMs(), e.getMessage());
+            }
+        }
+    }
+
+    private void createAhead(List<PartitionInfo> partitions) {
+        LocalDateTime next = null;
+        String defaultPartition = null;
+        for (PartitionInfo partition : partitions) {
+            if (partition.isDefault()) {
+                defaultPartition = partition.getName();
+            }
+            Timestamp to = partition.getTo();
+            if (to != null && (next == null || to.toLocalDateTime().isAfter(next))) {
+                next = to.toLocalDateTime();
+            }
+        }
+        if (next == null) {
+            next = LocalDate.now().atStartOfDay();
+        }
+
+        LocalDateTime horizon = LocalDate.now().plusDays(config.getPremakeDays() + 1).atStartOfDay();
+        while (next.isBefore(horizon)) {
+            LocalDateTime start = next;
+            LocalDateTime end = start.plusDays(config.getInterval().days);
+            String name = "notifications_p" + NAME_FORMAT.format(start);
+            createPartition(name, defaultPartition, BOUND_FORMAT.format(start), BOUND_FORMAT.format(end));
+            next = end;
+        }
+    }
+
+    private void createPartition(String name, String defaultPartition, String from, String to) {
+        jdbi.useTransaction(handle -> {
+            PartitionDAO dao = handle.attach(PartitionDAO.class);
+            if (defaultPartition != null) {
+                dao.lockAgainstInserts(defaultPartition);
+            }
+            if (dao.exists(name)) {
+                // Another instance got there first
+                return;
+            }
+            dao.createDetached(name);
+            // Attaching fails while the default partition holds rows of the new range
+            int moved = defaultPartition != null ? dao.moveRows(defaultPartition, name, from, to) : 0;
+            if (moved > 0) {
+                dao.count(name);
+                LOG.warn("Moved {} rows from {} into {}", moved, defaultPartition, name);
+            }
+            dao.attachPartition(name, from, to);
+            LOG.info("Created partition {} for [{}, {})", name, from, to);
+        });
+    }
+
+    private void expire(List<PartitionInfo> partitions) {
+        LocalDateTime cutoff = LocalDate.now().minusDays(config.getRetentionDays()).atStartOfDay();
+        for (PartitionInfo partition : partitions) {
+            Timestamp to = partition.getTo();
+            if (partition.isDefault() || to == null || to.toLocalDateTime().isAfter(cutoff)) {
+                continue;
+            }
+            String name = partition.getName();
+            boolean removed = jdbi.inTransaction(handle -> {
+                PartitionDAO dao = handle.attach(PartitionDAO.class);
+                if (archiving ? dao.hasRows(name) : dao.hasUnfinished(name)) {
+                    return false;
+                }
+                dao.uncount(name);
+                dao.detachPartition(name);
+                if (config.getRetentionAction() == RetentionAction.DROP) {
+                    dao.dropPartition(name);
+                }
+                return true;
+            });
+            if (removed) {
+                LOG.info("Retention: {} partition {} ({})", config.getRetentionAction(), name, partition.getBound());
+            } else {
+                LOG.warn("Retention: keeping partition {}, it still has {} notifications", name,
+                    archiving ? "unarchived" : "unfinished");
+            }
+        }
+    }
+}
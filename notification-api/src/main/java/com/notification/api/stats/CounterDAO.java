@@ -0,0 +1,84 @@
+package com.notification.api.stats;
+
+import com.notification.common.enums.NotificationStatus;
+import org.jdbi.v3.sqlobject.config.KeyColumn;
+import org.jdbi.v3.sqlobject.config.ValueColumn;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+
+import java.util.Map;
+
+public interface CounterDAO {
+
+    String SCOPE_ALL = "all";
+
+    static String channelScope(String channel) {
+        return "channel:" + channel;
+    }
+
+    static String batchScope(String batchId) {
+        return "batch:" + batchId;
+    }
+
+    @SqlQuery("SELECT status, count FROM notification_counters WHERE scope = :scope")
+    @KeyColumn("status")
+    @ValueColumn("count")
+    Map<NotificationStatus, Long> findCounts(@Bind("scope") String scope);
+
+    // Claims the oldest deltas (SKIP LOCKED, so several API instances can roll up side by side), deletes them and
+    // adds their sums to the counters, all in one statement. Upserts run in key order so concurrent rollups can't deadlock.
+    @SqlUpdate("WITH claimed AS (" +
+               "  SELECT id FROM notification_counter_deltas ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED" +
+               "), moved AS (" +
+               "  DELETE FROM notification_counter_deltas d USING claimed c WHERE d.id = c.id " +
+               "  RETURNING d.status, d.channel, d.batch_id, d.delta" +
+               "), sums AS (" +
+               "  SELECT 'all' AS scope, status, SUM(delta) AS delta FROM moved GROUP BY status" +
+               "  UNION ALL SELECT 'channel:' || channel, status, SUM(delta) FROM moved GROUP BY channel, status" +
+               "  UNION ALL SELECT 'batch:' || batch_id, status, SUM(delta) FROM moved " +
+               "    WHERE batch_id IS NOT NULL GROUP BY batch_id, status" +
+               ") " +
+               "INSERT INTO notification_counters (scope, status, count) " +
+               "SELECT scope, status, delta FROM sums WHERE delta <> 0 ORDER BY scope, status " +
+               "ON CONFLICT (scope, status) DO UPDATE SET count = notification_counters.count + EXCLUDED.count")
+    int rollUp(@Bind("limit") int limit);
+
+    @SqlQuery("SELECT COUNT(*) FROM notification_counter_deltas")
+    long countPendingDeltas();
+
+    // Keeps rollups out while the reconciliation reads; must run first in a REPEATABLE READ transaction
+    @SqlUpdate("LOCK TABLE notification_counters IN SHARE ROW EXCLUSIVE MODE")
+    void lockCounters();
+
+    // Sets every counter to what a full count says, minus the deltas not yet rolled up (they are already part of
+    // the count and will be added when the rollup reaches them). Returns the number of counters that had drifted.
+    @SqlUpdate("WITH actual AS (" +
+               "  SELECT 'all' AS scope, status, COUNT(*) AS n FROM notifications GROUP BY status" +
+               "  UNION ALL SELECT 'channel:' || channel, status, COUNT(*) FROM notifications GROUP BY channel, status" +
+               "  UNION ALL SELECT 'batch:' || batch_id, status, COUNT(*) FROM notifications " +
+               "    WHERE batch_id IS NOT NULL GROUP BY batch_id, status" +
+               "), pending AS (" +
+               "  SELECT 'all' AS scope, status, SUM(delta) AS n FROM notification_counter_deltas GROUP BY status" +
+               "  UNION ALL SELECT 'channel:' || channel, status, SUM(delta) FROM notification_counter_deltas " +
+               "    GROUP BY channel, status" +
+               "  UNION ALL SELECT 'batch:' || batch_id, status, SUM(delta) FROM notification_counter_deltas " +
+               "    WHERE batch_id IS NOT NULL GROUP BY batch_id, status" +
+               "), target AS (" +
+               "  SELECT scope, status, SUM(n) AS n FROM (" +
+               "    SELECT scope, status, n FROM actual" +
+               "    UNION ALL SELECT scope, status, -n FROM pending" +
+               "    UNION ALL SELECT scope, status, 0 FROM notification_counters" +
+               "  ) t GROUP BY scope, status" +
+               ") " +
+               "INSERT INTO notification_counters (scope, status, count) " +
+               "SELECT t.scope, t.status, t.n FROM target t " +
+               "LEFT JOIN notification_counters c ON c.scope = t.scope AND c.status = t.status " +
+               "WHERE c.count IS DISTINCT FROM t.n ORDER BY t.scope, t.status " +
+               "ON CONFLICT (scope, status) DO UPDATE SET count = EXCLUDED.count")
+    int reconcile();
+
+    // Batches whose notifications are all gone (retention) have nothing left to count
+    @SqlUpdate("DELETE FROM notification_counters WHERE scope LIKE 'batch:%' AND count = 0")
+    int deleteEmptyBatchCounters();
+}
@@ -0,0 +1,90 @@
+package com.notification.api.stats;
+
+import io.dropwizard.lifecycle.Managed;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.transaction.TransactionIsolationLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folds the deltas recorded by the notifications trigger into notification_counters, and
+ * periodically recounts from the notifications table to correct any drift. Both run on one
+ * thread; the reconciliation locks the counters, so rollups on other instances wait for it.
+ */
+public class CounterRollup implements Managed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CounterRollup.class);
+
+    // Bounds one round so a backlog is worked off in several short transactions
+    private static final int MAX_BATCHES_PER_ROUND = 100;
+
+    private final Jdbi jdbi;
+    private final int batchSize;
+    private final long rollupIntervalMs;
+    private final long reconcileIntervalMs;
+    private ScheduledExecutorService executor;
+
+    public CounterRollup(Jdbi jdbi, int batchSize, long rollupIntervalMs, long reconcileIntervalMs) {
+        this.jdbi = jdbi;
+        this.batchSize = batchSize;
+        this.rollupIntervalMs = rollupIntervalMs;
+        this.reconcileIntervalMs = reconcileIntervalMs;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "counter-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::rollUp, 0, rollupIntervalMs, TimeUnit.MILLISECONDS);
+        if (reconcileIntervalMs > 0) {
+            executor.scheduleWithFixedDelay(this::reconcile, reconcileIntervalMs, reconcileIntervalMs,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    void rollUp() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_ROUND; i++) {
+                if (jdbi.withExtension(CounterDAO.class, dao -> dao.rollUp(batchSize)) == 0) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            LOG.warn("Counter rollup failed, retrying in {} ms: {}", rollupIntervalMs, e.getMessage());
+        }
+    }
+
+    void reconcile() {
+        try {
+            long start = System.currentTimeMillis();
+            int drifted = jdbi.inTransaction(TransactionIsolationLevel.REPEATABLE_READ, handle -> {
+                CounterDAO dao = handle.attach(CounterDAO.class);
+                dao.lockCounters();
+                int corrected = dao.reconcile();
+                dao.deleteEmptyBatchCounters();
+                return corrected;
+            });
+            long elapsed = System.currentTimeMillis() - start;
+            if (drifted > 0) {
+                LOG.warn("Counter reconciliation corrected {} drifted counters in {} ms", drifted, elapsed);
+            } else {
+                LOG.info("Counter reconciliation found no drift in {} ms", elapsed);
+            }
+        } catch (Exception e) {
+            LOG.warn("Counter reconciliation failed, retrying in {} ms: {}", reconcileIntervalMs, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.notification.api.stats;
+
+import com.notification.common.enums.NotificationStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-status counts kept in memory for a few seconds, so dashboards polling the stats endpoints
+ * share one counter read per scope and TTL instead of issuing one each.
+ */
+public class StatsCache {
+
+    private final CounterDAO counterDAO;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public StatsCache(CounterDAO counterDAO, long ttlMs, int maxEntries) {
+        this(counterDAO, ttlMs, maxEntries, System::currentTimeMillis);
+    }
+
+    StatsCache(CounterDAO counterDAO, long ttlMs, int maxEntries, LongSupplier clock) {
+        this.counterDAO = counterDAO;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    /** Counts for a scope from {@link CounterDAO}; statuses without notifications are absent. */
+    public Map<NotificationStatus, Long> counts(String scope) {
+        Entry entry = entries.get(scope);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(scope, k -> new Entry());
+            trim();
+        }
+        return entry.get(() -> counterDAO.findCounts(scope));
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public int size() { return entries.size(); }
+
+    private void trim() {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        long now = clock.getAsLong();
+        entries.values().removeIf(e -> e.isExpired(now));
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private final class Entry {
+        private volatile Map<NotificationStatus, Long> counts;
+        private volatile long expiresAt;
+
+        boolean isExpired(long now) {
+            return counts == null || now >= expiresAt;
+        }
+
+        Map<NotificationStatus, Long> get(Supplier<Map<NotificationStatus, Long>> loader) {
+            Map<NotificationStatus, Long> current = counts;
+            if (current != null && clock.getAsLong() < expiresAt) {
+                hits.incrementAndGet();
+                return current;
+            }
+            // One caller reloads an expired key; the rest wait for it rather than query too
+            synchronized (this) {
+                current = counts;
+                if (current != null && clock.getAsLong() < expiresAt) {
+                    hits.incrementAndGet();
+                    return current;
+                }
+                misses.incrementAndGet();
+                Map<NotificationStatus, Long> loaded = new EnumMap<>(NotificationStatus.class);
+                loaded.putAll(loader.get());
+                current = Collections.unmodifiableMap(loaded);
+                expiresAt = clock.getAsLong() + ttlMs;
+                counts = current;
+                return current;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+-- Rows written in the same transaction as the notification insert/requeue and
+-- deleted by the outbox relay once the id has been pushed to Redis
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    notification_id VARCHAR(36) NOT NULL,
+    channel VARCHAR(50) NOT NULL,
+    priority VARCHAR(20) NOT NULL DEFAULT 'MEDIUM',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,2 @@
+-- Future-dated notifications are relayed into the scheduled set instead of a channel queue
+ALTER TABLE notification_outbox ADD COLUMN scheduled_time TIMESTAMP;
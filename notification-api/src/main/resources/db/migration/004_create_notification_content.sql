@@ -0,0 +1,25 @@
+-- Content shared by every notification of a campaign, stored once and addressed by its SHA-256
+CREATE TABLE IF NOT EXISTS notification_content (
+    content_hash VARCHAR(64) PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    message TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Campaign rows reference the shared content instead of carrying their own copy,
+-- plus the recipient's placeholder values as a small JSON object
+ALTER TABLE notifications ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE notifications ADD COLUMN template_data TEXT;
+ALTER TABLE notifications ALTER COLUMN title DROP NOT NULL;
+ALTER TABLE notifications ALTER COLUMN message DROP NOT NULL;
+
+-- Read model for the API: shared content appears as the row's own title and message (unrendered)
+CREATE VIEW notification_details AS
+SELECT n.id,
+       COALESCE(n.title, c.title) AS title,
+       COALESCE(n.message, c.message) AS message,
+       n.channel, n.priority, n.status, n.recipient_id, n.recipient_email, n.recipient_phone,
+       n.recipient_slack_channel, n.template_id, n.batch_id, n.scheduled_time, n.created_at,
+       n.updated_at, n.sent_at, n.retry_count, n.error_message, n.content_hash
+FROM notifications n
+LEFT JOIN notification_content c ON c.content_hash = n.content_hash;
@@ -0,0 +1,6 @@
+-- Recipient history is paged by (created_at, id) descending; with this index every page is a
+-- bounded range scan that starts at the cursor, however deep it is
+CREATE INDEX idx_notifications_recipient_created_id ON notifications(recipient_id, created_at DESC, id DESC);
+
+-- Its recipient_id prefix serves the lookups the single-column index was used for
+DROP INDEX IF EXISTS idx_notifications_recipient_id;
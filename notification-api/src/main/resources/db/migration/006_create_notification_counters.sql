@@ -0,0 +1,48 @@
+-- Status counts kept per scope so the stats endpoints read a handful of rows instead of counting notifications.
+-- scope is 'all', 'channel:<CHANNEL>' or 'batch:<batch_id>'.
+CREATE TABLE IF NOT EXISTS notification_counters (
+    scope VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (scope, status)
+);
+
+-- Every status change appends its +1/-1 here in the writer's own transaction. Appends never wait on each other;
+-- the API's counter rollup folds them into notification_counters in batches.
+CREATE TABLE IF NOT EXISTS notification_counter_deltas (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status VARCHAR(20) NOT NULL,
+    channel VARCHAR(50) NOT NULL,
+    batch_id VARCHAR(36),
+    delta INTEGER NOT NULL
+);
+
+-- A trigger rather than DAO code, so processor updates, campaign inserts and retention deletes are counted too
+CREATE OR REPLACE FUNCTION record_notification_counter_delta() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE' AND OLD.status IS NOT DISTINCT FROM NEW.status THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO notification_counter_deltas (status, channel, batch_id, delta)
+        VALUES (OLD.status, OLD.channel, OLD.batch_id, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO notification_counter_deltas (status, channel, batch_id, delta)
+        VALUES (NEW.status, NEW.channel, NEW.batch_id, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER notifications_counter_delta
+AFTER INSERT OR DELETE OR UPDATE OF status ON notifications
+FOR EACH ROW EXECUTE FUNCTION record_notification_counter_delta();
+
+-- Starting values for rows that already exist
+INSERT INTO notification_counters (scope, status, count)
+SELECT 'all', status, COUNT(*) FROM notifications GROUP BY status
+UNION ALL
+SELECT 'channel:' || channel, status, COUNT(*) FROM notifications GROUP BY channel, status
+UNION ALL
+SELECT 'batch:' || batch_id, status, COUNT(*) FROM notifications WHERE batch_id IS NOT NULL GROUP BY batch_id, status;
@@ -0,0 +1,77 @@
+-- Range-partition notifications by created_at so retention drops whole partitions instead of deleting rows.
+-- The existing table is kept as-is and attached as notifications_legacy, covering everything before the first
+-- daily partition; no rows are copied. The API's partition maintenance creates partitions ahead of time.
+
+DROP VIEW notification_details;
+DROP TRIGGER notifications_counter_delta ON notifications;
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER TABLE notifications_legacy RENAME CONSTRAINT notifications_pkey TO notifications_legacy_pkey;
+ALTER INDEX idx_notifications_status RENAME TO idx_notifications_legacy_status;
+ALTER INDEX idx_notifications_channel RENAME TO idx_notifications_legacy_channel;
+ALTER INDEX idx_notifications_batch_id RENAME TO idx_notifications_legacy_batch_id;
+ALTER INDEX idx_notifications_scheduled_time RENAME TO idx_notifications_legacy_scheduled_time;
+ALTER INDEX idx_notifications_created_at RENAME TO idx_notifications_legacy_created_at;
+ALTER INDEX idx_notifications_priority_created RENAME TO idx_notifications_legacy_priority_created;
+ALTER INDEX idx_notifications_channel_status RENAME TO idx_notifications_legacy_channel_status;
+ALTER INDEX idx_notifications_status_retry RENAME TO idx_notifications_legacy_status_retry;
+ALTER INDEX idx_notifications_failed_retry RENAME TO idx_notifications_legacy_failed_retry;
+ALTER INDEX idx_notifications_scheduled_ready RENAME TO idx_notifications_legacy_scheduled_ready;
+ALTER INDEX idx_notifications_recipient_created_id RENAME TO idx_notifications_legacy_recipient_created_id;
+
+CREATE TABLE notifications (LIKE notifications_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+PARTITION BY RANGE (created_at);
+
+-- The partition key has to be part of the primary key; ids are UUIDs, so id alone stays unique in practice
+ALTER TABLE notifications ADD PRIMARY KEY (id, created_at);
+
+-- Same indexes as before, now partitioned; attaching the legacy table adopts its matching indexes
+CREATE INDEX idx_notifications_status ON notifications(status);
+CREATE INDEX idx_notifications_channel ON notifications(channel);
+CREATE INDEX idx_notifications_batch_id ON notifications(batch_id);
+CREATE INDEX idx_notifications_scheduled_time ON notifications(scheduled_time);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
+CREATE INDEX idx_notifications_priority_created ON notifications(priority, created_at);
+CREATE INDEX idx_notifications_channel_status ON notifications(channel, status);
+CREATE INDEX idx_notifications_status_retry ON notifications(status, retry_count);
+CREATE INDEX idx_notifications_failed_retry ON notifications(updated_at) WHERE status = 'FAILED';
+CREATE INDEX idx_notifications_scheduled_ready ON notifications(scheduled_time) WHERE status = 'SCHEDULED';
+CREATE INDEX idx_notifications_recipient_created_id ON notifications(recipient_id, created_at DESC, id DESC);
+
+-- Legacy covers every existing row (including any future-dated created_at); daily partitions follow it
+DO $$
+DECLARE
+    boundary TIMESTAMP;
+    day_start TIMESTAMP;
+BEGIN
+    SELECT GREATEST(date_trunc('day', LOCALTIMESTAMP) + INTERVAL '1 day',
+                    COALESCE(date_trunc('day', MAX(created_at)) + INTERVAL '1 day', LOCALTIMESTAMP))
+      INTO boundary
+      FROM notifications_legacy;
+
+    EXECUTE format('ALTER TABLE notifications ATTACH PARTITION notifications_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+                   boundary);
+
+    FOR i IN 0..6 LOOP
+        day_start := boundary + i * INTERVAL '1 day';
+        EXECUTE format('CREATE TABLE %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(day_start, 'YYYYMMDD'), day_start, day_start + INTERVAL '1 day');
+    END LOOP;
+END $$;
+
+-- Catches rows outside every range (e.g. if maintenance stopped) instead of failing the insert
+CREATE TABLE notifications_default PARTITION OF notifications DEFAULT;
+
+CREATE VIEW notification_details AS
+SELECT n.id,
+       COALESCE(n.title, c.title) AS title,
+       COALESCE(n.message, c.message) AS message,
+       n.channel, n.priority, n.status, n.recipient_id, n.recipient_email, n.recipient_phone,
+       n.recipient_slack_channel, n.template_id, n.batch_id, n.scheduled_time, n.created_at,
+       n.updated_at, n.sent_at, n.retry_count, n.error_message, n.content_hash
+FROM notifications n
+LEFT JOIN notification_content c ON c.content_hash = n.content_hash;
+
+CREATE TRIGGER notifications_counter_delta
+AFTER INSERT OR DELETE OR UPDATE OF status ON notifications
+FOR EACH ROW EXECUTE FUNCTION record_notification_counter_delta();
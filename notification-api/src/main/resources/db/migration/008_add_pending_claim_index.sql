@@ -0,0 +1,4 @@
+-- Serves the processor's DATABASE transport, which claims PENDING rows per channel and priority, oldest first,
+-- with FOR UPDATE SKIP LOCKED. Partial, so rows leave the index as soon as they are claimed.
+CREATE INDEX IF NOT EXISTS idx_notifications_pending_claim
+ON notifications(channel, priority, created_at) WHERE status = 'PENDING';
@@ -0,0 +1,3 @@
+-- The relay puts the notification's created_at into the queue entry, so the processor can address the row's
+-- partition instead of probing every one. Rows relayed before this column existed go out as a bare id.
+ALTER TABLE notification_outbox ADD COLUMN notification_created_at TIMESTAMP;
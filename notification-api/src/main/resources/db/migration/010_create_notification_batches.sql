@@ -0,0 +1,6 @@
+-- Who created each batch, so a caller-supplied batch id cannot add rows to another caller's batch
+CREATE TABLE IF NOT EXISTS notification_batches (
+    batch_id VARCHAR(36) PRIMARY KEY,
+    owner VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,4 @@
+-- The relay routes by the status the row was stored with: a SCHEDULED row goes through the scheduled set
+-- even when it is already due, so the scheduler's promotion is the only path to a channel queue.
+-- Rows written before this column existed are routed by their scheduled time.
+ALTER TABLE notification_outbox ADD COLUMN notification_status VARCHAR(20);
@@ -0,0 +1,163 @@
+package com.notification.api.cache;
+
+import com.codahale.metrics.Timer;
+import com.notification.api.db.NotificationDAO;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import io.dropwizard.jackson.Jackson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationCacheTest {
+
+    @Mock
+    private NotificationDAO notificationDAO;
+
+    @Mock
+    private JedisPool jedisPool;
+
+    @Mock
+    private Jedis jedis;
+
+    @Mock
+    private Pipeline pipeline;
+
+    private NotificationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(jedisPool.getResource()).thenReturn(jedis);
+        lenient().when(jedis.pipelined()).thenReturn(pipeline);
+        cache = new NotificationCache(notificationDAO, jedisPool, Jackson.newObjectMapper(),
+            100, 60_000, 10, 300, new Timer());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void get_LoadsOnceAndServesRepeatsLocally() throws Exception {
+        // Given
+        NotificationMessage notification = new NotificationMessage("Title", "Message", NotificationChannel.EMAIL, "user1");
+        notification.setId("n1");
+        notification.setStatus(NotificationStatus.SENT);
+        when(jedis.hgetAll("notification_cache:n1")).thenReturn(Collections.emptyMap());
+        when(jedis.get("notification_cache_version:n1")).thenReturn("4");
+        when(jedis.eval(anyString(), anyList(), anyList())).thenReturn(1L);
+        when(notificationDAO.findById("n1")).thenReturn(Optional.of(notification));
+
+        // When
+        cache.get("n1");
+        Optional<NotificationMessage> second = cache.get("n1");
+
+        // Then
+        assertEquals("n1", second.get().getId());
+        verify(notificationDAO, times(1)).findById("n1");
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedis).eval(anyString(), eq(List.of("notification_cache:n1", "notification_cache_version:n1")),
+            args.capture());
+        List<String> stored = args.getValue();
+        assertEquals("4", stored.get(0));
+        assertEquals("300", stored.get(1));
+        int status = stored.indexOf("status");
+        assertEquals("\"SENT\"", stored.get(status + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void get_CachesRetryableFailuresWithTheActiveTtl() throws Exception {
+        NotificationMessage notification = new NotificationMessage("Title", "Message", NotificationChannel.EMAIL, "user1");
+        notification.setId("n4");
+        notification.setStatus(NotificationStatus.FAILED);
+        when(jedis.hgetAll("notification_cache:n4")).thenReturn(Collections.emptyMap());
+        when(jedis.eval(anyString(), anyList(), anyList())).thenReturn(1L);
+        when(notificationDAO.findById("n4")).thenReturn(Optional.of(notification));
+
+        cache.get("n4");
+
+        ArgumentCaptor<List<String>> args = ArgumentCaptor.forClass(List.class);
+        verify(jedis).eval(anyString(), anyList(), args.capture());
+        assertEquals("", args.getValue().get(0));
+        assertEquals("10", args.getValue().get(1));
+    }
+
+    @Test
+    void get_KeepsNoCopyOfARowThatChangedDuringTheLoad() throws Exception {
+        NotificationMessage notification = new NotificationMessage("Title", "Message", NotificationChannel.EMAIL, "user1");
+        notification.setId("n5");
+        when(jedis.hgetAll("notification_cache:n5")).thenReturn(Collections.emptyMap());
+        // The version moved between the read and the store, so the script refuses the write
+        when(jedis.eval(anyString(), anyList(), anyList())).thenReturn(0L);
+        when(notificationDAO.findById("n5")).thenReturn(Optional.of(notification));
+
+        assertEquals("n5", cache.get("n5").get().getId());
+        assertEquals("n5", cache.get("n5").get().getId());
+
+        verify(notificationDAO, times(2)).findById("n5");
+    }
+
+    @Test
+    void get_DecodesRedisHashWithoutQueryingDatabase() throws Exception {
+        when(jedis.hgetAll("notification_cache:n2")).thenReturn(Map.of(
+            "id", "\"n2\"", "status", "\"PENDING\"", "channel", "\"SMS\"", "retryCount", "2"));
+
+        NotificationMessage notification = cache.get("n2").get();
+
+        assertEquals(NotificationStatus.PENDING, notification.getStatus());
+        assertEquals(NotificationChannel.SMS, notification.getChannel());
+        assertEquals(2, notification.getRetryCount());
+        verify(notificationDAO, never()).findById(anyString());
+    }
+
+    @Test
+    void get_DoesNotCacheMissingRows() throws Exception {
+        when(jedis.hgetAll(anyString())).thenReturn(Collections.emptyMap());
+        when(notificationDAO.findById("missing")).thenReturn(Optional.empty());
+
+        assertFalse(cache.get("missing").isPresent());
+        assertFalse(cache.get("missing").isPresent());
+
+        verify(notificationDAO, times(2)).findById("missing");
+        verify(jedis, never()).eval(anyString(), anyList(), anyList());
+    }
+
+    @Test
+    void invalidate_DropsLocalCopyAndRedisHash() throws Exception {
+        when(jedis.hgetAll(anyString())).thenReturn(Collections.emptyMap());
+        NotificationMessage notification = new NotificationMessage("Title", "Message", NotificationChannel.EMAIL, "user1");
+        notification.setId("n3");
+        when(notificationDAO.findById("n3")).thenReturn(Optional.of(notification));
+        when(jedis.eval(anyString(), anyList(), anyList())).thenReturn(1L);
+
+        cache.get("n3");
+        cache.invalidate("n3");
+        cache.get("n3");
+
+        verify(pipeline).incr("notification_cache_version:n3");
+        verify(pipeline).del("notification_cache:n3");
+        verify(notificationDAO, times(2)).findById("n3");
+    }
+}
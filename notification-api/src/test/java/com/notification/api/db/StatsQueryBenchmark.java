@@ -0,0 +1,94 @@
+package com.notification.api.db;
+
+import com.notification.common.enums.NotificationStatus;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// ./gradlew :notification-api:benchmark -Dbenchmark.rows=5000000
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatsQueryBenchmark {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+    private static final int BATCHES = 100;
+    private static final int ITERATIONS = 10;
+
+    private Handle keepAlive;
+    private NotificationDAO dao;
+
+    @BeforeAll
+    void setUp() {
+        Jdbi jdbi = Jdbi.create("jdbc:h2:mem:stats;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        keepAlive = jdbi.open();
+        keepAlive.execute("CREATE TABLE notifications (id VARCHAR(36) PRIMARY KEY, title VARCHAR(255), " +
+            "message TEXT, channel VARCHAR(50) NOT NULL, status VARCHAR(20) NOT NULL, " +
+            "recipient_id VARCHAR(255) NOT NULL, batch_id VARCHAR(36), " +
+            "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        keepAlive.createUpdate("INSERT INTO notifications (id, title, message, channel, status, recipient_id, batch_id) " +
+                "SELECT CAST(X AS VARCHAR), 'Title', 'Message', 'EMAIL', " +
+                "CASE MOD(X, 10) WHEN 0 THEN 'FAILED' WHEN 1 THEN 'PENDING' WHEN 2 THEN 'PROCESSING' " +
+                "WHEN 3 THEN 'SCHEDULED' ELSE 'SENT' END, 'user' || MOD(X, 10000), 'batch-' || MOD(X, :batches) " +
+                "FROM SYSTEM_RANGE(1, :rows)")
+            .bind("rows", ROWS)
+            .bind("batches", BATCHES)
+            .execute();
+        // Same indexes as 001_create_notifications_table.sql
+        keepAlive.execute("CREATE INDEX idx_notifications_status ON notifications(status)");
+        keepAlive.execute("CREATE INDEX idx_notifications_batch_id ON notifications(batch_id)");
+        dao = jdbi.onDemand(NotificationDAO.class);
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (keepAlive != null) {
+            keepAlive.close();
+        }
+    }
+
+    @Test
+    void compareBatchCountsWithGroupBy() {
+        String batchId = "batch-7";
+        Map<NotificationStatus, Long> grouped = dao.countByBatchIdGroupedByStatus(batchId);
+        assertEquals(dao.countByBatchId(batchId), grouped.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(dao.countByBatchIdAndStatus(batchId, NotificationStatus.FAILED),
+            grouped.getOrDefault(NotificationStatus.FAILED, 0L));
+
+        double perStatus = millisPerCall(() -> perStatusBatchCounts(batchId));
+        double groupedMs = millisPerCall(() -> dao.countByBatchIdGroupedByStatus(batchId).size());
+
+        System.out.printf("batch of %,d rows%n", ROWS / BATCHES);
+        System.out.printf("batch stats, 4 x COUNT(*):          %8.1f ms%n", perStatus);
+        System.out.printf("batch stats, GROUP BY status:       %8.1f ms%n", groupedMs);
+    }
+
+    private long perStatusBatchCounts(String batchId) {
+        long total = dao.countByBatchId(batchId);
+        dao.countByBatchIdAndStatus(batchId, NotificationStatus.SENT);
+        dao.countByBatchIdAndStatus(batchId, NotificationStatus.FAILED);
+        dao.countByBatchIdAndStatus(batchId, NotificationStatus.PENDING);
+        return total;
+    }
+
+    private static double millisPerCall(Supplier<?> call) {
+        for (int i = 0; i < 3; i++) {
+            call.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.get();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
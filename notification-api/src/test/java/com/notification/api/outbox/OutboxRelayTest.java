@@ -0,0 +1,120 @@
+package com.notification.api.outbox;
+
+import com.notification.api.queue.NotificationQueue;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.enums.NotificationPriority;
+import com.notification.common.enums.NotificationStatus;
+import com.notification.common.model.NotificationMessage;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private NotificationQueue notificationQueue;
+
+    private Jdbi jdbi;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jdbi = Jdbi.create("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        migrate("/db/migration/002_create_notification_outbox.sql");
+        migrate("/db/migration/003_add_outbox_scheduled_time.sql");
+        migrate("/db/migration/009_add_outbox_notification_created_at.sql");
+        migrate("/db/migration/011_add_outbox_notification_status.sql");
+    }
+
+    private void migrate(String resource) throws Exception {
+        try (InputStream in = getClass().getResourceAsStream(resource)) {
+            String ddl = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            jdbi.useHandle(handle -> handle.createScript(ddl).execute());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void relayBatch_EnqueuesAndDeletesClaimedRows() {
+        // Given
+        insertOutboxRows(5);
+        OutboxRelay relay = new OutboxRelay(jdbi, notificationQueue, 3, 100);
+
+        // When
+        relay.drain();
+
+        // Then
+        ArgumentCaptor<List<NotificationMessage>> enqueued = ArgumentCaptor.forClass(List.class);
+        verify(notificationQueue, times(2)).enqueueAll(enqueued.capture());
+        assertEquals(3, enqueued.getAllValues().get(0).size());
+        assertEquals(2, enqueued.getAllValues().get(1).size());
+        NotificationMessage first = enqueued.getAllValues().get(0).get(0);
+        assertEquals("n0", first.getId());
+        assertEquals(0L, first.getCreatedAt().getTime());
+        assertEquals(NotificationChannel.SMS, first.getChannel());
+        assertEquals(NotificationPriority.HIGH, first.getPriority());
+        assertEquals(0, jdbi.onDemand(OutboxDAO.class).countPending());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void relayBatch_PassesTheStoredStatus_SoDueScheduledRowsStayDeferred() {
+        // Given: stored as SCHEDULED, but already due by the time it is relayed
+        jdbi.useHandle(handle -> handle.execute("INSERT INTO notification_outbox (notification_id, " +
+            "notification_created_at, channel, priority, scheduled_time, notification_status) VALUES (?, ?, ?, ?, ?, ?)",
+            "n0", new Timestamp(0), "SMS", "HIGH", new Timestamp(1000), "SCHEDULED"));
+        OutboxRelay relay = new OutboxRelay(jdbi, notificationQueue, 10, 100);
+
+        // When
+        relay.drain();
+
+        // Then
+        ArgumentCaptor<List<NotificationMessage>> enqueued = ArgumentCaptor.forClass(List.class);
+        verify(notificationQueue).enqueueAll(enqueued.capture());
+        NotificationMessage relayed = enqueued.getValue().get(0);
+        assertEquals(NotificationStatus.SCHEDULED, relayed.getStatus());
+        assertTrue(NotificationQueue.isDeferred(relayed, System.currentTimeMillis()));
+    }
+
+    @Test
+    void relayBatch_KeepsRowsWhenEnqueueFails() {
+        // Given
+        insertOutboxRows(2);
+        doThrow(new RuntimeException("redis down")).when(notificationQueue).enqueueAll(anyList());
+        OutboxRelay relay = new OutboxRelay(jdbi, notificationQueue, 10, 100);
+
+        // When
+        relay.drain();
+
+        // Then
+        assertEquals(2, jdbi.onDemand(OutboxDAO.class).countPending());
+    }
+
+    private void insertOutboxRows(int count) {
+        jdbi.useHandle(handle -> {
+            for (int i = 0; i < count; i++) {
+                handle.execute("INSERT INTO notification_outbox (notification_id, notification_created_at, channel, " +
+                    "priority) VALUES (?, ?, ?, ?)", "n" + i, new Timestamp(1000L * i), "SMS", "HIGH");
+            }
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package com.notification.api.resources;
+
+import com.notification.api.auth.NotificationPrincipal;
+import com.notification.api.batch.CampaignRecipient;
+import com.notification.api.batch.CampaignRequest;
+import com.notification.api.db.NotificationDAO;
+import com.notification.api.stats.CounterDAO;
+import com.notification.api.stats.StatsCache;
+import com.notification.common.enums.NotificationChannel;
+import com.notification.common.model.NotificationMessage;
+import io.dropwizard.jackson.Jackson;
+import io.dropwizard.validation.BaseValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchResourceTest {
+
+    @Mock
+    private NotificationDAO notificationDAO;
+
+    @Mock
+    private CounterDAO counterDAO;
+
+    private BatchResource batchResource;
+
+    @BeforeEach
+    void setUp() {
+        batchResource = new BatchResource(notificationDAO, 1000, 4096,
+            Jackson.newObjectMapper(), BaseValidator.newValidator(), new StatsCache(counterDAO, 5000, 100));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void createBatch_InsertsWithOutboxInChunks() {
+        // Given
+        List<NotificationMessage> notifications = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            notifications.add(new NotificationMessage("Title", "Message", NotificationChannel.EMAIL, "user" + i));
+        }
+
+        // When
+        Response response = batchResource.createBatch(new NotificationPrincipal("testUser", "TEST"), notifications, null);
+
+        // Then
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+
+        ArgumentCaptor<List<NotificationMessage>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(notificationDAO, times(3)).insertNotificationsWithOutbox(inserted.capture());
+        assertEquals(List.of(1000, 1000, 500), chunkSizes(inserted.getAllValues()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void createCampaign_StoresContentOnceAndRowsWithoutBody() {
+        // Given
+        CampaignRequest campaign = new CampaignRequest();
+        campaign.setTitle("Hello {{name}}");
+        campaign.setMessage("Your code is {{code}}");
+        campaign.setChannel(NotificationChannel.EMAIL);
+        List<CampaignRecipient> recipients = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            CampaignRecipient recipient = new CampaignRecipient();
+            recipient.setRecipientId("user" + i);
+            recipient.setRecipientEmail("user" + i + "@example.com");
+            recipient.setData(i == 0 ? Map.of("name", "Ada") : null);
+            recipients.add(recipient);
+        }
+        campaign.setRecipients(recipients);
+
+        // When
+        Response response = batchResource.createCampaign(new NotificationPrincipal("testUser", "TEST"), campaign, null);
+
+        // Then
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        String hash = campaign.contentHash();
+        assertEquals(64, hash.length());
+        verify(notificationDAO).insertContent(eq(hash), eq("Hello {{name}}"), eq("Your code is {{code}}"), any());
+
+        ArgumentCaptor<List<NotificationMessage>> rows = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<String>> data = ArgumentCaptor.forClass(List.class);
+        verify(notificationDAO, times(2)).insertSharedContentNotificationsWithOutbox(rows.capture(), data.capture());
+        assertEquals(List.of(1000, 500), chunkSizes(rows.getAllValues()));
+        NotificationMessage first = rows.getAllValues().get(0).get(0);
+        assertEquals(hash, first.getContentHash());
+        assertNull(first.getMessage());
+        assertEquals("{\"name\":\"Ada\"}", data.getAllValues().get(0).get(0));
+        assertNull(data.getAllValues().get(0).get(1));
+    }
+
+    @Test
+    void createBatchFromStream_PersistsValidRecordsInChunksAndReportsRejected() {
+        // Given
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            ndjson.append("{\"title\":\"Title\",\"message\":\"Message\",\"channel\":\"EMAIL\",")
+                .append("\"priority\":\"HIGH\",\"recipientId\":\"user").append(i).append("\"}\n");
+        }
+        ndjson.append("{\"title\":\"Title\",\"channel\":\"EMAIL\",\"priority\":\"HIGH\",\"recipientId\":\"user\"}\n");
+
+        String batchId = "0b8f3c5e-6a1d-4f2e-9c3b-7d5e1a2f4c6b";
+        when(notificationDAO.claimBatch(eq(batchId), eq("testUser"), any())).thenReturn(true);
+
+        // The reader reuses its chunk buffer, so record sizes at call time
+        List<Integer> inserted = new ArrayList<>();
+        doAnswer(invocation -> inserted.add(invocation.<List<?>>getArgument(0).size()))
+            .when(notificationDAO).insertNotificationsWithOutbox(anyList());
+
+        // When
+        Response response = batchResource.createBatchFromStream(new NotificationPrincipal("testUser", "TEST"), batchId,
+            new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        assertEquals(List.of(1000, 1000, 500), inserted);
+        String body = (String) response.getEntity();
+        assertTrue(body.contains("\"accepted\": 2500"));
+        assertTrue(body.contains("\"rejected\": 1"));
+    }
+
+    @Test
+    void createBatchFromStream_RejectsMalformedNdjsonLinesIndividually() {
+        // Given
+        String record = "{\"title\":\"Title\",\"message\":\"Message\",\"channel\":\"EMAIL\",\"priority\":\"LOW\",\"recipientId\":\"u\"}";
+        String ndjson = record + "\n{\"title\":\n\n" + record + "\n";
+        when(notificationDAO.claimBatch(any(), eq("testUser"), any())).thenReturn(true);
+
+        // When
+        Response response = batchResource.createBatchFromStream(new NotificationPrincipal("testUser", "TEST"), null,
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        String body = (String) response.getEntity();
+        assertTrue(body.contains("\"accepted\": 2"));
+        assertTrue(body.contains("\"rejected\": 1"));
+        assertTrue(body.contains("line 2: malformed JSON"));
+    }
+
+    @Test
+    void createBatchFromStream_RejectsOversizedNdjsonLinesWithoutStopping() {
+        // Given
+        String record = "{\"title\":\"Title\",\"message\":\"Message\",\"channel\":\"EMAIL\",\"priority\":\"LOW\",\"recipientId\":\"u\"}";
+        StringBuilder oversized = new StringBuilder("{\"title\":\"");
+        for (int i = 0; i < 10000; i++) {
+            oversized.append('x');
+        }
+        oversized.append("\"}");
+        String ndjson = record + "\n" + oversized + "\n" + record;
+        when(notificationDAO.claimBatch(any(), eq("testUser"), any())).thenReturn(true);
+
+        // When
+        Response response = batchResource.createBatchFromStream(new NotificationPrincipal("testUser", "TEST"), null,
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+        String body = (String) response.getEntity();
+        assertTrue(body.contains("\"accepted\": 2"));
+        assertTrue(body.contains("\"rejected\": 1"));
+        assertTrue(body.contains("line 2: longer than 4096 characters"));
+    }
+
+    @Test
+    void createBatchFromStream_RejectsBatchIdsThatAreNotOwnUuids() {
+        NotificationPrincipal user = new NotificationPrincipal("testUser", "TEST");
+        String otherBatch = "0b8f3c5e-6a1d-4f2e-9c3b-7d5e1a2f4c6b";
+        when(notificationDAO.claimBatch(eq(otherBatch), eq("testUser"), any())).thenReturn(false);
+
+        Response malformed = batchResource.createBatchFromStream(user, "batch-1",
+            new ByteArrayInputStream(new byte[0]), null);
+        Response foreign = batchResource.createBatchFromStream(user, otherBatch,
+            new ByteArrayInputStream(new byte[0]), null);
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), malformed.getStatus());
+        assertEquals(Response.Status.FORBIDDEN.getStatusCode(), foreign.getStatus());
+        verify(notificationDAO, never()).insertNotificationsWithOutbox(anyList());
+    }
+
+    @Test
+    void createBatchFromStream_RejectsMalformedInput() {
+        // Given
+        when(notificationDAO.claimBatch(any(), eq("testUser"), any())).thenReturn(true);
+        String json = "[{\"title\":\"Title\",\"message\":\"Message\",\"channel\":\"EMAIL\",\"priority\":\"LOW\",\"recipientId\":\"u\"}, {\"title\":";
+
+        // When
+        Response response = batchResource.createBatchFromStream(new NotificationPrincipal("testUser", "TEST"), null,
+            new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), null);
+
+        // Then
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertTrue(((String) response.getEntity()).contains("Malformed input"));
+    }
+
+    private static List<Integer> chunkSizes(List<List<NotificationMessage>> chunks) {
+        List<Integer> sizes = new ArrayList<>();
+        for (List<NotificationMessage> chunk : chunks) {
+            sizes.add(chunk.size());
+        }
+        return sizes;
+    }
+}
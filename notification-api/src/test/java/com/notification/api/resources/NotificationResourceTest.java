@@ -1,22 +1,36 @@
 package com.notification.api.resources;
 
 import com.notification.api.db.NotificationDAO;
+import com.notification.api.stats.CounterDAO;
+import com.notification.api.stats.StatsCache;
+import com.notification.api.db.PageCursor;
 import com.notification.common.model.NotificationMessage;
 import com.notification.common.enums.NotificationChannel;
 import com.notification.common.enums.NotificationStatus;
 import com.notification.api.auth.NotificationPrincipal;
+import com.notification.api.cache.NotificationCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import redis.clients.jedis.JedisPool;
 
 import javax.ws.rs.core.Response;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,26 +38,30 @@ class NotificationResourceTest {
 
     @Mock
     private NotificationDAO notificationDAO;
-    
+
+    @Mock
+    private CounterDAO counterDAO;
+
     @Mock
-    private JedisPool jedisPool;
+    private NotificationCache notificationCache;
 
     private NotificationResource notificationResource;
 
     @BeforeEach
     void setUp() {
-        notificationResource = new NotificationResource(notificationDAO, jedisPool);
+        notificationResource = new NotificationResource(notificationDAO, new StatsCache(counterDAO, 5000, 100),
+            notificationCache);
     }
 
     @Test
-    void getNotification_ReturnsNotification_WhenNotificationExists() {
+    void getNotification_ReturnsNotification_WhenNotificationExists() throws Exception {
         // Given
         String notificationId = "test-id";
         NotificationMessage notification = new NotificationMessage(
             "Test Title", "Test Message", NotificationChannel.EMAIL, "user123");
         notification.setId(notificationId);
         
-        when(notificationDAO.findById(notificationId)).thenReturn(Optional.of(notification));
+        when(notificationCache.get(notificationId)).thenReturn(Optional.of(notification));
 
         // When
         Response response = notificationResource.getNotification(new NotificationPrincipal("testUser", "TEST"), notificationId, null);
@@ -54,10 +72,10 @@ class NotificationResourceTest {
     }
 
     @Test
-    void getNotification_ReturnsNotFound_WhenNotificationDoesNotExist() {
+    void getNotification_ReturnsNotFound_WhenNotificationDoesNotExist() throws Exception {
         // Given
         String notificationId = "nonexistent-id";
-        when(notificationDAO.findById(notificationId)).thenReturn(Optional.empty());
+        when(notificationCache.get(notificationId)).thenReturn(Optional.empty());
 
         // When
         Response response = notificationResource.getNotification(new NotificationPrincipal("testUser", "TEST"), notificationId, null);
@@ -65,4 +83,91 @@ class NotificationResourceTest {
         // Then
         assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
     }
-}
\ No newline at end of file
+
+    @Test
+    void createNotification_MintsANewId_WhenTheSameIdIsPostedTwice() {
+        NotificationPrincipal user = new NotificationPrincipal("testUser", "TEST");
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            NotificationMessage notification = new NotificationMessage(
+                "Test Title", "Test Message", NotificationChannel.EMAIL, "user123");
+            notification.setId("client-id");
+
+            Response response = notificationResource.createNotification(user, notification, null);
+
+            assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+            ids.add(((NotificationMessage) response.getEntity()).getId());
+        }
+
+        verify(notificationDAO, times(2)).insertNotificationWithOutbox(any(NotificationMessage.class));
+        assertNotEquals("client-id", ids.get(0));
+        assertNotEquals(ids.get(0), ids.get(1));
+    }
+
+    @Test
+    void getNotificationsByRecipient_ReturnsCursorToNextPage_WithoutCounting() {
+        // Given
+        List<NotificationMessage> rows = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            NotificationMessage notification = new NotificationMessage(
+                "Title", "Message", NotificationChannel.EMAIL, "user123");
+            notification.setId("id-" + i);
+            notification.setCreatedAt(new Timestamp(1_700_000_000_000L - i * 1000L));
+            rows.add(notification);
+        }
+        when(notificationDAO.findByRecipientId("user123", null, 3)).thenReturn(rows);
+
+        // When
+        Response response = notificationResource.getNotificationsByRecipient(
+            new NotificationPrincipal("testUser", "TEST"), "user123", null, 2, false, null);
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(2, ((List<?>) response.getEntity()).size());
+        assertNull(response.getHeaderString("X-Total-Count"));
+        verify(notificationDAO, never()).countByRecipientId(anyString());
+
+        PageCursor next = PageCursor.decode(response.getHeaderString("X-Next-Cursor"));
+        assertEquals("id-1", next.getId());
+        assertEquals(rows.get(1).getCreatedAt(), next.getCreatedAt());
+    }
+
+    @Test
+    void getNotificationsByRecipient_ReturnsBadRequest_ForInvalidCursor() {
+        Response response = notificationResource.getNotificationsByRecipient(
+            new NotificationPrincipal("testUser", "TEST"), "user123", "not-a-cursor", 20, false, null);
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        verify(notificationDAO, never()).findByRecipientIdAfter(anyString(), any(), anyString(), anyInt());
+    }
+
+    @Test
+    void getNotificationStats_ServesRepeatedPollsFromOneCounterRead() {
+        // Given
+        when(counterDAO.findCounts(CounterDAO.SCOPE_ALL)).thenReturn(Map.of(
+            NotificationStatus.PENDING, 4L, NotificationStatus.SENT, 10L));
+        NotificationPrincipal principal = new NotificationPrincipal("testUser", "TEST");
+
+        // When
+        Response first = notificationResource.getNotificationStats(principal, null, null);
+        Response second = notificationResource.getNotificationStats(principal, null, null);
+
+        // Then
+        assertEquals("{\"pending\": 4, \"processing\": 0, \"sent\": 10, \"failed\": 0, \"scheduled\": 0}",
+            first.getEntity());
+        assertEquals(first.getEntity(), second.getEntity());
+        verify(counterDAO, times(1)).findCounts(CounterDAO.SCOPE_ALL);
+        verify(notificationDAO, never()).countByStatus(any());
+    }
+
+    @Test
+    void getNotificationStats_ReadsChannelCounters() {
+        when(counterDAO.findCounts("channel:SMS")).thenReturn(Map.of(NotificationStatus.FAILED, 2L));
+
+        Response response = notificationResource.getNotificationStats(
+            new NotificationPrincipal("testUser", "TEST"), "sms", null);
+
+        assertEquals("{\"pending\": 0, \"processing\": 0, \"sent\": 0, \"failed\": 2, \"scheduled\": 0}",
+            response.getEntity());
+    }
+}
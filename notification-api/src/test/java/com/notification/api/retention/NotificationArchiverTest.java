@@ -0,0 +1,130 @@
+package com.notification.api.retention;
+
+import com.notification.api.config.NotificationApiConfiguration.ArchiveConfig;
+import io.dropwizard.jackson.Jackson;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NotificationArchiverTest {
+
+    @TempDir
+    Path directory;
+
+    private Jdbi jdbi;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = Jdbi.create("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useHandle(handle -> {
+            handle.execute("CREATE TABLE notification_content (content_hash VARCHAR(64) PRIMARY KEY, " +
+                "title VARCHAR(255), message TEXT)");
+            handle.execute("CREATE TABLE notifications (id VARCHAR(36) NOT NULL, title VARCHAR(255), message TEXT, " +
+                "channel VARCHAR(50) NOT NULL, status VARCHAR(20) NOT NULL, recipient_id VARCHAR(255) NOT NULL, " +
+                "content_hash VARCHAR(64), created_at TIMESTAMP NOT NULL, updated_at TIMESTAMP NOT NULL, " +
+                "PRIMARY KEY (id, created_at))");
+            handle.execute("INSERT INTO notification_content VALUES ('h1', 'Shared title', 'Shared message')");
+        });
+    }
+
+    @Test
+    void archive_WritesSegmentsThenDeletesArchivedRows() throws IOException {
+        // Given
+        LocalDateTime old = LocalDateTime.now().minusDays(40);
+        for (int i = 0; i < 5; i++) {
+            insert("old" + i, "SENT", old.plusMinutes(i), old.plusMinutes(i));
+        }
+        insert("old-cancelled", "CANCELLED", old.plusMinutes(10), old.plusMinutes(10));
+        insert("old-pending", "PENDING", old, old);
+        insert("old-touched", "FAILED", old, LocalDateTime.now().plusMinutes(5));
+        insert("recent", "SENT", LocalDateTime.now().minusDays(1), LocalDateTime.now().minusDays(1));
+        NotificationArchiver archiver = new NotificationArchiver(jdbi, Jackson.newObjectMapper(), config(2, 1));
+
+        // When
+        archiver.archive();
+
+        // Then
+        List<String> index = Files.readAllLines(directory.resolve(NotificationArchiver.INDEX_FILE));
+        assertEquals(3, index.size());
+        List<String> archived = index.stream()
+            .map(line -> directory.resolve(line.replaceAll(".*\"file\":\"([^\"]+)\".*", "$1")))
+            .flatMap(file -> readSegment(file).stream())
+            .collect(Collectors.toList());
+        assertEquals(6, archived.size());
+        assertTrue(archived.get(0).contains("\"id\":\"old0\""));
+        assertTrue(archived.get(0).contains("Shared title"));
+        assertTrue(archived.get(4).contains("\"id\":\"old4\""));
+        assertTrue(archived.get(5).contains("\"id\":\"old-cancelled\""));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".part")));
+        }
+
+        List<String> remaining = jdbi.withHandle(handle ->
+            handle.createQuery("SELECT id FROM notifications ORDER BY id").mapTo(String.class).list());
+        assertEquals(List.of("old-pending", "old-touched", "recent"), remaining);
+    }
+
+    @Test
+    void archive_WritesNothingWhenNoRowsQualify() throws IOException {
+        // Given
+        insert("recent", "SENT", LocalDateTime.now(), LocalDateTime.now());
+
+        // When
+        new NotificationArchiver(jdbi, Jackson.newObjectMapper(), config(2, 1)).archive();
+
+        // Then
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private ArchiveConfig config(int segmentMaxRows, int deleteChunkSize) {
+        ArchiveConfig config = new ArchiveConfig();
+        config.setDirectory(directory.toString());
+        config.setOlderThanDays(30);
+        config.setFetchSize(2);
+        config.setSegmentMaxRows(segmentMaxRows);
+        config.setDeleteChunkSize(deleteChunkSize);
+        return config;
+    }
+
+    private void insert(String id, String status, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        jdbi.useHandle(handle -> handle.createUpdate("INSERT INTO notifications " +
+                "(id, channel, status, recipient_id, content_hash, created_at, updated_at) " +
+                "VALUES (:id, 'EMAIL', :status, 'user1', 'h1', :createdAt, :updatedAt)")
+            .bind("id", id)
+            .bind("status", status)
+            .bind("createdAt", Timestamp.valueOf(createdAt))
+            .bind("updatedAt", Timestamp.valueOf(updatedAt))
+            .execute());
+    }
+
+    private static List<String> readSegment(Path file) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
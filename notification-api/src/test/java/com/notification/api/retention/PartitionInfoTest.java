@@ -0,0 +1,43 @@
+package com.notification.api.retention;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionInfoTest {
+
+    @Test
+    void parsesRangeBounds() {
+        PartitionInfo partition = partition("FOR VALUES FROM ('2024-03-01 00:00:00') TO ('2024-03-02 00:00:00')");
+
+        assertEquals(Timestamp.valueOf("2024-03-01 00:00:00"), partition.getFrom());
+        assertEquals(Timestamp.valueOf("2024-03-02 00:00:00"), partition.getTo());
+    }
+
+    @Test
+    void legacyPartitionHasNoLowerBound() {
+        PartitionInfo partition = partition("FOR VALUES FROM (MINVALUE) TO ('2024-03-01 00:00:00')");
+
+        assertNull(partition.getFrom());
+        assertEquals(Timestamp.valueOf("2024-03-01 00:00:00"), partition.getTo());
+    }
+
+    @Test
+    void defaultPartitionHasNoBounds() {
+        PartitionInfo partition = partition("DEFAULT");
+
+        assertTrue(partition.isDefault());
+        assertNull(partition.getTo());
+    }
+
+    private static PartitionInfo partition(String bound) {
+        PartitionInfo partition = new PartitionInfo();
+        partition.setName("notifications_p20240301");
+        partition.setBound(bound);
+        return partition;
+    }
+}